@@ -0,0 +1,296 @@
+package com.trionix.maps;
+
+import com.trionix.maps.internal.tiles.TileKey;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import javafx.scene.image.Image;
+
+/**
+ * In-memory tile cache with lock-free reads and CLOCK (second-chance) eviction.
+ *
+ * <p>Entries live in an open-addressing table that readers probe without taking any lock, so
+ * {@link #get(int, long, long)} on the JavaFX thread never waits for tile-loading threads that are
+ * inserting new tiles. Instead of reordering a list on every hit, a read only sets the entry's
+ * reference bit; writers sweep a clock hand over the table and evict the first entry whose bit is
+ * clear, giving approximate LRU behavior at a fraction of the synchronization cost.
+ *
+ * <p>Writes ({@link #put(int, long, long, Image)} and {@link #clear()}) are serialized by a single
+ * lock. Tile insertions are rare compared to lookups, so this is not a contention point.
+ *
+ * <p>The cache is bounded either by tile count ({@link #ConcurrentTileCache(int)}) or by the
+ * estimated decoded size of its images ({@link #withMaxBytes(long)}). A 256x256 tile costs about
+ * 256 KB of heap while a 512x512 retina tile costs 1 MB, so a byte budget keeps the real memory
+ * footprint stable regardless of the {@link TileSource} in use.
+ */
+public final class ConcurrentTileCache implements TileCache {
+
+    // Packed keys are never negative, so the tombstone never matches a lookup.
+    private static final Entry TOMBSTONE = new Entry(-1L, null, 0L);
+    private static final int MIN_TABLE_SIZE = 16;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final long maxWeight;
+    private final boolean weighByBytes;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile AtomicReferenceArray<Entry> table;
+
+    // Guarded by writeLock
+    private int size;
+    private long weight;
+    private int tombstones;
+    private int clockHand;
+
+    /**
+     * Creates a cache holding at most {@code capacity} tiles.
+     *
+     * @param capacity the maximum number of tiles to keep (must be positive)
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public ConcurrentTileCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.maxWeight = capacity;
+        this.weighByBytes = false;
+        this.table = new AtomicReferenceArray<>(tableSizeFor(capacity));
+    }
+
+    private ConcurrentTileCache(long maxBytes) {
+        this.maxWeight = maxBytes;
+        this.weighByBytes = true;
+        this.table = new AtomicReferenceArray<>(MIN_TABLE_SIZE);
+    }
+
+    /**
+     * Creates a cache bounded by the estimated decoded size of its tiles. Each image is weighed as
+     * {@code width * height * 4} bytes; images larger than the whole budget are not cached.
+     *
+     * @param maxBytes the maximum total weight in bytes (must be positive)
+     * @return a new byte-bounded cache
+     * @throws IllegalArgumentException if maxBytes is not positive
+     */
+    public static ConcurrentTileCache withMaxBytes(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        return new ConcurrentTileCache(maxBytes);
+    }
+
+    /**
+     * Returns the estimated decoded size of an image in bytes, assuming 32-bit pixels.
+     */
+    public static long estimateBytes(Image image) {
+        Objects.requireNonNull(image, "image");
+        long width = (long) Math.ceil(image.getWidth());
+        long height = (long) Math.ceil(image.getHeight());
+        return Math.max(1L, width * height * BYTES_PER_PIXEL);
+    }
+
+    @Override
+    public Image get(int zoom, long x, long y) {
+        if (!TileKey.isValid(zoom, x, y)) {
+            return null;
+        }
+        long key = TileKey.pack(zoom, x, y);
+        AtomicReferenceArray<Entry> current = table;
+        int mask = current.length() - 1;
+        int index = TileKey.hash(key) & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            Entry entry = current.get(index);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.key == key) {
+                if (!entry.referenced) {
+                    entry.referenced = true;
+                }
+                return entry.image;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    @Override
+    public void put(int zoom, long x, long y, Image image) {
+        Objects.requireNonNull(image, "image");
+        if (!TileKey.isValid(zoom, x, y)) {
+            return;
+        }
+        long entryWeight = weighByBytes ? estimateBytes(image) : 1L;
+        long key = TileKey.pack(zoom, x, y);
+        Entry entry = new Entry(key, image, entryWeight);
+        writeLock.lock();
+        try {
+            int existing = indexOf(table, key);
+            if (existing >= 0) {
+                entry.referenced = true;
+                remove(existing);
+            }
+            if (entryWeight > maxWeight) {
+                return;
+            }
+            while (size > 0 && weight + entryWeight > maxWeight) {
+                evictOne();
+            }
+            insert(entry);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        writeLock.lock();
+        try {
+            table = new AtomicReferenceArray<>(table.length());
+            size = 0;
+            weight = 0;
+            tombstones = 0;
+            clockHand = 0;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of tiles currently cached.
+     */
+    public int size() {
+        writeLock.lock();
+        try {
+            return size;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current total weight: the estimated decoded bytes for caches created with
+     * {@link #withMaxBytes(long)}, otherwise the number of cached tiles.
+     */
+    public long weight() {
+        writeLock.lock();
+        try {
+            return weight;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the weight limit this cache evicts down to.
+     */
+    public long maxWeight() {
+        return maxWeight;
+    }
+
+    private void insert(Entry entry) {
+        AtomicReferenceArray<Entry> current = table;
+        int mask = current.length() - 1;
+        int index = TileKey.hash(entry.key) & mask;
+        while (true) {
+            Entry slot = current.get(index);
+            if (slot == null || slot == TOMBSTONE) {
+                current.set(index, entry);
+                size++;
+                weight += entry.weight;
+                if (slot == TOMBSTONE) {
+                    tombstones--;
+                } else if ((size + tombstones) * 4 > current.length() * 3) {
+                    rebuild();
+                }
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void evictOne() {
+        AtomicReferenceArray<Entry> current = table;
+        int mask = current.length() - 1;
+        while (true) {
+            int index = clockHand;
+            clockHand = (clockHand + 1) & mask;
+            Entry entry = current.get(index);
+            if (entry == null || entry == TOMBSTONE) {
+                continue;
+            }
+            if (entry.referenced) {
+                entry.referenced = false;
+                continue;
+            }
+            remove(index);
+            return;
+        }
+    }
+
+    private void remove(int index) {
+        Entry entry = table.get(index);
+        table.set(index, TOMBSTONE);
+        size--;
+        weight -= entry.weight;
+        tombstones++;
+    }
+
+    /**
+     * Copies live entries into a fresh table and publishes it, dropping accumulated tombstones and
+     * growing the table when live entries fill half of it. Readers still probing the previous
+     * table keep seeing a consistent snapshot.
+     */
+    private void rebuild() {
+        AtomicReferenceArray<Entry> previous = table;
+        int length = size * 2 > previous.length() ? previous.length() * 2 : previous.length();
+        AtomicReferenceArray<Entry> rebuilt = new AtomicReferenceArray<>(length);
+        int mask = rebuilt.length() - 1;
+        for (int i = 0; i < previous.length(); i++) {
+            Entry entry = previous.get(i);
+            if (entry == null || entry == TOMBSTONE) {
+                continue;
+            }
+            int index = TileKey.hash(entry.key) & mask;
+            while (rebuilt.get(index) != null) {
+                index = (index + 1) & mask;
+            }
+            rebuilt.set(index, entry);
+        }
+        tombstones = 0;
+        clockHand = 0;
+        table = rebuilt;
+    }
+
+    private static int indexOf(AtomicReferenceArray<Entry> current, long key) {
+        int mask = current.length() - 1;
+        int index = TileKey.hash(key) & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            Entry entry = current.get(index);
+            if (entry == null) {
+                return -1;
+            }
+            if (entry.key == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int target = Math.max(MIN_TABLE_SIZE, capacity * 2);
+        return Integer.highestOneBit(target - 1) << 1;
+    }
+
+    private static final class Entry {
+        final long key;
+        final Image image;
+        final long weight;
+        volatile boolean referenced;
+
+        Entry(long key, Image image, long weight) {
+            this.key = key;
+            this.image = image;
+            this.weight = weight;
+        }
+    }
+}
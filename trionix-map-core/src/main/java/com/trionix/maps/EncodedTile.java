@@ -0,0 +1,29 @@
+package com.trionix.maps;
+
+import java.util.Objects;
+import javafx.scene.image.Image;
+
+/**
+ * A decoded tile together with the encoded bytes it was decoded from, as served by the tile
+ * source (PNG, JPEG, ...). Carrying the original payload lets disk caches store it as-is instead
+ * of re-encoding the decoded image. Retrievers that speak HTTP also attach the response's
+ * {@link TileMetadata caching metadata}, which disk caches keep for later revalidation.
+ *
+ * <p>The byte array is not copied; callers must not modify it after construction.
+ *
+ * @param metadata caching metadata, or {@code null} if the source provided none
+ */
+public record EncodedTile(Image image, byte[] data, TileMetadata metadata) {
+
+    public EncodedTile {
+        Objects.requireNonNull(image, "image");
+        Objects.requireNonNull(data, "data");
+    }
+
+    /**
+     * Creates a tile without caching metadata.
+     */
+    public EncodedTile(Image image, byte[] data) {
+        this(image, data, null);
+    }
+}
@@ -0,0 +1,64 @@
+package com.trionix.maps;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link TileRetriever} that can also hand out the encoded bytes of each tile. The tile manager
+ * prefers {@link #loadEncodedTile(int, long, long)} when available and stores the payload through
+ * {@link TileCache#putEncoded(int, long, long, EncodedTile)}, so disk caches write the original
+ * bytes without transcoding.
+ *
+ * <p>When a cached tile's {@link TileMetadata} has expired, the tile manager asks
+ * {@link #revalidateTile(int, long, long, TileMetadata)} whether it changed.
+ */
+public interface EncodedTileRetriever extends TileRetriever {
+
+    /**
+     * Loads a single tile, returning both the decoded image and its encoded bytes. Cancelling the
+     * returned future must abandon the load just like {@link #loadTile(int, long, long)}.
+     *
+     * @param zoom zoom level
+     * @param x    tile x index
+     * @param y    tile y index
+     * @return a future that completes with the decoded tile and its payload
+     */
+    CompletableFuture<EncodedTile> loadEncodedTile(int zoom, long x, long y);
+
+    /**
+     * Checks whether a cached tile is still current, using its validators for a conditional
+     * request. The default implementation has no way to ask and loads the tile again.
+     *
+     * @param cached the metadata stored with the cached tile
+     * @return a future completing with {@link Revalidation#notModified(TileMetadata)} and the
+     *         refreshed metadata if the cached tile is still current, or with the new tile
+     */
+    default CompletableFuture<Revalidation> revalidateTile(int zoom, long x, long y, TileMetadata cached) {
+        return loadEncodedTile(zoom, x, y).thenApply(Revalidation::modified);
+    }
+
+    /**
+     * Outcome of {@link #revalidateTile(int, long, long, TileMetadata)}: either a replacement
+     * tile, or {@code null} together with refreshed metadata for the cached one.
+     *
+     * @param tile     the new tile, or {@code null} if the cached tile is still current
+     * @param metadata the metadata to store with the tile
+     */
+    record Revalidation(EncodedTile tile, TileMetadata metadata) {
+
+        /** The cached tile is still current; {@code metadata} replaces its stored metadata. */
+        public static Revalidation notModified(TileMetadata metadata) {
+            return new Revalidation(null, Objects.requireNonNull(metadata, "metadata"));
+        }
+
+        /** The tile changed and {@code tile} replaces the cached one. */
+        public static Revalidation modified(EncodedTile tile) {
+            Objects.requireNonNull(tile, "tile");
+            return new Revalidation(tile, tile.metadata());
+        }
+
+        public boolean isModified() {
+            return tile != null;
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package com.trionix.maps;
 
+import com.trionix.maps.internal.cache.DiskTileIndex;
+import com.trionix.maps.internal.concurrent.TileExecutors;
+import com.trionix.maps.internal.tiles.TileKey;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.image.Image;
@@ -20,8 +28,21 @@ import javax.imageio.ImageIO;
  *
  * <p>
  * Tiles are stored as PNG files at {@code {cacheDir}/{zoom}/{x}/{y}.png}.
- * LRU eviction is performed based on file last-modified time when the cache
- * exceeds capacity.
+ * Sizes and access order are tracked by an in-memory LRU index persisted as
+ * an append-only journal ({@value #JOURNAL_FILE_NAME}), so eviction never has
+ * to walk the directory tree. The journal is loaded on first use; if it is
+ * missing, the index is rebuilt once from the files on disk, ordered by
+ * last-modified time.
+ *
+ * <p>
+ * Reads are pure reads: a hit only updates the in-memory access order, which
+ * is appended to the journal in batches (see {@link #flush()}).
+ *
+ * <p>
+ * {@link TileMetadata Caching metadata} of tiles stored through
+ * {@link #putEncoded(int, long, long, EncodedTile)} is kept in a small text
+ * file next to the tile ({@code {y}.png}{@value #METADATA_SUFFIX}) and is
+ * deleted together with it.
  *
  * <p>
  * This implementation is thread-safe. Concurrent access is protected via
@@ -30,9 +51,19 @@ import javax.imageio.ImageIO;
  */
 public final class FileTileCache implements TileCache {
 
+    /** Name of the index journal kept in the cache directory. */
+    public static final String JOURNAL_FILE_NAME = "tiles.journal";
+
+    /** Suffix appended to a tile's file name for its metadata file. */
+    public static final String METADATA_SUFFIX = ".meta";
+
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "last-modified";
+    private static final String EXPIRES = "expires";
+
     private final Path cacheDir;
     private final int maxFiles;
-    private final ReentrantLock evictionLock = new ReentrantLock();
+    private DiskTileIndex index;
 
     /**
      * Creates a disk-based tile cache.
@@ -55,13 +86,26 @@ public final class FileTileCache implements TileCache {
 
     @Override
     public Image get(int zoom, long x, long y) {
+        if (!TileKey.isValid(zoom, x, y)) {
+            return null;
+        }
         Path tilePath = tilePath(zoom, x, y);
+        long key = TileKey.pack(zoom, x, y);
         try {
-            // Touch file for LRU tracking - this also verifies existence
-            Files.setLastModifiedTime(tilePath, FileTime.fromMillis(System.currentTimeMillis()));
-            return new Image(tilePath.toUri().toString());
+            if (!index().contains(key) && !Files.isRegularFile(tilePath)) {
+                return null;
+            }
+            Image image = new Image(tilePath.toUri().toString());
+            if (image.isError()) {
+                if (!Files.exists(tilePath)) {
+                    // Deleted behind our back or by a concurrent eviction
+                    index().remove(key);
+                }
+                return null;
+            }
+            recordAccess(key, tilePath);
+            return image;
         } catch (IOException e) {
-            // File doesn't exist or was deleted by concurrent eviction
             return null;
         } catch (IllegalArgumentException e) {
             // Invalid or corrupted image file
@@ -69,30 +113,220 @@ public final class FileTileCache implements TileCache {
         }
     }
 
+    /**
+     * Always returns {@code null}: disk reads never run on the rendering thread. Use
+     * {@link #getAsync(int, long, long)} instead.
+     */
+    @Override
+    public Image peek(int zoom, long x, long y) {
+        return null;
+    }
+
+    /**
+     * Reads and decodes the tile on a tile-loading thread.
+     */
+    @Override
+    public CompletableFuture<Image> getAsync(int zoom, long x, long y) {
+        return CompletableFuture.supplyAsync(() -> get(zoom, x, y), TileExecutors.tileExecutor());
+    }
+
+    /**
+     * Checks the index, falling back to the file system for tiles the index does not know about.
+     */
+    @Override
+    public boolean contains(int zoom, long x, long y) {
+        if (!TileKey.isValid(zoom, x, y)) {
+            return false;
+        }
+        try {
+            if (index().contains(TileKey.pack(zoom, x, y))) {
+                return true;
+            }
+        } catch (IOException e) {
+            // Fall back to the file system
+        }
+        return Files.isRegularFile(tilePath(zoom, x, y));
+    }
+
+    /**
+     * Writes access-order updates that are still buffered in memory to the index journal. Reads
+     * never touch the disk, so recency is persisted in batches; call this before shutdown to keep
+     * the most recent batch.
+     */
+    public void flush() {
+        DiskTileIndex current;
+        synchronized (this) {
+            current = index;
+        }
+        if (current == null) {
+            return;
+        }
+        try {
+            current.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write cache index", e);
+        }
+    }
+
     @Override
     public void put(int zoom, long x, long y, Image image) {
         Objects.requireNonNull(image, "image");
+        writeTile(zoom, x, y, tempFile -> {
+            var bufferedImage = SwingFXUtils.fromFXImage(image, null);
+            ImageIO.write(bufferedImage, "png", tempFile.toFile());
+        }, null);
+    }
+
+    /**
+     * Stores the encoded bytes as-is, skipping the PNG re-encode performed by
+     * {@link #put(int, long, long, Image)}. The file keeps the {@code .png} name whatever its
+     * format; images are decoded by content, not by extension.
+     */
+    @Override
+    public void putEncoded(int zoom, long x, long y, Image image, byte[] encoded) {
+        Objects.requireNonNull(image, "image");
+        Objects.requireNonNull(encoded, "encoded");
+        writeTile(zoom, x, y, tempFile -> Files.write(tempFile, encoded), null);
+    }
+
+    /**
+     * Stores the encoded bytes as-is and keeps the tile's metadata in a file next to it.
+     */
+    @Override
+    public void putEncoded(int zoom, long x, long y, EncodedTile tile) {
+        Objects.requireNonNull(tile, "tile");
+        writeTile(zoom, x, y, tempFile -> Files.write(tempFile, tile.data()), tile.metadata());
+    }
+
+    @Override
+    public TileMetadata metadata(int zoom, long x, long y) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(metadataPath(tilePath(zoom, x, y)), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null; // Usually missing; a tile without metadata is simply never revalidated
+        }
+        String etag = null;
+        String lastModified = null;
+        Instant expires = null;
+        for (String line : lines) {
+            int separator = line.indexOf(':');
+            if (separator < 0) {
+                continue;
+            }
+            String value = line.substring(separator + 1).trim();
+            switch (line.substring(0, separator)) {
+                case ETAG -> etag = value;
+                case LAST_MODIFIED -> lastModified = value;
+                case EXPIRES -> {
+                    try {
+                        expires = Instant.parse(value);
+                    } catch (DateTimeParseException e) {
+                        // Treat as unknown
+                    }
+                }
+                default -> {
+                    // Written by a newer version
+                }
+            }
+        }
+        return new TileMetadata(etag, lastModified, expires);
+    }
+
+    @Override
+    public void updateMetadata(int zoom, long x, long y, TileMetadata metadata) {
+        Objects.requireNonNull(metadata, "metadata");
+        if (!TileKey.isValid(zoom, x, y)) {
+            return;
+        }
+        Path tilePath = tilePath(zoom, x, y);
+        try {
+            DiskTileIndex current = index();
+            synchronized (current) {
+                if (current.contains(TileKey.pack(zoom, x, y)) || Files.isRegularFile(tilePath)) {
+                    writeMetadata(tilePath, metadata);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write tile metadata to disk", e);
+        }
+    }
+
+    private void writeTile(int zoom, long x, long y, TileWriter writer, TileMetadata metadata) {
+        if (!TileKey.isValid(zoom, x, y)) {
+            return;
+        }
         Path tilePath = tilePath(zoom, x, y);
         try {
             Files.createDirectories(tilePath.getParent());
             // Atomic write: write to temp file, then move
             Path tempFile = Files.createTempFile(tilePath.getParent(), "tile", ".tmp");
+            long sizeBytes;
             try {
-                var bufferedImage = SwingFXUtils.fromFXImage(image, null);
-                ImageIO.write(bufferedImage, "png", tempFile.toFile());
-                Files.move(tempFile, tilePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                writer.write(tempFile);
+                sizeBytes = Files.size(tempFile);
             } catch (IOException e) {
                 Files.deleteIfExists(tempFile);
                 throw e;
             }
-            evictIfNeeded();
+            DiskTileIndex current = index();
+            // Publish under the index lock so a concurrent eviction of this key cannot delete
+            // the new file after it was moved into place but before it was indexed
+            synchronized (current) {
+                try {
+                    Files.move(tempFile, tilePath, StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    Files.deleteIfExists(tempFile);
+                    throw e;
+                }
+                if (metadata != null) {
+                    writeMetadata(tilePath, metadata);
+                } else {
+                    // Validators of the replaced tile do not describe this one
+                    Files.deleteIfExists(metadataPath(tilePath));
+                }
+                deleteEvicted(current, current.add(TileKey.pack(zoom, x, y), sizeBytes));
+            }
         } catch (IOException e) {
             throw new UncheckedIOException("Failed to write tile to disk", e);
         }
     }
 
+    private static void writeMetadata(Path tilePath, TileMetadata metadata) throws IOException {
+        StringBuilder text = new StringBuilder();
+        if (metadata.etag() != null) {
+            text.append(ETAG).append(": ").append(metadata.etag()).append('\n');
+        }
+        if (metadata.lastModified() != null) {
+            text.append(LAST_MODIFIED).append(": ").append(metadata.lastModified()).append('\n');
+        }
+        if (metadata.expires() != null) {
+            text.append(EXPIRES).append(": ").append(metadata.expires()).append('\n');
+        }
+        Path tempFile = Files.createTempFile(tilePath.getParent(), "meta", ".tmp");
+        try {
+            Files.writeString(tempFile, text, StandardCharsets.UTF_8);
+            Files.move(tempFile, metadataPath(tilePath), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
     @Override
     public void clear() {
+        synchronized (this) {
+            if (index != null) {
+                try {
+                    index.close();
+                } catch (IOException e) {
+                    // The journal is deleted below anyway
+                }
+                index = null;
+            }
+        }
         if (!Files.exists(cacheDir)) {
             return;
         }
@@ -116,50 +350,122 @@ public final class FileTileCache implements TileCache {
                 .resolve(y + ".png");
     }
 
-    private void evictIfNeeded() {
-        if (!evictionLock.tryLock()) {
-            // Another thread is already evicting
-            return;
+    private static Path metadataPath(Path tilePath) {
+        return tilePath.resolveSibling(tilePath.getFileName() + METADATA_SUFFIX);
+    }
+
+    /** Returns the index, loading the journal or scanning the directory on first use. */
+    private synchronized DiskTileIndex index() throws IOException {
+        if (index == null) {
+            DiskTileIndex loaded = DiskTileIndex.open(cacheDir.resolve(JOURNAL_FILE_NAME), maxFiles);
+            if (!loaded.wasRestored()) {
+                rebuildFromDirectory(loaded);
+            }
+            synchronized (loaded) {
+                deleteEvicted(loaded, loaded.trimToCapacity());
+            }
+            index = loaded;
         }
+        return index;
+    }
+
+    private void recordAccess(long key, Path tilePath) {
         try {
-            if (!Files.exists(cacheDir)) {
-                return;
+            DiskTileIndex current = index();
+            synchronized (current) {
+                if (current.contains(key)) {
+                    current.touch(key);
+                } else if (Files.isRegularFile(tilePath)) {
+                    // Adopt a file written before a crash prevented its journal record
+                    deleteEvicted(current, current.add(key, Files.size(tilePath)));
+                }
             }
-            try (Stream<Path> files = Files.walk(cacheDir)) {
-                var tileFiles = files
-                        .filter(Files::isRegularFile)
-                        .filter(p -> p.toString().endsWith(".png"))
-                        .toList();
+        } catch (IOException e) {
+            // Best effort bookkeeping - the tile itself was read successfully
+        }
+    }
 
-                if (tileFiles.size() <= maxFiles) {
+    /**
+     * Indexes the tiles already present in the cache directory, eldest first.
+     * This walks the tree once, when no journal exists yet.
+     */
+    private void rebuildFromDirectory(DiskTileIndex target) throws IOException {
+        if (!Files.isDirectory(cacheDir)) {
+            target.rebuild(new long[0], new long[0]);
+            return;
+        }
+        List<IndexedFile> files = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(cacheDir, 3)) {
+            walk.forEach(path -> {
+                long key = keyOf(path);
+                if (key < 0) {
                     return;
                 }
-
-                // Sort by last modified time (oldest first) and delete excess
-                int toDelete = tileFiles.size() - maxFiles;
-                tileFiles.stream()
-                        .sorted(Comparator.comparing(this::getLastModifiedTime))
-                        .limit(toDelete)
-                        .forEach(path -> {
-                            try {
-                                Files.deleteIfExists(path);
-                            } catch (IOException e) {
-                                // Best effort deletion
-                            }
-                        });
-            }
-        } catch (IOException e) {
-            // Best effort eviction - don't fail the put operation
-        } finally {
-            evictionLock.unlock();
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    if (attributes.isRegularFile()) {
+                        files.add(new IndexedFile(key, attributes.size(),
+                                attributes.lastModifiedTime().toMillis()));
+                    }
+                } catch (IOException e) {
+                    // Vanished while scanning
+                }
+            });
         }
+        files.sort(Comparator.comparingLong(IndexedFile::lastModifiedMillis));
+        long[] keys = new long[files.size()];
+        long[] sizes = new long[files.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = files.get(i).key();
+            sizes[i] = files.get(i).sizeBytes();
+        }
+        target.rebuild(keys, sizes);
     }
 
-    private FileTime getLastModifiedTime(Path path) {
+    /** Parses {@code {zoom}/{x}/{y}.png} relative to the cache directory, or returns -1. */
+    private long keyOf(Path path) {
+        Path relative = cacheDir.relativize(path);
+        if (relative.getNameCount() != 3) {
+            return -1;
+        }
+        String fileName = relative.getName(2).toString();
+        if (!fileName.endsWith(".png")) {
+            return -1;
+        }
         try {
-            return Files.getLastModifiedTime(path);
-        } catch (IOException e) {
-            return FileTime.fromMillis(0);
+            int zoom = Integer.parseInt(relative.getName(0).toString());
+            long x = Long.parseLong(relative.getName(1).toString());
+            long y = Long.parseLong(fileName.substring(0, fileName.length() - ".png".length()));
+            return TileKey.pack(zoom, x, y);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Deletes the files of evicted tiles. Callers hold the monitor of {@code current}, which
+     * orders these deletions with every write that moves a tile into place and indexes it.
+     */
+    private void deleteEvicted(DiskTileIndex current, long[] keys) {
+        for (long key : keys) {
+            if (current.contains(key)) {
+                continue; // Re-added since it was evicted
+            }
+            try {
+                Path tilePath = tilePath(TileKey.zoom(key), TileKey.x(key), TileKey.y(key));
+                Files.deleteIfExists(tilePath);
+                Files.deleteIfExists(metadataPath(tilePath));
+            } catch (IOException e) {
+                // Best effort deletion
+            }
         }
     }
+
+    @FunctionalInterface
+    private interface TileWriter {
+        void write(Path tempFile) throws IOException;
+    }
+
+    private record IndexedFile(long key, long sizeBytes, long lastModifiedMillis) {
+    }
 }
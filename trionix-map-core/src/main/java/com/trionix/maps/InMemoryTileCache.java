@@ -1,43 +1,69 @@
 package com.trionix.maps;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import com.trionix.maps.internal.tiles.TileKey;
+import com.trionix.maps.internal.util.LongObjectHashMap;
 import java.util.Objects;
 import javafx.scene.image.Image;
 
 /**
- * Simple in-memory LRU cache backed by {@link LinkedHashMap}.
+ * Simple in-memory LRU cache keyed by packed tile coordinates.
+ *
+ * <p>Entries are indexed by a primitive {@code long} map and threaded onto an access-ordered
+ * linked list, so lookups never allocate.
  */
 public final class InMemoryTileCache implements TileCache {
 
     private final int capacity;
-    private final Map<TileKey, Image> cache;
+    private final LongObjectHashMap<Node> cache;
+    private Node eldest;
+    private Node youngest;
 
     public InMemoryTileCache(int capacity) {
         if (capacity <= 0) {
             throw new IllegalArgumentException("capacity must be positive");
         }
         this.capacity = capacity;
-        this.cache = new LinkedHashMap<>(capacity, 0.75f, true) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<TileKey, Image> eldest) {
-                return size() > InMemoryTileCache.this.capacity;
-            }
-        };
+        this.cache = new LongObjectHashMap<>(Math.min(capacity, 1 << 16));
     }
 
     @Override
     public Image get(int zoom, long x, long y) {
+        if (!TileKey.isValid(zoom, x, y)) {
+            return null;
+        }
+        long key = TileKey.pack(zoom, x, y);
         synchronized (cache) {
-            return cache.get(new TileKey(zoom, x, y));
+            Node node = cache.get(key);
+            if (node == null) {
+                return null;
+            }
+            moveToYoungest(node);
+            return node.image;
         }
     }
 
     @Override
     public void put(int zoom, long x, long y, Image image) {
         Objects.requireNonNull(image, "image");
+        if (!TileKey.isValid(zoom, x, y)) {
+            return;
+        }
+        long key = TileKey.pack(zoom, x, y);
         synchronized (cache) {
-            cache.put(new TileKey(zoom, x, y), image);
+            Node node = cache.get(key);
+            if (node != null) {
+                node.image = image;
+                moveToYoungest(node);
+                return;
+            }
+            node = new Node(key, image);
+            cache.put(key, node);
+            link(node);
+            if (cache.size() > capacity) {
+                Node evicted = eldest;
+                unlink(evicted);
+                cache.remove(evicted.key);
+            }
         }
     }
 
@@ -45,9 +71,54 @@ public final class InMemoryTileCache implements TileCache {
     public void clear() {
         synchronized (cache) {
             cache.clear();
+            eldest = null;
+            youngest = null;
+        }
+    }
+
+    private void moveToYoungest(Node node) {
+        if (node == youngest) {
+            return;
         }
+        unlink(node);
+        link(node);
     }
 
-    private record TileKey(int zoom, long x, long y) {
+    private void link(Node node) {
+        node.older = youngest;
+        node.younger = null;
+        if (youngest != null) {
+            youngest.younger = node;
+        } else {
+            eldest = node;
+        }
+        youngest = node;
+    }
+
+    private void unlink(Node node) {
+        if (node.older != null) {
+            node.older.younger = node.younger;
+        } else {
+            eldest = node.younger;
+        }
+        if (node.younger != null) {
+            node.younger.older = node.older;
+        } else {
+            youngest = node.older;
+        }
+        node.older = null;
+        node.younger = null;
+    }
+
+    private static final class Node {
+        final long key;
+        Image image;
+        Node older;
+        Node younger;
+
+        Node(long key, Image image) {
+            this.key = key;
+            this.image = image;
+        }
     }
 }
@@ -8,9 +8,11 @@ import com.trionix.maps.internal.MapState;
 import com.trionix.maps.internal.interaction.MapInteractionHandler;
 import com.trionix.maps.internal.projection.Projection;
 import com.trionix.maps.internal.projection.WebMercatorProjection;
-import com.trionix.maps.internal.tiles.PlaceholderTileFactory;
 import com.trionix.maps.internal.tiles.TileCoordinate;
+import com.trionix.maps.internal.tiles.TileKey;
 import com.trionix.maps.internal.tiles.TileManager;
+import com.trionix.maps.internal.tiles.TileRenderer;
+import com.trionix.maps.internal.util.LongObjectHashMap;
 import com.trionix.maps.layer.MapLayer;
 import javafx.animation.AnimationTimer;
 import javafx.animation.Interpolator;
@@ -36,7 +38,6 @@ import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Region;
 import javafx.scene.shape.Rectangle;
@@ -48,9 +49,9 @@ import javafx.util.Duration;
  */
 public final class MapView extends Region {
 
-    private static final int DEFAULT_CACHE_CAPACITY = 500;
+    // Roughly 500 standard 256x256 tiles; retina sources keep fewer tiles in the same heap budget.
+    private static final long DEFAULT_CACHE_BYTES = 128L * 1024 * 1024;
     private static final double PREF_SIZE = 512.0;
-    private static final Image PLACEHOLDER = PlaceholderTileFactory.placeholder();
     private static final double REDRAW_EPSILON = 0.001;
     private static final long REDRAW_WINDOW_NANOS = 1_500_000_000L;
 
@@ -67,6 +68,7 @@ public final class MapView extends Region {
     private final MapState mapState = new MapState();
     private final TileCache tileCache;
     private final TileManager tileManager;
+    private final TileRenderer tileRenderer;
     private final SimpleOsmTileRetriever managedTileRetriever;
     private final Projection projection = WebMercatorProjection.INSTANCE;
     private final Canvas tileCanvas = new Canvas();
@@ -79,6 +81,9 @@ public final class MapView extends Region {
     private final AnimationTimer redrawTimer = new AnimationTimer() {
         @Override
         public void handle(long now) {
+            if (tilesPendingRedraw) {
+                redrawCurrentTiles();
+            }
             if (now >= redrawUntilNanos) {
                 stop();
                 return;
@@ -90,13 +95,16 @@ public final class MapView extends Region {
     private Runnable activeAnimationCleanup;
 
     private List<TileCoordinate> currentVisibleTiles = List.of();
+    private LongObjectHashMap<TileCoordinate> currentVisibleTileKeys = new LongObjectHashMap<>();
     private boolean refreshPending;
     private boolean redrawToggle;
+    // Set when visible tiles arrived since the last draw; the redraw timer draws them once per pulse
+    private boolean tilesPendingRedraw;
     private long redrawUntilNanos;
     private boolean syncingTileSourceProperty;
 
     public MapView() {
-        this(new SimpleOsmTileRetriever(), new InMemoryTileCache(DEFAULT_CACHE_CAPACITY));
+        this(new SimpleOsmTileRetriever(), ConcurrentTileCache.withMaxBytes(DEFAULT_CACHE_BYTES));
     }
 
     public MapView(TileRetriever retriever, TileCache cache) {
@@ -104,9 +112,14 @@ public final class MapView extends Region {
         Objects.requireNonNull(cache, "cache");
         this.tileCache = cache;
         this.tileManager = new TileManager(cache, retriever);
+        this.tileRenderer = new TileRenderer(tileManager);
         this.managedTileRetriever = retriever instanceof SimpleOsmTileRetriever simpleRetriever
                 ? simpleRetriever
                 : null;
+        if (managedTileRetriever != null) {
+            // Keep as many loads in flight as the source accepts
+            tileManager.setMaxConcurrentLoads(managedTileRetriever.getTileSource().maxConcurrentRequests());
+        }
         this.tileSource = new ObjectPropertyBase<>(managedTileRetriever != null ? managedTileRetriever.getTileSource() : null) {
             @Override
             protected void invalidated() {
@@ -131,7 +144,7 @@ public final class MapView extends Region {
                 return "tileSource";
             }
         };
-        this.interactionHandler = new MapInteractionHandler(this);
+        this.interactionHandler = new MapInteractionHandler(this, mapState);
 
         initializeProperties();
         initializeSceneGraph();
@@ -195,6 +208,51 @@ public final class MapView extends Region {
         this.enableDoubleClickZoom = enable;
     }
 
+    /**
+     * Returns how many tiles beyond each viewport edge are loaded ahead of time.
+     */
+    public int getPrefetchMargin() {
+        return tileManager.getPrefetchMargin();
+    }
+
+    /**
+     * Sets how many tiles beyond each viewport edge are loaded ahead of time.
+     * Prefetching additionally reaches ahead of an active drag; {@code 0}
+     * limits it to the drag direction.
+     */
+    public void setPrefetchMargin(int margin) {
+        tileManager.setPrefetchMargin(margin);
+        scheduleRefresh();
+    }
+
+    public boolean isZoomPrefetchEnabled() {
+        return tileManager.isZoomPrefetchEnabled();
+    }
+
+    /**
+     * Enables background loading of the tiles one zoom level above and below
+     * the visible ones, so zoom animations find imagery in the cache. Off by
+     * default because it roughly quintuples the number of tiles loaded.
+     */
+    public void setZoomPrefetchEnabled(boolean enabled) {
+        tileManager.setZoomPrefetchEnabled(enabled);
+        scheduleRefresh();
+    }
+
+    public boolean isStaleWhileRevalidateEnabled() {
+        return tileManager.isStaleWhileRevalidateEnabled();
+    }
+
+    /**
+     * Chooses how expired disk-cached tiles are refreshed. When enabled (the
+     * default), the cached tile is shown immediately and replaced if a
+     * background revalidation finds that it changed; when disabled, the tile
+     * is revalidated with the server before it is shown.
+     */
+    public void setStaleWhileRevalidateEnabled(boolean enabled) {
+        tileManager.setStaleWhileRevalidateEnabled(enabled);
+    }
+
     public MapAnimationConfig getAnimationConfig() {
         return animationConfig;
     }
@@ -310,7 +368,8 @@ public final class MapView extends Region {
         }
         List<TileCoordinate> visible = mapState.visibleTiles();
         currentVisibleTiles = visible;
-        tileManager.refreshTiles(visible, (coordinate, image) -> redrawLoadedTile(coordinate));
+        currentVisibleTileKeys = mapState.visibleTileKeys();
+        tileManager.refreshTiles(mapState, (coordinate, image) -> redrawLoadedTile(coordinate));
         extendRedrawWindow();
         requestLayout();
     }
@@ -333,6 +392,7 @@ public final class MapView extends Region {
         }
 
         managedTileRetriever.setTileSource(nonNullSource);
+        tileManager.setMaxConcurrentLoads(nonNullSource.maxConcurrentRequests());
         syncingTileSourceProperty = true;
         try {
             tileSource.set(nonNullSource);
@@ -345,20 +405,17 @@ public final class MapView extends Region {
         refreshTiles();
     }
 
+    /**
+     * Marks the canvas for a redraw on the next pulse rather than drawing at
+     * once, so any number of tiles arriving within a frame cost one redraw.
+     */
     private void redrawLoadedTile(TileCoordinate coordinate) {
-        if (!currentVisibleTiles.contains(coordinate)) {
+        if (!currentVisibleTileKeys.containsKey(TileKey.of(coordinate))) {
             return;
         }
-
-        double width = tileCanvas.getWidth();
-        double height = tileCanvas.getHeight();
-        if (width <= 0 || height <= 0) {
-            return;
-        }
-
-        drawTiles(width, height);
-        forceCanvasInvalidation();
+        tilesPendingRedraw = true;
         extendRedrawWindow();
+        Platform.requestNextPulse();
     }
 
     private void initializeLayers() {
@@ -384,26 +441,8 @@ public final class MapView extends Region {
     }
 
     private void drawTiles(double width, double height) {
-        graphics.clearRect(0.0, 0.0, width, height);
-        if (currentVisibleTiles.isEmpty()) {
-            return;
-        }
-        int zoomLevel = mapState.discreteZoomLevel();
-        Projection.PixelCoordinate centerPixels = projection.latLonToPixel(
-                mapState.getCenterLat(), mapState.getCenterLon(), zoomLevel);
-        double halfWidth = width / 2.0;
-        double halfHeight = height / 2.0;
-        double tileSize = Projection.TILE_SIZE;
-
-        for (TileCoordinate tile : currentVisibleTiles) {
-            Image cached = tileManager.cachedTile(tile);
-            Image image = cached != null ? cached : PLACEHOLDER;
-            double tileOriginX = tile.x() * tileSize;
-            double tileOriginY = tile.y() * tileSize;
-            double screenX = tileOriginX - centerPixels.x() + halfWidth;
-            double screenY = tileOriginY - centerPixels.y() + halfHeight;
-            graphics.drawImage(image, screenX, screenY, tileSize, tileSize);
-        }
+        tilesPendingRedraw = false;
+        tileRenderer.render(graphics, projection, mapState, currentVisibleTiles, width, height);
     }
 
     private void extendRedrawWindow() {
@@ -0,0 +1,230 @@
+package com.trionix.maps;
+
+import static com.trionix.maps.internal.cache.TilePackFormat.HEADER_BYTES;
+import static com.trionix.maps.internal.cache.TilePackFormat.MAGIC;
+import static com.trionix.maps.internal.cache.TilePackFormat.VERSION;
+
+import com.trionix.maps.internal.cache.MappedTileIndex;
+import com.trionix.maps.internal.concurrent.TileExecutors;
+import com.trionix.maps.internal.tiles.TileKey;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import javafx.scene.image.Image;
+
+/**
+ * Read-only {@link TileRetriever} serving tiles from a pre-seeded pack written by
+ * {@link PackTileCache}, for offline use.
+ *
+ * <p>
+ * Both the pack and its index are memory-mapped once when the retriever is created. A lookup
+ * probes the mapped index and decodes the tile straight from a slice of the mapped pack, so
+ * loading a tile involves no file open, no system call and no copy of the encoded bytes. The
+ * pack is mapped in windows of up to 1 GiB that overlap by {@value #WINDOW_OVERLAP} bytes, so
+ * packs larger than a single buffer are supported; the rare tile that still straddles a window
+ * boundary is read with a positional read instead.
+ *
+ * <p>
+ * Tiles that are not in the pack complete exceptionally with a {@link NoSuchElementException}.
+ * The pack must not be written while it is mapped; seed it with {@link PackTileCache} and
+ * {@link PackTileCache#flush() flush} it before shipping.
+ */
+public final class MappedPackTileRetriever implements TileRetriever, Closeable {
+
+    private static final long WINDOW_BYTES = 1L << 30;
+    private static final int WINDOW_OVERLAP = 16 * 1024 * 1024;
+
+    private final Path packFile;
+    private final FileChannel pack;
+    private final MappedTileIndex index;
+    private final MappedByteBuffer[] windows;
+
+    /**
+     * Maps the pack file and its index ({@code packFile + ".idx"}).
+     *
+     * @param packFile a pack written by {@link PackTileCache}
+     * @throws IllegalArgumentException if packFile is null
+     * @throws UncheckedIOException     if the pack or its index cannot be read, or the index does
+     *                                  not cover the whole pack
+     */
+    public MappedPackTileRetriever(Path packFile) {
+        if (packFile == null) {
+            throw new IllegalArgumentException("packFile must not be null");
+        }
+        this.packFile = packFile;
+        Path indexFile = packFile.resolveSibling(packFile.getFileName() + PackTileCache.INDEX_SUFFIX);
+        FileChannel channel = null;
+        MappedTileIndex mapped = null;
+        try {
+            channel = FileChannel.open(packFile, StandardOpenOption.READ);
+            mapped = MappedTileIndex.openReadOnly(indexFile);
+            long size = channel.size();
+            if (mapped.packLength() != size) {
+                throw new IOException("Index does not match tile pack " + packFile
+                        + "; open it with PackTileCache to rebuild the index");
+            }
+            this.windows = map(channel, size);
+            checkHeader(windows, packFile);
+        } catch (IOException e) {
+            closeQuietly(mapped);
+            closeQuietly(channel);
+            throw new UncheckedIOException("Failed to open tile pack " + packFile, e);
+        }
+        this.pack = channel;
+        this.index = mapped;
+    }
+
+    @Override
+    public CompletableFuture<Image> loadTile(int zoom, long x, long y) {
+        return CompletableFuture.supplyAsync(() -> {
+            Image image = TileKey.isValid(zoom, x, y) ? decode(TileKey.pack(zoom, x, y)) : null;
+            if (image == null) {
+                throw new NoSuchElementException(
+                        "Tile " + zoom + "/" + x + "/" + y + " is not in pack " + packFile);
+            }
+            if (image.isError()) {
+                throw new IllegalStateException(
+                        "Failed to decode tile " + zoom + "/" + x + "/" + y + " from pack " + packFile,
+                        image.getException());
+            }
+            return image;
+        }, TileExecutors.tileExecutor());
+    }
+
+    /**
+     * Returns whether the pack contains the tile.
+     */
+    public boolean contains(int zoom, long x, long y) {
+        return TileKey.isValid(zoom, x, y) && index.find(TileKey.pack(zoom, x, y)) >= 0;
+    }
+
+    /**
+     * Returns the number of tiles in the pack.
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Closes the underlying files. The mappings are released once they become unreachable.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            index.close();
+        } finally {
+            pack.close();
+        }
+    }
+
+    private Image decode(long key) {
+        int slot = index.find(key);
+        if (slot < 0) {
+            return null;
+        }
+        long offset = index.offset(slot);
+        int length = index.length(slot);
+        int window = (int) (offset / WINDOW_BYTES);
+        long windowStart = window * WINDOW_BYTES;
+        ByteBuffer payload;
+        if (offset + length <= windowStart + windows[window].capacity()) {
+            payload = windows[window].slice((int) (offset - windowStart), length);
+        } else {
+            payload = readCopy(offset, length);
+        }
+        return new Image(new ByteBufferInputStream(payload));
+    }
+
+    private ByteBuffer readCopy(long offset, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try {
+            while (buffer.hasRemaining()) {
+                if (pack.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of tile pack " + packFile);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.flip();
+    }
+
+    private static MappedByteBuffer[] map(FileChannel channel, long size) throws IOException {
+        int count = (int) Math.max(1, (size + WINDOW_BYTES - 1) / WINDOW_BYTES);
+        MappedByteBuffer[] mapped = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = i * WINDOW_BYTES;
+            long length = Math.min(size - start, WINDOW_BYTES + WINDOW_OVERLAP);
+            mapped[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        }
+        return mapped;
+    }
+
+    private static void checkHeader(MappedByteBuffer[] windows, Path packFile) throws IOException {
+        MappedByteBuffer first = windows[0];
+        if (first.capacity() < HEADER_BYTES || first.getInt(0) != MAGIC
+                || first.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Not a tile pack: " + packFile);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Already failing
+        }
+    }
+
+    /** Streams a buffer's remaining bytes without copying them into an array first. */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            Objects.checkFromIndexSize(offset, length, target.length);
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+    }
+}
@@ -0,0 +1,547 @@
+package com.trionix.maps;
+
+import static com.trionix.maps.internal.cache.TilePackFormat.HEADER_BYTES;
+import static com.trionix.maps.internal.cache.TilePackFormat.MAGIC;
+import static com.trionix.maps.internal.cache.TilePackFormat.RECORD_HEADER_BYTES;
+import static com.trionix.maps.internal.cache.TilePackFormat.VERSION;
+
+import com.trionix.maps.internal.cache.MappedTileIndex;
+import com.trionix.maps.internal.concurrent.TileExecutors;
+import com.trionix.maps.internal.tiles.TileKey;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.image.Image;
+import javax.imageio.ImageIO;
+
+/**
+ * Disk-based tile cache that keeps every tile in a single append-only pack file.
+ *
+ * <p>
+ * Where {@link FileTileCache} creates one file per tile, this cache appends each tile's encoded
+ * bytes to {@code packFile} and locates them through a memory-mapped hash index stored next to it
+ * ({@code packFile + ".idx"}). A cache of millions of tiles therefore costs two inodes and can be
+ * copied or shipped as a unit; reading it needs nothing but the file system. Replacing a tile
+ * appends a new copy and leaves the old bytes behind as garbage.
+ *
+ * <p>
+ * The pack is bounded by {@code maxBytes}. Once it is seven eighths full, the pack is compacted on
+ * a tile-loading thread: live tiles are copied to a fresh file, dropping superseded copies and, if
+ * still needed, the oldest-written tiles until a quarter of the budget is free. Lookups and
+ * appends go on during the copy; only the final swap is exclusive. An append that would exceed
+ * {@code maxBytes} before the compaction is done waits for it, or compacts on the calling
+ * thread. Eviction is in write order rather than access order, which suits packs that are seeded
+ * once and read many times. {@link #compact()} reclaims garbage on demand.
+ *
+ * <p>
+ * The index is rebuilt by scanning the pack if it is missing or was left inconsistent, and tiles
+ * appended after its last update are replayed on open; a torn record at the end of the pack is
+ * truncated away.
+ *
+ * <p>
+ * Like other disk tiers, {@link #peek(int, long, long)} always misses so the JavaFX thread never
+ * reads the pack. This implementation is thread-safe: lookups run concurrently, writes and
+ * compaction are exclusive.
+ */
+public final class PackTileCache implements TileCache {
+
+    /** Suffix appended to the pack file name to form the index file name. */
+    public static final String INDEX_SUFFIX = ".idx";
+
+    private final Path packFile;
+    private final Path indexFile;
+    private final long maxBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Held for a whole compaction, so at most one runs at a time; never taken under lock
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private volatile boolean open;
+
+    // Guarded by lock
+    private FileChannel pack;
+    private MappedTileIndex index;
+
+    /**
+     * Creates a pack cache. Files are created on first use.
+     *
+     * @param packFile the pack file; the index is stored alongside it
+     * @param maxBytes the maximum size of the pack file in bytes (must be positive)
+     * @throws IllegalArgumentException if packFile is null or maxBytes is not positive
+     */
+    public PackTileCache(Path packFile, long maxBytes) {
+        if (packFile == null) {
+            throw new IllegalArgumentException("packFile must not be null");
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        this.packFile = packFile;
+        this.indexFile = packFile.resolveSibling(packFile.getFileName() + INDEX_SUFFIX);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public Image get(int zoom, long x, long y) {
+        if (!TileKey.isValid(zoom, x, y)) {
+            return null;
+        }
+        byte[] encoded;
+        try {
+            encoded = read(TileKey.pack(zoom, x, y));
+        } catch (IOException e) {
+            return null;
+        }
+        if (encoded == null) {
+            return null;
+        }
+        Image image = new Image(new ByteArrayInputStream(encoded));
+        return image.isError() ? null : image;
+    }
+
+    /**
+     * Always returns {@code null}: pack reads never run on the rendering thread. Use
+     * {@link #getAsync(int, long, long)} instead.
+     */
+    @Override
+    public Image peek(int zoom, long x, long y) {
+        return null;
+    }
+
+    /**
+     * Reads and decodes the tile on a tile-loading thread.
+     */
+    @Override
+    public CompletableFuture<Image> getAsync(int zoom, long x, long y) {
+        return CompletableFuture.supplyAsync(() -> get(zoom, x, y), TileExecutors.tileExecutor());
+    }
+
+    @Override
+    public boolean contains(int zoom, long x, long y) {
+        if (!TileKey.isValid(zoom, x, y)) {
+            return false;
+        }
+        long key = TileKey.pack(zoom, x, y);
+        try {
+            ensureOpen();
+        } catch (IOException e) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return open && index.find(key) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(int zoom, long x, long y, Image image) {
+        Objects.requireNonNull(image, "image");
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(SwingFXUtils.fromFXImage(image, null), "png", encoded);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode tile", e);
+        }
+        putEncoded(zoom, x, y, image, encoded.toByteArray());
+    }
+
+    /**
+     * Appends the encoded bytes as-is.
+     */
+    @Override
+    public void putEncoded(int zoom, long x, long y, Image image, byte[] encoded) {
+        Objects.requireNonNull(image, "image");
+        Objects.requireNonNull(encoded, "encoded");
+        if (!TileKey.isValid(zoom, x, y)) {
+            return;
+        }
+        try {
+            append(TileKey.pack(zoom, x, y), encoded);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write tile to pack", e);
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            closeFiles();
+            Files.deleteIfExists(indexFile);
+            Files.deleteIfExists(packFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to clear tile pack", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of tiles in the pack.
+     */
+    public int size() {
+        try {
+            ensureOpen();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open tile pack", e);
+        }
+        lock.readLock().lock();
+        try {
+            return open ? index.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the pack without superseded tile copies.
+     */
+    public void compact() {
+        try {
+            ensureOpen();
+            compactionLock.lock();
+            try {
+                rewrite(Long.MAX_VALUE);
+            } finally {
+                compactionLock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact tile pack", e);
+        }
+    }
+
+    /**
+     * Forces the pack and its index to storage, for example before copying the files.
+     */
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            if (open) {
+                pack.force(false);
+                index.force();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to flush tile pack", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private byte[] read(long key) throws IOException {
+        ensureOpen();
+        lock.readLock().lock();
+        try {
+            if (!open) {
+                return null; // Cleared concurrently
+            }
+            int slot = index.find(key);
+            if (slot < 0) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(index.length(slot));
+            readFully(pack, buffer, index.offset(slot));
+            return buffer.array();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void append(long key, byte[] encoded) throws IOException {
+        long recordBytes = RECORD_HEADER_BYTES + (long) encoded.length;
+        if (HEADER_BYTES + recordBytes > maxBytes) {
+            return; // Larger than the whole pack
+        }
+        ensureOpen();
+        ByteBuffer record = ByteBuffer.allocate((int) recordBytes);
+        record.putLong(key).putInt(encoded.length).put(encoded).flip();
+        while (true) {
+            long packLength;
+            lock.writeLock().lock();
+            try {
+                if (!open) {
+                    openFiles();
+                }
+                long position = index.packLength();
+                packLength = position + recordBytes;
+                if (packLength <= maxBytes) {
+                    writeFully(pack, record, position);
+                    index.put(key, position + RECORD_HEADER_BYTES, encoded.length);
+                    index.setPackLength(packLength);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (packLength <= maxBytes) {
+                if (packLength > compactionThreshold()) {
+                    scheduleCompaction();
+                }
+                return;
+            }
+            compactionLock.lock();
+            try {
+                if (packLength() + recordBytes > maxBytes) {
+                    rewrite(maxBytes - maxBytes / 4 - recordBytes);
+                }
+            } finally {
+                compactionLock.unlock();
+            }
+        }
+    }
+
+    private long compactionThreshold() {
+        return maxBytes - maxBytes / 8;
+    }
+
+    private void scheduleCompaction() {
+        if (!compactionScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        TileExecutors.tileExecutor().execute(() -> {
+            compactionLock.lock();
+            try {
+                if (packLength() > compactionThreshold()) {
+                    rewrite(maxBytes - maxBytes / 4);
+                }
+            } catch (IOException e) {
+                // The next append that does not fit compacts on its own thread and reports it
+            } finally {
+                compactionLock.unlock();
+                compactionScheduled.set(false);
+            }
+        });
+    }
+
+    private long packLength() {
+        lock.readLock().lock();
+        try {
+            return open ? index.packLength() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (open) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!open) {
+                openFiles();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void openFiles() throws IOException {
+        Path parent = packFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(packFile, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedTileIndex mapped = null;
+        try {
+            if (channel.size() < HEADER_BYTES) {
+                channel.truncate(0);
+                writeFully(channel, ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip(), 0);
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                readFully(channel, header, 0);
+                if (header.getInt(0) != MAGIC || header.getInt(Integer.BYTES) != VERSION) {
+                    throw new IOException("Not a tile pack: " + packFile);
+                }
+            }
+            mapped = MappedTileIndex.open(indexFile);
+            long covered = mapped.packLength();
+            if (!mapped.wasRestored() || covered < HEADER_BYTES || covered > channel.size()) {
+                mapped.reset();
+                covered = HEADER_BYTES;
+            }
+            replay(channel, mapped, covered);
+        } catch (IOException | RuntimeException e) {
+            if (mapped != null) {
+                mapped.close();
+            }
+            channel.close();
+            throw e;
+        }
+        pack = channel;
+        index = mapped;
+        open = true;
+    }
+
+    /** Indexes the records written after {@code from}, truncating a torn trailing record. */
+    private static void replay(FileChannel channel, MappedTileIndex target, long from) throws IOException {
+        long size = channel.size();
+        long position = from;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        while (position + RECORD_HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            long key = header.getLong(0);
+            int length = header.getInt(Long.BYTES);
+            long end = position + RECORD_HEADER_BYTES + length;
+            if (key < 0 || length < 0 || end > size) {
+                break;
+            }
+            target.put(key, position + RECORD_HEADER_BYTES, length);
+            position = end;
+        }
+        if (position < size) {
+            channel.truncate(position);
+        }
+        target.setPackLength(position);
+    }
+
+    /**
+     * Copies the live tiles into a new pack, keeping the most recently written ones whose payload
+     * fits {@code budgetBytes}, and swaps it in. The bulk copy runs without holding {@code lock};
+     * tiles appended meanwhile are copied as well before the swap. Callers hold
+     * {@code compactionLock}. Does nothing if the pack is cleared during the copy.
+     */
+    private void rewrite(long budgetBytes) throws IOException {
+        FileChannel source;
+        long copiedLength;
+        List<Location> live;
+        lock.readLock().lock();
+        try {
+            if (!open) {
+                return;
+            }
+            source = pack;
+            copiedLength = index.packLength();
+            live = new ArrayList<>(index.size());
+            index.forEach((key, offset, length) -> live.add(new Location(key, offset, length)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        live.sort(Comparator.comparingLong(Location::offset));
+        int first = live.size();
+        long kept = 0;
+        while (first > 0) {
+            long recordBytes = RECORD_HEADER_BYTES + (long) live.get(first - 1).length();
+            if (kept + recordBytes > budgetBytes) {
+                break;
+            }
+            kept += recordBytes;
+            first--;
+        }
+
+        Path tempFile = packFile.resolveSibling(packFile.getFileName() + ".tmp");
+        List<Location> copied = new ArrayList<>(live.size() - first);
+        try {
+            try (FileChannel target = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(target, ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip(), 0);
+                target.position(HEADER_BYTES); // transferTo appends at the channel position
+                for (int i = first; i < live.size(); i++) {
+                    Location location = live.get(i);
+                    copied.add(copyRecord(source, location.offset() - RECORD_HEADER_BYTES,
+                            location.key(), location.length(), target));
+                }
+                target.force(false);
+            }
+            lock.writeLock().lock();
+            try {
+                if (!open || pack != source) {
+                    return; // Cleared during the copy
+                }
+                try (FileChannel target = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                    target.position(target.size());
+                    ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+                    long position = copiedLength;
+                    while (position < index.packLength()) {
+                        header.clear();
+                        readFully(pack, header, position);
+                        int length = header.getInt(Long.BYTES);
+                        copied.add(copyRecord(pack, position, header.getLong(0), length, target));
+                        position += RECORD_HEADER_BYTES + length;
+                    }
+                    target.force(false);
+                }
+                // An index covering nothing is rebuilt from the pack if the swap below is interrupted
+                index.setPackLength(0);
+                index.force();
+                pack.close();
+                Files.move(tempFile, packFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                pack = FileChannel.open(packFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                index.reset();
+                for (Location location : copied) {
+                    index.put(location.key(), location.offset(), location.length());
+                }
+                index.setPackLength(pack.size());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (ClosedChannelException e) {
+            // Cleared during the copy
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /** Appends one record to {@code target} and returns where its payload landed. */
+    private static Location copyRecord(FileChannel source, long recordStart, long key, int length,
+            FileChannel target) throws IOException {
+        long payloadOffset = target.position() + RECORD_HEADER_BYTES;
+        long recordBytes = RECORD_HEADER_BYTES + (long) length;
+        long copied = 0;
+        while (copied < recordBytes) {
+            copied += source.transferTo(recordStart + copied, recordBytes - copied, target);
+        }
+        return new Location(key, payloadOffset, length);
+    }
+
+    private void closeFiles() throws IOException {
+        if (!open) {
+            return;
+        }
+        open = false;
+        try {
+            index.close();
+        } finally {
+            pack.close();
+            index = null;
+            pack = null;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of tile pack");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+    private record Location(long key, long offset, int length) {
+    }
+}
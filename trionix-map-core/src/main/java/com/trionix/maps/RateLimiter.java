@@ -0,0 +1,42 @@
+package com.trionix.maps;
+
+import com.trionix.maps.internal.concurrent.TokenBucket;
+import com.trionix.maps.internal.concurrent.UnlimitedRateLimiter;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Limits how many tile requests per second are sent to a {@link TileSource}. Unlike the source's
+ * concurrency limit, which bounds how many requests are outstanding, a rate limiter bounds how
+ * fast they start, which is what tile usage policies are phrased in.
+ *
+ * <p>A limiter belongs to the {@code TileSource} it was configured on and is shared by every copy
+ * of that source and every retriever using it, so one budget covers the whole application.
+ * Implementations must be thread-safe.
+ */
+public interface RateLimiter {
+
+    /**
+     * Returns a future completing when one request may be sent. Cancelling a future that has not
+     * completed yet gives up the reservation.
+     */
+    CompletableFuture<Void> acquire();
+
+    /**
+     * Returns a limiter that lets every request through at once.
+     */
+    static RateLimiter unlimited() {
+        return UnlimitedRateLimiter.INSTANCE;
+    }
+
+    /**
+     * Returns a token bucket admitting {@code requestsPerSecond} requests per second on average
+     * and up to {@code burst} requests at once after a quiet period.
+     *
+     * @throws IllegalArgumentException if {@code requestsPerSecond} is not a positive finite
+     *                                  number or {@code burst} is not positive
+     */
+    static RateLimiter tokenBucket(double requestsPerSecond, int burst) {
+        return new TokenBucket(requestsPerSecond, burst);
+    }
+}
+
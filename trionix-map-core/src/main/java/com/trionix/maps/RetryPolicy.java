@@ -0,0 +1,66 @@
+package com.trionix.maps;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How often and how patiently a failed tile request is retried. Delays grow exponentially from
+ * {@code initialBackoff} up to {@code maxBackoff}, with random jitter so that tiles failing
+ * together do not all come back at the same moment.
+ *
+ * @param maxRetries     how many times a request is repeated after its first attempt
+ * @param initialBackoff delay before the first retry, before jitter
+ * @param maxBackoff     upper bound of the delay between two attempts
+ */
+public record RetryPolicy(int maxRetries, Duration initialBackoff, Duration maxBackoff) {
+
+    private static final RetryPolicy DEFAULTS = new RetryPolicy(2, Duration.ofMillis(250), Duration.ofSeconds(5));
+    private static final RetryPolicy NONE = new RetryPolicy(0, Duration.ofMillis(250), Duration.ofSeconds(5));
+
+    public RetryPolicy {
+        Objects.requireNonNull(initialBackoff, "initialBackoff");
+        Objects.requireNonNull(maxBackoff, "maxBackoff");
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries must not be negative");
+        }
+        if (initialBackoff.isNegative() || initialBackoff.isZero()) {
+            throw new IllegalArgumentException("initialBackoff must be positive");
+        }
+        if (maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("maxBackoff must not be less than initialBackoff");
+        }
+    }
+
+    /**
+     * Returns the default policy: two retries, starting after 250 ms and waiting at most five
+     * seconds.
+     */
+    public static RetryPolicy defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Returns a policy that never retries.
+     */
+    public static RetryPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * Returns the delay before retry number {@code retry} (starting at 1): a random duration
+     * between half and all of {@code initialBackoff * 2^(retry - 1)}, capped at
+     * {@code maxBackoff}.
+     *
+     * @throws IllegalArgumentException if {@code retry} is not positive
+     */
+    public Duration backoff(int retry) {
+        if (retry <= 0) {
+            throw new IllegalArgumentException("retry must be positive");
+        }
+        long cap = maxBackoff.toNanos();
+        long delay = (long) Math.min(cap, initialBackoff.toNanos() * Math.scalb(1.0, Math.min(retry - 1, 62)));
+        long half = delay / 2;
+        return Duration.ofNanos(half + ThreadLocalRandom.current().nextLong(delay - half + 1));
+    }
+}
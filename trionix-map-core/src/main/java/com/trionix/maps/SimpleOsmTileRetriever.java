@@ -1,36 +1,88 @@
 package com.trionix.maps;
 
+import com.trionix.maps.internal.concurrent.AdaptiveConcurrencyLimit;
+import com.trionix.maps.internal.concurrent.AsyncPermitQueue;
 import com.trionix.maps.internal.concurrent.TileExecutors;
+import com.trionix.maps.internal.tiles.TileUrlTemplate;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 import javafx.scene.image.Image;
 
 /**
  * Default {@link TileRetriever} that pulls PNG tiles from tile.openstreetmap.org.
  * <p>
- * Uses asynchronous HTTP calls with direct JavaFX Image decoding for optimal performance.
- * Concurrent requests are limited via {@link TileExecutors#concurrencyLimiter()} to avoid
- * overwhelming the tile server.
+ * Tile URLs come from the source's {@link TileSource#baseUrl() base URL or template}. Sources with
+ * {@link TileSource#subdomains() subdomains} spread requests over several hosts, either by tile
+ * position or to the host with the fewest requests in flight, as set by
+ * {@link TileSource#hostBalancing()}; the host is picked when the request is sent, so a retry may
+ * go to a different host.
+ * <p>
+ * Fully asynchronous: requests go out through {@link HttpClient#sendAsync} and no thread blocks
+ * while a tile is queued or in flight; only decoding runs on a tile-loading thread. Concurrent
+ * requests are limited per {@link TileSource} to its
+ * {@link TileSource#maxConcurrentRequests() maxConcurrentRequests}, so switching or combining
+ * sources never lets one throttle another. Requests over the limit wait in a FIFO queue of
+ * futures, which keeps even thousands of outstanding prefetch requests cheap. Before queueing for a
+ * permit, a request waits for the source's {@link TileSource#rateLimiter() rate limiter}, so
+ * requests leave at the configured rate however many are allowed in flight, and a request held
+ * back by the rate limiter never occupies a permit. Sources with
+ * {@link TileSource#http2() HTTP/2} enabled multiplex their requests over a single connection.
+ * For sources with {@link TileSource#withAdaptiveConcurrency(int, int) adaptive concurrency}, each
+ * exchange's round-trip time and outcome feed the limit: it creeps up while latency stays near the
+ * fastest recently observed, and backs off when latency climbs or the server answers with errors,
+ * {@code 429} or {@code 5xx}.
+ * <p>
+ * Exchanges failing with an I/O error, a timeout, {@code 429} or {@code 5xx} are repeated after an
+ * exponentially growing, jittered delay according to the source's {@link TileSource#retryPolicy()
+ * retry policy}. A {@code Retry-After} header replaces the computed delay; if it asks for a longer
+ * wait than the policy's {@link RetryPolicy#maxBackoff() maxBackoff}, the load fails at once with a
+ * {@link TileRetrievalException} carrying the hint, so callers can hold the tile back themselves.
+ * <p>
+ * Cancelling the returned future abandons the request: a load that has not yet obtained a permit
+ * leaves the queue without touching the network, an in-flight exchange is aborted, and a pending
+ * retry is dropped.
+ * <p>
+ * {@link #metrics()} reports how long loads waited for a permit and for the rate limiter
+ * separately from network and decoding time, together with the current concurrency limit.
+ * <p>
+ * The response body is kept alongside the decoded image ({@link #loadEncodedTile(int, long, long)})
+ * so disk caches can store the tile exactly as served, together with the response's {@code ETag},
+ * {@code Last-Modified} and expiry ({@code Cache-Control: max-age} or {@code Expires}).
+ * {@link #revalidateTile(int, long, long, TileMetadata)} sends those validators back as
+ * {@code If-None-Match} / {@code If-Modified-Since}, so an unchanged tile costs a bodiless
+ * {@code 304 Not Modified} instead of a full download.
  */
-public final class SimpleOsmTileRetriever implements TileRetriever {
+public final class SimpleOsmTileRetriever implements EncodedTileRetriever {
 
-    private final Semaphore concurrencyLimiter;
     private final AtomicReference<RuntimeConfig> runtimeConfig;
+    private final MetricsRecorder metrics = new MetricsRecorder();
 
     public SimpleOsmTileRetriever() {
         this(TileSource.openStreetMap());
     }
 
     public SimpleOsmTileRetriever(TileSource tileSource) {
-        this.concurrencyLimiter = TileExecutors.concurrencyLimiter();
         this.runtimeConfig = new AtomicReference<>(buildRuntimeConfig(tileSource));
     }
 
@@ -46,74 +98,462 @@ public final class SimpleOsmTileRetriever implements TileRetriever {
         runtimeConfig.set(buildRuntimeConfig(tileSource));
     }
 
+    /** Returns the limiter of the current tile source; requests still in flight keep their own. */
+    AsyncPermitQueue concurrencyLimiter() {
+        return runtimeConfig.get().limiter();
+    }
+
     @Override
     public CompletableFuture<Image> loadTile(int zoom, long x, long y) {
+        return load(zoom, x, y, null, revalidation -> revalidation.tile().image());
+    }
+
+    @Override
+    public CompletableFuture<EncodedTile> loadEncodedTile(int zoom, long x, long y) {
+        return load(zoom, x, y, null, Revalidation::tile);
+    }
+
+    /**
+     * Sends a conditional request carrying the cached tile's validators; a {@code 304} response
+     * completes with {@link Revalidation#notModified(TileMetadata)}.
+     */
+    @Override
+    public CompletableFuture<Revalidation> revalidateTile(int zoom, long x, long y, TileMetadata cached) {
+        Objects.requireNonNull(cached, "cached");
+        return load(zoom, x, y, cached, Function.identity());
+    }
+
+    private <T> CompletableFuture<T> load(int zoom, long x, long y, TileMetadata cached,
+            Function<Revalidation, T> mapper) {
         RuntimeConfig config = runtimeConfig.get();
-        URI tileUri = config.baseUri().resolve(pathFor(zoom, x, y));
-        HttpRequest request = HttpRequest.newBuilder(tileUri)
-                .GET()
-                .timeout(config.tileSource().readTimeout())
-                .header("User-Agent", config.tileSource().userAgent())
-                .build();
+        TileRequest request = new TileRequest(zoom, x, y, cached);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // The stage the load is currently in: waiting for a permit, exchanging, or pausing before a retry
+        AtomicReference<CompletableFuture<?>> stage = new AtomicReference<>();
+        attempt(config, request, mapper, result, stage, 0);
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                CompletableFuture<?> current = stage.get();
+                if (current != null) {
+                    current.cancel(true); // Gives up a waiting permit or rate limiter reservation
+                }
+            }
+        });
+        return result;
+    }
 
-        return CompletableFuture.supplyAsync(() -> {
-            boolean acquired = false;
-            try {
-                concurrencyLimiter.acquire();
-                acquired = true;
-                HttpResponse<byte[]> response = config.httpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
-                if (response.statusCode() != 200) {
-                    throw new TileRetrievalException(
-                            "Unexpected HTTP status " + response.statusCode() + " for tile " + tileUri);
+    private <T> void attempt(RuntimeConfig config, TileRequest request, Function<Revalidation, T> mapper, CompletableFuture<T> result,
+            AtomicReference<CompletableFuture<?>> stage, int retries) {
+        // The token comes first, so a request waiting for the rate limiter never holds a permit that
+        // a request with a token could use
+        long throttledAt = System.nanoTime();
+        CompletableFuture<Void> token;
+        try {
+            token = config.tileSource().rateLimiter().acquire();
+        } catch (RuntimeException e) {
+            token = CompletableFuture.failedFuture(e);
+        }
+        stage.set(token);
+        if (result.isDone()) {
+            token.cancel(false); // Cancelled while pausing for this retry
+        }
+        token.whenComplete((granted, throttleError) -> {
+            if (throttleError != null || result.isDone()) {
+                if (throttleError != null && !(throttleError instanceof CancellationException)) {
+                    result.completeExceptionally(unwrap(throttleError, request));
+                }
+                return;
+            }
+            metrics.recordThrottled(System.nanoTime() - throttledAt);
+            long queuedAt = System.nanoTime();
+            CompletableFuture<Void> permit = config.limiter().acquire();
+            stage.set(permit);
+            if (result.isDone()) {
+                permit.cancel(false);
+            }
+            permit.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    return; // The load was cancelled while queued
                 }
+                if (result.isDone()) {
+                    config.limiter().release(); // Cancelled as the permit was granted
+                    return;
+                }
+                metrics.recordQueued(System.nanoTime() - queuedAt);
+                exchange(config, request, mapper, result, stage, retries);
+            });
+        });
+    }
 
-                Image image = new Image(new ByteArrayInputStream(response.body()));
-                if (image.isError()) {
-                    Throwable exception = image.getException();
-                    throw new TileRetrievalException(
-                            "Failed to decode tile " + tileUri,
-                            exception instanceof Exception ex ? ex : null);
+    /** Runs one exchange holding a permit and a rate limiter token, scheduling a retry if it fails. */
+    private <T> void exchange(RuntimeConfig config, TileRequest request, Function<Revalidation, T> mapper,
+            CompletableFuture<T> result, AtomicReference<CompletableFuture<?>> stage, int retries) {
+        int host = config.acquireHost(request.x(), request.y());
+        URI tileUri = URI.create(config.urls().expand(request.zoom(), request.x(), request.y(), host));
+        CompletableFuture<Revalidation> tile = send(config, host, httpRequest(config, tileUri, request.cached()),
+                tileUri, request.cached());
+        stage.set(tile);
+        if (result.isDone()) {
+            tile.cancel(true);
+        }
+        tile.whenComplete((revalidation, failure) -> {
+            if (failure == null) {
+                try {
+                    result.complete(mapper.apply(revalidation));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
                 }
-                return image;
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new TileRetrievalException("Interrupted while waiting for permit", e);
-            } catch (TileRetrievalException e) {
-                throw e;
-            } catch (Exception e) {
-                throw new TileRetrievalException("Failed to load tile " + tileUri, e);
-            } finally {
-                if (acquired) {
-                    concurrencyLimiter.release();
+                return;
+            }
+            Throwable cause = unwrap(failure, tileUri);
+            Duration delay = cause instanceof TileRetrievalException e
+                    ? retryDelay(config.tileSource().retryPolicy(), e, retries)
+                    : null;
+            if (delay == null) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            metrics.recordRetry();
+            stage.set(CompletableFuture.runAsync(() -> {
+                if (!result.isDone()) {
+                    attempt(config, request, mapper, result, stage, retries + 1);
                 }
+            }, CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS,
+                    TileExecutors.tileExecutor())));
+        });
+    }
+
+    /**
+     * Returns how long to wait before repeating a failed exchange, or {@code null} if it must not
+     * be repeated: the failure is permanent, the retries are used up, or the server's
+     * {@code Retry-After} exceeds what the policy is willing to wait.
+     */
+    private static Duration retryDelay(RetryPolicy policy, TileRetrievalException failure, int retries) {
+        if (retries >= policy.maxRetries()) {
+            return null;
+        }
+        boolean transientFailure = failure.statusCode() < 0
+                ? failure.getCause() instanceof IOException
+                : isOverloadStatus(failure.statusCode());
+        if (!transientFailure) {
+            return null;
+        }
+        Duration retryAfter = failure.retryAfter();
+        if (retryAfter != null) {
+            return retryAfter.compareTo(policy.maxBackoff()) <= 0 ? retryAfter : null;
+        }
+        return policy.backoff(retries + 1);
+    }
+
+    /**
+     * Returns a snapshot of the request counters, separating the time loads spend queued for a
+     * permit from network and decoding time.
+     */
+    public Metrics metrics() {
+        return metrics.snapshot(runtimeConfig.get().limiter());
+    }
+
+    /**
+     * Sends the request holding a permit, which is returned as soon as the exchange ends; the body
+     * is then decoded on a tile-loading thread, off the HTTP client's threads.
+     */
+    private CompletableFuture<Revalidation> send(RuntimeConfig config, int host, HttpRequest request, URI tileUri,
+            TileMetadata cached) {
+        long sentAt = System.nanoTime();
+        CompletableFuture<HttpResponse<byte[]>> response;
+        try {
+            response = config.httpClient().sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<HttpResponse<byte[]>> exchange = response;
+        CompletableFuture<Revalidation> tile = exchange
+                .whenComplete((received, error) -> {
+                    long rtt = System.nanoTime() - sentAt;
+                    boolean cancelled = error instanceof CancellationException;
+                    int inFlight = config.limiter().inUse();
+                    config.limiter().release();
+                    config.releaseHost(host);
+                    metrics.recordExchange(rtt, error != null && !cancelled);
+                    if (config.adaptiveLimit() != null && !cancelled) {
+                        boolean overloaded = error != null || isOverloadStatus(received.statusCode());
+                        config.limiter().setPermits(config.adaptiveLimit().onSample(rtt, overloaded, inFlight));
+                    }
+                })
+                .thenApplyAsync(received -> decode(received, tileUri, cached), TileExecutors.tileExecutor());
+        // Cancelling the load aborts the exchange itself, not only the decoding stage
+        tile.whenComplete((ignored, error) -> {
+            if (tile.isCancelled()) {
+                exchange.cancel(true);
             }
-        }, TileExecutors.tileExecutor());
+        });
+        return tile;
+    }
+
+    /** Builds the request, conditional if {@code cached} carries validators. */
+    private static HttpRequest httpRequest(RuntimeConfig config, URI tileUri, TileMetadata cached) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(tileUri)
+                .GET()
+                .timeout(config.tileSource().readTimeout())
+                .header("User-Agent", config.tileSource().userAgent());
+        if (cached != null && cached.etag() != null) {
+            builder.header("If-None-Match", cached.etag());
+        }
+        if (cached != null && cached.lastModified() != null) {
+            builder.header("If-Modified-Since", cached.lastModified());
+        }
+        return builder.build();
+    }
+
+    private Revalidation decode(HttpResponse<byte[]> response, URI tileUri, TileMetadata cached) {
+        Instant now = Instant.now();
+        if (response.statusCode() == 304 && cached != null) {
+            return Revalidation.notModified(refreshedMetadata(cached, response.headers(), now));
+        }
+        if (response.statusCode() != 200) {
+            metrics.recordFailure();
+            throw new TileRetrievalException(
+                    "Unexpected HTTP status " + response.statusCode() + " for tile " + tileUri,
+                    response.statusCode(), retryAfterOf(response.headers(), now));
+        }
+
+        long decodeStart = System.nanoTime();
+        Image image = new Image(new ByteArrayInputStream(response.body()));
+        metrics.recordDecoded(System.nanoTime() - decodeStart);
+        if (image.isError()) {
+            metrics.recordFailure();
+            Throwable exception = image.getException();
+            throw new TileRetrievalException(
+                    "Failed to decode tile " + tileUri,
+                    exception instanceof Exception ex ? ex : null, response.statusCode(), null);
+        }
+        return Revalidation.modified(
+                new EncodedTile(image, response.body(), metadataOf(response.headers(), now)));
+    }
+
+    private static boolean isOverloadStatus(int statusCode) {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    /** @param tile the tile's URI, or its request if no URI was chosen yet */
+    private static Throwable unwrap(Throwable failure, Object tile) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof TileRetrievalException || cause instanceof CancellationException) {
+            return cause;
+        }
+        return new TileRetrievalException("Failed to load tile " + tile, cause);
     }
 
     private static RuntimeConfig buildRuntimeConfig(TileSource tileSource) {
         TileSource source = Objects.requireNonNull(tileSource, "tileSource");
         HttpClient httpClient = HttpClient.newBuilder()
-                .version(HttpClient.Version.HTTP_1_1)
+                .version(source.http2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
                 .connectTimeout(source.connectTimeout())
                 .followRedirects(HttpClient.Redirect.NORMAL)
                 .build();
-        return new RuntimeConfig(source, URI.create(source.baseUrl()), httpClient);
+        AdaptiveConcurrencyLimit adaptiveLimit = null;
+        int permits = source.maxConcurrentRequests();
+        if (source.isAdaptiveConcurrency()) {
+            permits = Math.clamp(TileExecutors.maxConcurrentTiles(),
+                    source.minConcurrentRequests(), source.maxConcurrentRequests());
+            adaptiveLimit = new AdaptiveConcurrencyLimit(
+                    source.minConcurrentRequests(), source.maxConcurrentRequests(), permits);
+        }
+        TileUrlTemplate urls = TileUrlTemplate.compile(source.baseUrl(), source.subdomains());
+        return new RuntimeConfig(source, urls, new AtomicIntegerArray(urls.hostCount()), httpClient,
+                new AsyncPermitQueue(permits), adaptiveLimit);
     }
 
-    private static String pathFor(int zoom, long x, long y) {
-        return zoom + "/" + x + "/" + y + ".png";
+    /**
+     * Parses {@code Retry-After}, given either in seconds or as an HTTP date; returns {@code null}
+     * if it is absent or malformed.
+     */
+    private static Duration retryAfterOf(HttpHeaders headers, Instant now) {
+        return headers.firstValue("Retry-After").map(String::trim).map(value -> {
+            try {
+                return Duration.ofSeconds(Math.max(0, Long.parseLong(value)));
+            } catch (NumberFormatException e) {
+                try {
+                    Duration wait = Duration.between(now,
+                            ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+                    return wait.isNegative() ? Duration.ZERO : wait;
+                } catch (DateTimeParseException ex) {
+                    return null;
+                }
+            }
+        }).orElse(null);
     }
 
-    private record RuntimeConfig(TileSource tileSource, URI baseUri, HttpClient httpClient) {
+    private static TileMetadata metadataOf(HttpHeaders headers, Instant now) {
+        String etag = headers.firstValue("ETag").orElse(null);
+        String lastModified = headers.firstValue("Last-Modified").orElse(null);
+        Instant expires = expiryOf(headers, now);
+        if (etag == null && lastModified == null && expires == null) {
+            return null;
+        }
+        return new TileMetadata(etag, lastModified, expires);
     }
 
-    private static final class TileRetrievalException extends RuntimeException {
-        TileRetrievalException(String message) {
-            super(message);
+    /** Merges the headers of a 304 response into the cached metadata; the response may omit validators. */
+    private static TileMetadata refreshedMetadata(TileMetadata cached, HttpHeaders headers, Instant now) {
+        return new TileMetadata(
+                headers.firstValue("ETag").orElse(cached.etag()),
+                headers.firstValue("Last-Modified").orElse(cached.lastModified()),
+                expiryOf(headers, now));
+    }
+
+    /**
+     * Derives the expiry from {@code Cache-Control} (which takes precedence) or {@code Expires};
+     * returns {@code null} if neither is present.
+     */
+    private static Instant expiryOf(HttpHeaders headers, Instant now) {
+        List<String> cacheControl = headers.allValues("Cache-Control");
+        for (String value : cacheControl) {
+            for (String directive : value.split(",")) {
+                String token = directive.trim().toLowerCase(Locale.ROOT);
+                if (token.equals("no-cache") || token.equals("no-store")) {
+                    return now;
+                }
+                if (token.startsWith("max-age=")) {
+                    try {
+                        long maxAge = Long.parseLong(token.substring("max-age=".length()).replace("\"", ""));
+                        long age = headers.firstValueAsLong("Age").orElse(0L);
+                        return now.plusSeconds(Math.max(0, maxAge - age));
+                    } catch (NumberFormatException e) {
+                        return now;
+                    }
+                }
+            }
+        }
+        return headers.firstValue("Expires").map(expires -> {
+            try {
+                return ZonedDateTime.parse(expires, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            } catch (DateTimeParseException e) {
+                return now; // Invalid dates such as "0" mean already expired
+            }
+        }).orElse(null);
+    }
+
+    private record TileRequest(int zoom, long x, long y, TileMetadata cached) {
+
+        @Override
+        public String toString() {
+            return zoom + "/" + x + "/" + y;
+        }
+    }
+
+    /**
+     * {@code hostLoads} counts the requests in flight per host; {@code adaptiveLimit} is {@code null}
+     * for sources with a fixed limit.
+     */
+    private record RuntimeConfig(TileSource tileSource, TileUrlTemplate urls, AtomicIntegerArray hostLoads,
+            HttpClient httpClient, AsyncPermitQueue limiter, AdaptiveConcurrencyLimit adaptiveLimit) {
+
+        /** Picks the host for a tile request and counts it as in flight there. */
+        int acquireHost(long x, long y) {
+            int host = urls.hostFor(x, y);
+            if (tileSource.hostBalancing() == TileSource.HostBalancing.LEAST_LOADED) {
+                // Start the scan at the tile's own host so ties still spread by position
+                int hosts = hostLoads.length();
+                int best = host;
+                for (int i = 1; i < hosts; i++) {
+                    int candidate = (host + i) % hosts;
+                    if (hostLoads.get(candidate) < hostLoads.get(best)) {
+                        best = candidate;
+                    }
+                }
+                host = best;
+            }
+            hostLoads.incrementAndGet(host);
+            return host;
+        }
+
+        void releaseHost(int host) {
+            hostLoads.decrementAndGet(host);
+        }
+    }
+
+    /**
+     * Request counters of a retriever. Queue and in-flight counts describe the current tile
+     * source; the other values accumulate over the retriever's lifetime.
+     *
+     * @param started      requests that obtained a permit and were sent
+     * @param completed    exchanges that ended, successfully or not
+     * @param failed       requests that failed with an I/O error, an unexpected status or an
+     *                     undecodable body, counting every attempt
+     * @param retried      failed requests that were scheduled to be repeated
+     * @param queued       requests currently waiting for a permit
+     * @param inFlight     requests currently holding a permit
+     * @param limit        current concurrency limit of the tile source
+     * @param queueTime    total time requests waited for a permit
+     * @param throttleTime total time requests waited for the rate limiter
+     * @param networkTime  total time from sending a request to receiving its whole body
+     * @param decodeTime   total time spent decoding images
+     */
+    public record Metrics(long started, long completed, long failed, long retried, int queued, int inFlight, int limit,
+            Duration queueTime, Duration throttleTime, Duration networkTime, Duration decodeTime) {
+
+        /** Returns the mean time a request waited for a permit. */
+        public Duration averageQueueTime() {
+            return started == 0 ? Duration.ZERO : queueTime.dividedBy(started);
+        }
+
+        /** Returns the mean time a request waited for the rate limiter. */
+        public Duration averageThrottleTime() {
+            return started == 0 ? Duration.ZERO : throttleTime.dividedBy(started);
+        }
+
+        /** Returns the mean duration of an exchange. */
+        public Duration averageNetworkTime() {
+            return completed == 0 ? Duration.ZERO : networkTime.dividedBy(completed);
+        }
+    }
+
+    private static final class MetricsRecorder {
+        private final LongAdder started = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder retried = new LongAdder();
+        private final LongAdder queueNanos = new LongAdder();
+        private final LongAdder throttleNanos = new LongAdder();
+        private final LongAdder networkNanos = new LongAdder();
+        private final LongAdder decodeNanos = new LongAdder();
+
+        void recordQueued(long nanos) {
+            started.increment();
+            queueNanos.add(nanos);
+        }
+
+        void recordThrottled(long nanos) {
+            throttleNanos.add(nanos);
+        }
+
+        void recordExchange(long nanos, boolean failure) {
+            completed.increment();
+            networkNanos.add(nanos);
+            if (failure) {
+                failed.increment();
+            }
+        }
+
+        void recordDecoded(long nanos) {
+            decodeNanos.add(nanos);
+        }
+
+        void recordFailure() {
+            failed.increment();
+        }
+
+        void recordRetry() {
+            retried.increment();
         }
 
-        TileRetrievalException(String message, Throwable cause) {
-            super(message, cause);
+        Metrics snapshot(AsyncPermitQueue limiter) {
+            return new Metrics(started.sum(), completed.sum(), failed.sum(), retried.sum(), limiter.queueLength(),
+                    limiter.inUse(), limiter.permits(), Duration.ofNanos(queueNanos.sum()),
+                    Duration.ofNanos(throttleNanos.sum()), Duration.ofNanos(networkNanos.sum()), Duration.ofNanos(decodeNanos.sum()));
         }
     }
 }
@@ -3,6 +3,7 @@ package com.trionix.maps;
 import com.trionix.maps.internal.concurrent.TileExecutors;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import javafx.scene.image.Image;
 
 /**
@@ -12,7 +13,13 @@ import javafx.scene.image.Image;
  * a lower tier (e.g., L2 disk cache), it is automatically promoted to higher tiers (e.g., L1
  * memory cache) for faster subsequent access.
  *
- * <p>The {@link #put(int, long, long, Image)} method writes to all tiers to maintain consistency.
+ * <p>{@link #peek(int, long, long)} consults only the tiers that answer without blocking, so
+ * the JavaFX thread never reads from disk; {@link #getAsync(int, long, long)} reaches the disk
+ * tiers on a tile-loading thread.
+ *
+ * <p>The {@link #put(int, long, long, Image)} method writes to all tiers to maintain consistency;
+ * {@link #putEncoded(int, long, long, Image, byte[])} does the same while passing the original
+ * tile bytes on to tiers that persist them.
  *
  * <p>Example usage:
  * <pre>{@code
@@ -24,6 +31,9 @@ import javafx.scene.image.Image;
  */
 public final class TieredTileCache implements TileCache {
 
+    /** Capacity of the memory tier {@link #withMemoryTier(TileCache)} puts in front of a disk cache. */
+    public static final int DEFAULT_MEMORY_TIER_CAPACITY = 128;
+
     private final List<TileCache> tiers;
 
     /**
@@ -44,6 +54,20 @@ public final class TieredTileCache implements TileCache {
         this.tiers = List.copyOf(tiers);
     }
 
+    /**
+     * Puts a memory tier of {@value #DEFAULT_MEMORY_TIER_CAPACITY} tiles in front of a disk cache.
+     * Disk caches never answer {@link TileCache#peek(int, long, long) peek}, which is all the
+     * renderer reads, so on their own their tiles would be loaded but never drawn. Other caches
+     * are returned unchanged.
+     */
+    public static TileCache withMemoryTier(TileCache cache) {
+        Objects.requireNonNull(cache, "cache");
+        if (!isDiskTier(cache)) {
+            return cache;
+        }
+        return new TieredTileCache(List.of(new InMemoryTileCache(DEFAULT_MEMORY_TIER_CAPACITY), cache));
+    }
+
     @Override
     public Image get(int zoom, long x, long y) {
         for (int i = 0; i < tiers.size(); i++) {
@@ -59,21 +83,122 @@ public final class TieredTileCache implements TileCache {
         return null;
     }
 
+    /**
+     * Checks each tier without blocking I/O, promoting a hit to the tiers above it.
+     */
+    @Override
+    public Image peek(int zoom, long x, long y) {
+        for (int i = 0; i < tiers.size(); i++) {
+            Image image = tiers.get(i).peek(zoom, x, y);
+            if (image != null) {
+                for (int j = 0; j < i; j++) {
+                    tiers.get(j).put(zoom, x, y, image);
+                }
+                return image;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Answers from the non-blocking tiers when possible, otherwise runs
+     * {@link #get(int, long, long)} on a tile-loading thread so that disk tiers are read, and a
+     * hit promoted, off the calling thread.
+     */
+    @Override
+    public CompletableFuture<Image> getAsync(int zoom, long x, long y) {
+        Image image = peek(zoom, x, y);
+        if (image != null) {
+            return CompletableFuture.completedFuture(image);
+        }
+        return CompletableFuture.supplyAsync(() -> get(zoom, x, y), TileExecutors.tileExecutor());
+    }
+
+    @Override
+    public boolean contains(int zoom, long x, long y) {
+        for (TileCache tier : tiers) {
+            if (tier.contains(zoom, x, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public void put(int zoom, long x, long y, Image image) {
         Objects.requireNonNull(image, "image");
         for (TileCache tier : tiers) {
-            if (tier instanceof FileTileCache) {
-                TileExecutors.tileExecutor().execute(() -> writeBestEffort(tier, zoom, x, y, image));
+            if (isDiskTier(tier)) {
+                TileExecutors.tileExecutor().execute(() -> writeBestEffort(() -> tier.put(zoom, x, y, image)));
                 continue;
             }
             tier.put(zoom, x, y, image);
         }
     }
 
-    private void writeBestEffort(TileCache tier, int zoom, long x, long y, Image image) {
+    /**
+     * Stores the tile in every tier, handing the encoded bytes through so disk tiers can persist
+     * them without re-encoding.
+     */
+    @Override
+    public void putEncoded(int zoom, long x, long y, Image image, byte[] encoded) {
+        Objects.requireNonNull(image, "image");
+        Objects.requireNonNull(encoded, "encoded");
+        for (TileCache tier : tiers) {
+            if (isDiskTier(tier)) {
+                TileExecutors.tileExecutor().execute(
+                        () -> writeBestEffort(() -> tier.putEncoded(zoom, x, y, image, encoded)));
+                continue;
+            }
+            tier.putEncoded(zoom, x, y, image, encoded);
+        }
+    }
+
+    /**
+     * Stores the tile in every tier like {@link #putEncoded(int, long, long, Image, byte[])},
+     * passing its metadata on to the tiers that keep it.
+     */
+    @Override
+    public void putEncoded(int zoom, long x, long y, EncodedTile tile) {
+        Objects.requireNonNull(tile, "tile");
+        for (TileCache tier : tiers) {
+            if (isDiskTier(tier)) {
+                TileExecutors.tileExecutor().execute(() -> writeBestEffort(() -> tier.putEncoded(zoom, x, y, tile)));
+                continue;
+            }
+            tier.putEncoded(zoom, x, y, tile);
+        }
+    }
+
+    /**
+     * Returns the metadata of the first tier that has any. Disk tiers are read directly, so call
+     * this off the JavaFX thread.
+     */
+    @Override
+    public TileMetadata metadata(int zoom, long x, long y) {
+        for (TileCache tier : tiers) {
+            TileMetadata metadata = tier.metadata(zoom, x, y);
+            if (metadata != null) {
+                return metadata;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void updateMetadata(int zoom, long x, long y, TileMetadata metadata) {
+        for (TileCache tier : tiers) {
+            tier.updateMetadata(zoom, x, y, metadata);
+        }
+    }
+
+    static boolean isDiskTier(TileCache tier) {
+        return tier instanceof FileTileCache || tier instanceof PackTileCache;
+    }
+
+    private static void writeBestEffort(Runnable write) {
         try {
-            tier.put(zoom, x, y, image);
+            write.run();
         } catch (RuntimeException e) {
             // Disk cache failures must not block tile delivery to the UI.
         }
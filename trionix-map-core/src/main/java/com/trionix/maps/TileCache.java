@@ -1,10 +1,19 @@
 package com.trionix.maps;
 
+import java.util.concurrent.CompletableFuture;
 import javafx.scene.image.Image;
 
 /**
  * Thread-safe cache for storing decoded tile images. Implementations are invoked from both
  * JavaFX and background tile-loading threads and therefore must synchronize appropriately.
+ *
+ * <p>The map only calls {@link #peek(int, long, long)} on the JavaFX Application Thread. Caches
+ * backed by slow storage answer it from memory (or not at all) and serve the rest through
+ * {@link #getAsync(int, long, long)}, which the tile manager runs as a background load stage
+ * before falling back to the network.
+ *
+ * <p>The built-in caches key tiles by zoom levels 0 to 29 and tile indices in
+ * {@code [0, 2^29)}. They treat coordinates outside that range as a miss and do not store them.
  */
 public interface TileCache {
 
@@ -15,11 +24,78 @@ public interface TileCache {
      */
     Image get(int zoom, long x, long y);
 
+    /**
+     * Retrieves a tile only if it can be returned without blocking I/O. Called on the JavaFX
+     * Application Thread while rendering. The default implementation delegates to
+     * {@link #get(int, long, long)}, which suits memory caches; caches that read from disk must
+     * override it.
+     *
+     * @return cached {@link Image} instance or {@code null}
+     */
+    default Image peek(int zoom, long x, long y) {
+        return get(zoom, x, y);
+    }
+
+    /**
+     * Retrieves a tile from any tier, performing slow lookups off the calling thread. The default
+     * implementation completes immediately with {@link #get(int, long, long)}.
+     *
+     * @return a future completing with the cached {@link Image}, or {@code null} on a miss
+     */
+    default CompletableFuture<Image> getAsync(int zoom, long x, long y) {
+        return CompletableFuture.completedFuture(get(zoom, x, y));
+    }
+
+    /**
+     * Returns whether the cache holds the tile, without necessarily decoding it. May perform
+     * blocking I/O. The default implementation checks {@link #get(int, long, long)}.
+     */
+    default boolean contains(int zoom, long x, long y) {
+        return get(zoom, x, y) != null;
+    }
+
     /**
      * Stores (or replaces) a tile image.
      */
     void put(int zoom, long x, long y, Image image);
 
+    /**
+     * Stores (or replaces) a tile together with the encoded bytes it was decoded from. Caches that
+     * persist tiles can write {@code encoded} directly instead of re-encoding {@code image}; the
+     * default implementation ignores the bytes and delegates to
+     * {@link #put(int, long, long, Image)}.
+     *
+     * @param encoded the original tile payload (PNG, JPEG, ...); must not be modified afterwards
+     */
+    default void putEncoded(int zoom, long x, long y, Image image, byte[] encoded) {
+        put(zoom, x, y, image);
+    }
+
+    /**
+     * Stores (or replaces) an encoded tile together with its caching metadata. The default
+     * implementation drops the metadata and delegates to
+     * {@link #putEncoded(int, long, long, Image, byte[])}.
+     */
+    default void putEncoded(int zoom, long x, long y, EncodedTile tile) {
+        putEncoded(zoom, x, y, tile.image(), tile.data());
+    }
+
+    /**
+     * Returns the caching metadata stored with a tile, or {@code null} if the tile is missing or
+     * the cache keeps no metadata (the default). May perform blocking I/O.
+     */
+    default TileMetadata metadata(int zoom, long x, long y) {
+        return null;
+    }
+
+    /**
+     * Replaces the caching metadata of a cached tile, typically after the server confirmed that
+     * the tile is unchanged. Ignored if the tile is missing or the cache keeps no metadata (the
+     * default).
+     */
+    default void updateMetadata(int zoom, long x, long y, TileMetadata metadata) {
+    }
+
     /**
      * Clears the cache contents.
      */
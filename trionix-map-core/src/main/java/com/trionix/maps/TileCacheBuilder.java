@@ -1,5 +1,6 @@
 package com.trionix.maps;
 
+import com.trionix.maps.internal.cache.RenderFormatTileCache;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,11 +15,22 @@ import java.util.List;
  *     .memory(500)
  *     .build();
  *
- * // Disk-only cache
+ * // Memory-only cache bounded by decoded size (128 MB)
+ * TileCache cache = TileCacheBuilder.create()
+ *     .memoryBytes(128L * 1024 * 1024)
+ *     .build();
+ *
+ * // Disk cache behind a small default memory tier
  * TileCache cache = TileCacheBuilder.create()
  *     .disk(Path.of("~/.cache/myapp/tiles"), 10_000)
  *     .build();
  *
+ * // Single-file disk cache (1 GB pack)
+ * TileCache cache = TileCacheBuilder.create()
+ *     .memory(500)
+ *     .pack(Path.of("~/.cache/myapp/tiles.pack"), 1L << 30)
+ *     .build();
+ *
  * // Tiered cache (recommended)
  * TileCache cache = TileCacheBuilder.create()
  *     .memory(500)
@@ -29,6 +41,7 @@ import java.util.List;
 public final class TileCacheBuilder {
 
     private final List<TileCache> caches = new ArrayList<>();
+    private boolean convertToRenderFormat;
 
     private TileCacheBuilder() {
     }
@@ -53,6 +66,32 @@ public final class TileCacheBuilder {
         return this;
     }
 
+    /**
+     * Adds an in-memory cache tier with lock-free reads, suited to maps whose tiles are loaded by
+     * many concurrent workers while the JavaFX thread is rendering.
+     *
+     * @param capacity the maximum number of tiles to store in memory
+     * @return this builder for method chaining
+     * @see ConcurrentTileCache
+     */
+    public TileCacheBuilder concurrentMemory(int capacity) {
+        caches.add(new ConcurrentTileCache(capacity));
+        return this;
+    }
+
+    /**
+     * Adds an in-memory cache tier bounded by the estimated decoded size of its tiles rather than
+     * by tile count, so the heap footprint does not depend on the tile resolution of the source.
+     *
+     * @param maxBytes the maximum estimated decoded bytes to keep in memory
+     * @return this builder for method chaining
+     * @see ConcurrentTileCache#withMaxBytes(long)
+     */
+    public TileCacheBuilder memoryBytes(long maxBytes) {
+        caches.add(ConcurrentTileCache.withMaxBytes(maxBytes));
+        return this;
+    }
+
     /**
      * Adds a disk cache tier.
      *
@@ -65,11 +104,43 @@ public final class TileCacheBuilder {
         return this;
     }
 
+    /**
+     * Adds a disk cache tier that stores all tiles in a single pack file with a memory-mapped
+     * index, avoiding one file per tile.
+     *
+     * @param packFile the pack file; its index is stored alongside it
+     * @param maxBytes the maximum size of the pack file in bytes
+     * @return this builder for method chaining
+     * @see PackTileCache
+     */
+    public TileCacheBuilder pack(Path packFile, long maxBytes) {
+        caches.add(new PackTileCache(packFile, maxBytes));
+        return this;
+    }
+
+    /**
+     * Chooses whether memory tiers store tiles converted to premultiplied BGRA, the layout JavaFX
+     * uploads as a texture without converting it on the rendering thread. The conversion runs on
+     * tile-loading threads when a tile enters memory. Off by default: it makes opaque tiles take 4
+     * instead of 3 bytes per pixel, and on the software pipeline it brings no first-draw gain
+     * (run {@code TileDecodeBenchmark} from the demo module to measure a given pipeline).
+     *
+     * @param enabled whether to convert tiles stored in memory tiers
+     * @return this builder for method chaining
+     */
+    public TileCacheBuilder convertToRenderFormat(boolean enabled) {
+        this.convertToRenderFormat = enabled;
+        return this;
+    }
+
     /**
      * Builds the configured tile cache.
      *
-     * <p>If a single cache tier is configured, that cache is returned directly.
-     * If multiple tiers are configured, a {@link TieredTileCache} wrapping all tiers is returned.
+     * <p>If a single memory tier is configured, that cache is returned directly. A single disk
+     * tier is placed behind a memory tier of {@value TieredTileCache#DEFAULT_MEMORY_TIER_CAPACITY}
+     * tiles (see {@link TieredTileCache#withMemoryTier(TileCache)}), since the map only draws tiles
+     * it can read without blocking. If multiple tiers are configured, a {@link TieredTileCache}
+     * wrapping all tiers is returned.
      *
      * @return the configured tile cache
      * @throws IllegalStateException if no cache tiers have been configured
@@ -78,9 +149,16 @@ public final class TileCacheBuilder {
         if (caches.isEmpty()) {
             throw new IllegalStateException("No cache tiers configured. Use memory() or disk() to add cache tiers.");
         }
-        if (caches.size() == 1) {
-            return caches.get(0);
+        List<TileCache> tiers = new ArrayList<>(caches);
+        if (tiers.size() == 1 && TieredTileCache.isDiskTier(tiers.get(0))) {
+            // The map only draws tiles it can read without blocking
+            tiers.add(0, new InMemoryTileCache(TieredTileCache.DEFAULT_MEMORY_TIER_CAPACITY));
+        }
+        if (convertToRenderFormat) {
+            tiers.replaceAll(tier -> tier instanceof InMemoryTileCache || tier instanceof ConcurrentTileCache
+                    ? new RenderFormatTileCache(tier)
+                    : tier);
         }
-        return new TieredTileCache(caches);
+        return tiers.size() == 1 ? tiers.get(0) : new TieredTileCache(tiers);
     }
 }
@@ -0,0 +1,30 @@
+package com.trionix.maps;
+
+import java.time.Instant;
+
+/**
+ * HTTP caching metadata of a tile: the validators a server sent with it and the time it stops
+ * being fresh. Disk caches persist it next to the tile so an expired tile can be revalidated with
+ * a conditional request ({@code If-None-Match} / {@code If-Modified-Since}) instead of being
+ * downloaded again.
+ *
+ * @param etag         the {@code ETag} response header, or {@code null}
+ * @param lastModified the {@code Last-Modified} response header, verbatim, or {@code null}
+ * @param expires      when the tile becomes stale, or {@code null} if the server did not say
+ */
+public record TileMetadata(String etag, String lastModified, Instant expires) {
+
+    /**
+     * Returns whether the tile is stale at {@code now}. Tiles without an expiry never expire.
+     */
+    public boolean isExpired(Instant now) {
+        return expires != null && !now.isBefore(expires);
+    }
+
+    /**
+     * Returns whether a conditional request can be made for the tile.
+     */
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+}
@@ -0,0 +1,61 @@
+package com.trionix.maps;
+
+import java.time.Duration;
+
+/**
+ * Signals that a tile could not be retrieved. Retrievers backed by HTTP report the response
+ * status and the server's {@code Retry-After} hint, which the map uses to decide how long to
+ * wait before asking for the tile again.
+ */
+public class TileRetrievalException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final Duration retryAfter;
+
+    public TileRetrievalException(String message) {
+        this(message, null);
+    }
+
+    public TileRetrievalException(String message, Throwable cause) {
+        this(message, cause, -1, null);
+    }
+
+    public TileRetrievalException(String message, int statusCode, Duration retryAfter) {
+        this(message, null, statusCode, retryAfter);
+    }
+
+    /**
+     * @param statusCode the HTTP status of the response, or {@code -1} if none was received
+     * @param retryAfter how long the server asked clients to wait, or {@code null}
+     */
+    public TileRetrievalException(String message, Throwable cause, int statusCode, Duration retryAfter) {
+        super(message, cause);
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns the HTTP status of the failed response, or {@code -1} if no response was received.
+     */
+    public int statusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Returns how long the server asked clients to wait before retrying, or {@code null} if it
+     * did not say.
+     */
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Returns whether the server reported that the tile does not exist ({@code 404} or
+     * {@code 410}), so asking again soon is pointless.
+     */
+    public boolean isNotFound() {
+        return statusCode == 404 || statusCode == 410;
+    }
+}
@@ -0,0 +1,531 @@
+package com.trionix.maps;
+
+import com.trionix.maps.internal.projection.Projection;
+import com.trionix.maps.internal.projection.WebMercatorProjection;
+import com.trionix.maps.internal.tiles.TileKey;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javafx.scene.image.Image;
+
+/**
+ * Downloads every tile of a geographic region into a {@link TileCache} ahead of time, for example
+ * to prepare a cache for offline use.
+ *
+ * <p>Tiles are enumerated zoom level by zoom level, row by row, from the bounding box projected
+ * with Web Mercator; boxes crossing the antimeridian ({@code west > east}) are supported. At most
+ * {@link Builder#maxConcurrentRequests(int) maxConcurrentRequests} loads run at once and starts
+ * are spaced to honor {@link Builder#maxRequestsPerSecond(double) maxRequestsPerSecond}. Tiles the
+ * cache already {@link TileCache#contains(int, long, long) contains} are skipped, so re-running an
+ * interrupted seed only downloads what is missing; with a {@link Builder#checkpoint(Path)
+ * checkpoint} file the seeder also skips the already finished prefix without consulting the cache.
+ * The checkpoint never moves past a failed tile, so a resumed run retries it.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * TileSeeder seeder = TileSeeder.builder(new SimpleOsmTileRetriever(), cache)
+ *     .bounds(GeoPoint.of(59.80, 30.10), GeoPoint.of(60.05, 30.55))
+ *     .zoomRange(10, 15)
+ *     .maxRequestsPerSecond(10)
+ *     .progressListener(progress -> System.out.println(progress.completed() + "/" + progress.total()))
+ *     .build();
+ * TileSeeder.Progress result = seeder.run();
+ * }</pre>
+ *
+ * <p>{@link #run()} blocks the calling thread; never call it on the JavaFX Application Thread.
+ * {@link #cancel()} may be called from any thread.
+ */
+public final class TileSeeder {
+
+    private static final int CHECKPOINT_INTERVAL = 256;
+    // How long an interrupted run waits for its cancelled loads to report back
+    private static final long INTERRUPT_DRAIN_SECONDS = 10;
+
+    private final TileRetriever retriever;
+    private final TileCache cache;
+    private final double south;
+    private final double west;
+    private final double north;
+    private final double east;
+    private final int minZoom;
+    private final int maxZoom;
+    private final int maxConcurrentRequests;
+    private final long requestIntervalNanos;
+    private final Path checkpoint;
+    private final Consumer<Progress> progressListener;
+    private volatile boolean cancelled;
+    private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+
+    // Guarded by this
+    private long completed;
+    private long downloaded;
+    private long skipped;
+    private long failed;
+    private long bytes;
+    private long lowWaterMark;
+    private long firstFailed;
+    private long checkpointedMark;
+    private UncheckedIOException checkpointFailure;
+    private final TreeSet<Long> finishedAhead = new TreeSet<>();
+    private long startNanos;
+
+    private TileSeeder(Builder builder) {
+        this.retriever = builder.retriever;
+        this.cache = builder.cache;
+        this.south = builder.south;
+        this.west = builder.west;
+        this.north = builder.north;
+        this.east = builder.east;
+        this.minZoom = builder.minZoom;
+        this.maxZoom = builder.maxZoom;
+        this.maxConcurrentRequests = builder.maxConcurrentRequests;
+        this.requestIntervalNanos = builder.maxRequestsPerSecond > 0
+                ? (long) (TimeUnit.SECONDS.toNanos(1) / builder.maxRequestsPerSecond)
+                : 0L;
+        this.checkpoint = builder.checkpoint;
+        this.progressListener = builder.progressListener;
+    }
+
+    /**
+     * Creates a builder seeding {@code cache} with tiles loaded by {@code retriever}.
+     */
+    public static Builder builder(TileRetriever retriever, TileCache cache) {
+        return new Builder(retriever, cache);
+    }
+
+    /**
+     * Returns the number of tiles covering the region over the zoom range.
+     */
+    public long tileCount() {
+        long count = 0;
+        for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+            TileRange range = range(zoom);
+            count += range.columns() * range.rows();
+        }
+        return count;
+    }
+
+    /**
+     * Seeds the region, blocking until every tile has been handled or the seeder is cancelled.
+     *
+     * @return the final progress; {@link Progress#cancelled()} tells whether the run stopped early
+     * @throws UncheckedIOException if the checkpoint file cannot be read or written; a failed write
+     *         during the run is reported once the loads in flight are done
+     */
+    public Progress run() {
+        long total = tileCount();
+        long resumeFrom = readCheckpoint();
+        Semaphore permits = new Semaphore(maxConcurrentRequests);
+        synchronized (this) {
+            completed = resumeFrom;
+            skipped = resumeFrom;
+            lowWaterMark = resumeFrom;
+            firstFailed = Long.MAX_VALUE;
+            checkpointedMark = resumeFrom;
+            checkpointFailure = null;
+            startNanos = System.nanoTime();
+        }
+        long nextStart = System.nanoTime();
+        long ordinal = 0;
+        try {
+            outer:
+            for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+                TileRange range = range(zoom);
+                long zoomTiles = range.columns() * range.rows();
+                if (ordinal + zoomTiles <= resumeFrom) {
+                    ordinal += zoomTiles;
+                    continue;
+                }
+                for (long row = 0; row < range.rows(); row++) {
+                    for (long column = 0; column < range.columns(); column++, ordinal++) {
+                        if (ordinal < resumeFrom) {
+                            continue;
+                        }
+                        if (cancelled || Thread.currentThread().isInterrupted()) {
+                            break outer;
+                        }
+                        long x = (range.firstColumn() + column) & (range.worldColumns() - 1);
+                        long y = range.firstRow() + row;
+                        if (cache.contains(zoom, x, y)) {
+                            finish(ordinal, Outcome.SKIPPED, 0, total);
+                            continue;
+                        }
+                        if (requestIntervalNanos > 0) {
+                            long wait = nextStart - System.nanoTime();
+                            if (wait > 0) {
+                                TimeUnit.NANOSECONDS.sleep(wait);
+                            }
+                            nextStart = Math.max(nextStart, System.nanoTime() - requestIntervalNanos)
+                                    + requestIntervalNanos;
+                        }
+                        permits.acquire();
+                        load(zoom, x, y, ordinal, total, permits);
+                    }
+                }
+            }
+            // Wait for the loads still in flight
+            permits.acquire(maxConcurrentRequests);
+            permits.release(maxConcurrentRequests);
+        } catch (InterruptedException e) {
+            cancelled = true;
+            drainAfterInterrupt(permits);
+        }
+        synchronized (this) {
+            if (checkpointFailure != null) {
+                throw checkpointFailure;
+            }
+            writeCheckpoint(checkpointMark());
+            return snapshot(total);
+        }
+    }
+
+    /**
+     * Cancels the loads in flight and waits, for a bounded time, until they have reported back, so
+     * the final checkpoint covers them and no load outlives {@link #run()}. Cancelled tiles hold
+     * the checkpoint back like failed ones. Restores the interrupt status.
+     */
+    private void drainAfterInterrupt(Semaphore permits) {
+        for (CompletableFuture<?> future : inFlight) {
+            future.cancel(true);
+        }
+        Thread.interrupted();
+        try {
+            if (permits.tryAcquire(maxConcurrentRequests, INTERRUPT_DRAIN_SECONDS, TimeUnit.SECONDS)) {
+                permits.release(maxConcurrentRequests);
+            }
+        } catch (InterruptedException e) {
+            // Give up waiting; the interrupt status is restored below
+        } finally {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops a running seed after the loads in flight complete. Interrupting the thread running
+     * {@link #run()} stops it as well, but cancels the loads in flight instead of waiting for them.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private void load(int zoom, long x, long y, long ordinal, long total, Semaphore permits) {
+        CompletableFuture<?> future;
+        try {
+            future = retriever instanceof EncodedTileRetriever encodedRetriever
+                    ? encodedRetriever.loadEncodedTile(zoom, x, y)
+                    : retriever.loadTile(zoom, x, y);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        inFlight.add(future);
+        CompletableFuture<?> load = future;
+        future.whenComplete((result, error) -> {
+            inFlight.remove(load);
+            Outcome outcome = Outcome.DOWNLOADED;
+            long tileBytes = 0;
+            try {
+                if (error instanceof CancellationException) {
+                    outcome = Outcome.CANCELLED;
+                } else if (error != null || result == null) {
+                    outcome = Outcome.FAILED;
+                } else if (result instanceof EncodedTile tile) {
+                    cache.putEncoded(zoom, x, y, tile);
+                    tileBytes = tile.data().length;
+                } else {
+                    cache.put(zoom, x, y, (Image) result);
+                }
+            } catch (RuntimeException e) {
+                outcome = Outcome.FAILED;
+            }
+            try {
+                finish(ordinal, outcome, tileBytes, total);
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    private void finish(long ordinal, Outcome outcome, long tileBytes, long total) {
+        Progress progress;
+        synchronized (this) {
+            if (outcome != Outcome.CANCELLED) {
+                completed++;
+            }
+            switch (outcome) {
+                case DOWNLOADED -> downloaded++;
+                case SKIPPED -> skipped++;
+                case FAILED -> {
+                    failed++;
+                    firstFailed = Math.min(firstFailed, ordinal);
+                }
+                case CANCELLED -> firstFailed = Math.min(firstFailed, ordinal);
+            }
+            bytes += tileBytes;
+            if (ordinal == lowWaterMark) {
+                lowWaterMark++;
+                while (!finishedAhead.isEmpty() && finishedAhead.first() == lowWaterMark) {
+                    finishedAhead.pollFirst();
+                    lowWaterMark++;
+                }
+            } else {
+                finishedAhead.add(ordinal);
+            }
+            if (checkpointFailure == null && checkpointMark() - checkpointedMark >= CHECKPOINT_INTERVAL) {
+                try {
+                    writeCheckpoint(checkpointMark());
+                } catch (UncheckedIOException e) {
+                    checkpointFailure = e; // Rethrown by run() once the loads in flight are done
+                }
+            }
+            progress = snapshot(total);
+        }
+        if (progressListener != null) {
+            progressListener.accept(progress);
+        }
+    }
+
+    /**
+     * Returns the ordinal a later run resumes from: the end of the finished prefix, held back at
+     * the first failed tile so that tile and everything after it go through the cache check again.
+     */
+    private long checkpointMark() {
+        return Math.min(lowWaterMark, firstFailed);
+    }
+
+    private Progress snapshot(long total) {
+        return new Progress(total, completed, downloaded, skipped, failed, bytes,
+                Duration.ofNanos(System.nanoTime() - startNanos), cancelled);
+    }
+
+    private long readCheckpoint() {
+        if (checkpoint == null || !Files.exists(checkpoint)) {
+            return 0;
+        }
+        try {
+            List<String> lines = Files.readAllLines(checkpoint, StandardCharsets.UTF_8);
+            if (lines.size() != 2 || !lines.get(0).equals(fingerprint())) {
+                return 0; // Written for a different region
+            }
+            return Long.parseLong(lines.get(1).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read seed checkpoint", e);
+        }
+    }
+
+    private void writeCheckpoint(long mark) {
+        if (checkpoint == null) {
+            return;
+        }
+        checkpointedMark = mark;
+        try {
+            Path parent = checkpoint.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tempFile = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+            Files.writeString(tempFile, fingerprint() + "\n" + mark + "\n", StandardCharsets.UTF_8);
+            Files.move(tempFile, checkpoint, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write seed checkpoint", e);
+        }
+    }
+
+    private String fingerprint() {
+        return "bbox=" + south + "," + west + "," + north + "," + east + ";zoom=" + minZoom + "-" + maxZoom;
+    }
+
+    private TileRange range(int zoom) {
+        Projection projection = WebMercatorProjection.INSTANCE;
+        long worldColumns = 1L << zoom;
+        long firstColumn = tileIndex(projection.longitudeToPixelX(west, zoom), worldColumns);
+        long lastColumn = tileIndex(projection.longitudeToPixelX(east, zoom), worldColumns);
+        if (west > east) {
+            lastColumn += worldColumns; // Crosses the antimeridian
+        } else if (east - west >= 360.0) {
+            lastColumn = firstColumn + worldColumns - 1;
+        }
+        long firstRow = tileIndex(projection.latitudeToPixelY(north, zoom), worldColumns);
+        long lastRow = tileIndex(projection.latitudeToPixelY(south, zoom), worldColumns);
+        long columns = Math.min(worldColumns, lastColumn - firstColumn + 1);
+        return new TileRange(worldColumns, firstColumn, columns, firstRow, lastRow - firstRow + 1);
+    }
+
+    private static long tileIndex(double pixel, long worldTiles) {
+        long index = (long) Math.floor(pixel / Projection.TILE_SIZE);
+        return Math.max(0, Math.min(worldTiles - 1, index));
+    }
+
+    private enum Outcome {
+        DOWNLOADED, SKIPPED, FAILED, CANCELLED
+    }
+
+    private record TileRange(long worldColumns, long firstColumn, long columns, long firstRow, long rows) {
+    }
+
+    /**
+     * Snapshot of a seed run.
+     *
+     * @param total      tiles in the region
+     * @param completed  tiles handled so far, including those skipped by a resumed run
+     * @param downloaded tiles loaded from the retriever and stored in the cache
+     * @param skipped    tiles that were already cached or finished by a previous run
+     * @param failed     tiles the retriever or cache failed on
+     * @param bytes      encoded bytes downloaded, when the retriever exposes them
+     * @param elapsed    time since the run started
+     * @param cancelled  whether the run was cancelled
+     */
+    public record Progress(long total, long completed, long downloaded, long skipped, long failed,
+            long bytes, Duration elapsed, boolean cancelled) {
+
+        /** Returns the download throughput in tiles per second. */
+        public double tilesPerSecond() {
+            double seconds = elapsed.toNanos() / 1e9;
+            return seconds > 0 ? downloaded / seconds : 0.0;
+        }
+
+        /** Returns the download throughput in bytes per second. */
+        public double bytesPerSecond() {
+            double seconds = elapsed.toNanos() / 1e9;
+            return seconds > 0 ? bytes / seconds : 0.0;
+        }
+
+        /** Returns whether every tile of the region has been handled. */
+        public boolean isDone() {
+            return completed >= total;
+        }
+    }
+
+    /**
+     * Builder for {@link TileSeeder}.
+     */
+    public static final class Builder {
+
+        private final TileRetriever retriever;
+        private final TileCache cache;
+        private double south = Double.NaN;
+        private double west;
+        private double north;
+        private double east;
+        private int minZoom = -1;
+        private int maxZoom = -1;
+        private int maxConcurrentRequests = 4;
+        private double maxRequestsPerSecond;
+        private Path checkpoint;
+        private Consumer<Progress> progressListener;
+
+        private Builder(TileRetriever retriever, TileCache cache) {
+            this.retriever = Objects.requireNonNull(retriever, "retriever");
+            this.cache = Objects.requireNonNull(cache, "cache");
+        }
+
+        /**
+         * Sets the region to seed by its south-west and north-east corners. A west longitude
+         * greater than the east one selects a region crossing the antimeridian.
+         *
+         * @throws IllegalArgumentException if the south latitude is above the north latitude
+         */
+        public Builder bounds(GeoPoint southWest, GeoPoint northEast) {
+            Objects.requireNonNull(southWest, "southWest");
+            Objects.requireNonNull(northEast, "northEast");
+            if (southWest.latitude() > northEast.latitude()) {
+                throw new IllegalArgumentException("southWest must not be north of northEast");
+            }
+            this.south = southWest.latitude();
+            this.west = southWest.longitude();
+            this.north = northEast.latitude();
+            this.east = northEast.longitude();
+            return this;
+        }
+
+        /**
+         * Sets the inclusive range of zoom levels to seed.
+         *
+         * @throws IllegalArgumentException if the range is empty or outside the supported levels
+         */
+        public Builder zoomRange(int minZoom, int maxZoom) {
+            if (minZoom < 0 || maxZoom > TileKey.MAX_ZOOM || minZoom > maxZoom) {
+                throw new IllegalArgumentException("zoom range must satisfy 0 <= minZoom <= maxZoom <= "
+                        + TileKey.MAX_ZOOM);
+            }
+            this.minZoom = minZoom;
+            this.maxZoom = maxZoom;
+            return this;
+        }
+
+        /**
+         * Sets how many tile loads may be in flight at once (default 4).
+         *
+         * @throws IllegalArgumentException if the value is not positive
+         */
+        public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+            if (maxConcurrentRequests <= 0) {
+                throw new IllegalArgumentException("maxConcurrentRequests must be positive");
+            }
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        /**
+         * Limits how many loads are started per second; {@code 0} (the default) disables the
+         * limit. Respect the usage policy of the tile server you seed from.
+         *
+         * @throws IllegalArgumentException if the value is negative
+         */
+        public Builder maxRequestsPerSecond(double maxRequestsPerSecond) {
+            if (!(maxRequestsPerSecond >= 0)) {
+                throw new IllegalArgumentException("maxRequestsPerSecond must not be negative");
+            }
+            this.maxRequestsPerSecond = maxRequestsPerSecond;
+            return this;
+        }
+
+        /**
+         * Records progress in {@code file} so that a later run for the same region resumes after
+         * the tiles that were already handled, or at the first tile that failed.
+         */
+        public Builder checkpoint(Path file) {
+            this.checkpoint = Objects.requireNonNull(file, "file");
+            return this;
+        }
+
+        /**
+         * Registers a listener notified after every handled tile, on the thread that finished it.
+         */
+        public Builder progressListener(Consumer<Progress> listener) {
+            this.progressListener = Objects.requireNonNull(listener, "listener");
+            return this;
+        }
+
+        /**
+         * Builds the seeder.
+         *
+         * @throws IllegalStateException if the bounds or the zoom range have not been set
+         */
+        public TileSeeder build() {
+            if (Double.isNaN(south)) {
+                throw new IllegalStateException("bounds must be set");
+            }
+            if (minZoom < 0) {
+                throw new IllegalStateException("zoomRange must be set");
+            }
+            return new TileSeeder(this);
+        }
+    }
+}
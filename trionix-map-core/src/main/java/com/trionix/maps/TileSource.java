@@ -1,13 +1,59 @@
 package com.trionix.maps;
 
-import java.net.URI;
+import com.trionix.maps.internal.concurrent.TileExecutors;
+import com.trionix.maps.internal.tiles.TileUrlTemplate;
 import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
 
 /**
  * Immutable configuration for the built-in HTTP XYZ tile pipeline.
+ *
+ * <p>{@code baseUrl} is either a base URL, to which {@code {z}/{x}/{y}.png} is appended, or a URL
+ * template such as {@code https://{s}.tile.example.com/{z}/{x}/{y}.png?key=...} containing the
+ * placeholders {@code {z}}, {@code {x}} and {@code {y}}. An {@code {s}} placeholder spreads tiles
+ * over the hosts given as {@link #subdomains() subdomains} (either subdomain labels or whole host
+ * names), so per-host connection limits of servers and proxies stop capping throughput. How tiles
+ * are assigned to hosts is chosen with {@link HostBalancing}.
+ *
+ * <p>Each source gets its own limit of {@link #maxConcurrentRequests() concurrent requests}, so
+ * several sources never throttle each other. Sources served over HTTP/2 can opt in with
+ * {@link #withHttp2(boolean)}: all requests then share a single multiplexed connection, and a
+ * higher limit (up to the server's maximum number of concurrent streams, typically 100) lets
+ * that connection carry many tiles at once. Servers that do not speak HTTP/2 are still reached
+ * over HTTP/1.1.
+ *
+ * <p>The limit is fixed by default. {@link #withAdaptiveConcurrency(int, int)} lets it float
+ * between two bounds instead: it grows while tiles keep arriving at their usual latency and
+ * shrinks when latency climbs or requests fail, so a slow satellite link settles on a few
+ * requests while a LAN server is driven much harder.
+ *
+ * <p>Requests failing with an I/O error, a timeout, {@code 429} or {@code 5xx} are retried
+ * according to the {@link #withRetryPolicy(RetryPolicy) retry policy}, honoring the server's
+ * {@code Retry-After}.
+ *
+ * <p>Tile usage policies limit request rates rather than parallelism. A
+ * {@link #withRateLimit(double, int) rate limit} spaces requests to this source out to the given
+ * number per second, after an initial burst; its {@link RateLimiter} is shared by every copy of
+ * the source, so seeding and browsing with the same source draw on one budget.
+ *
+ * <p>Create sources with {@link #of(String, String, Duration, Duration)} or the four-argument
+ * constructor and configure them with the {@code with...} methods. The canonical constructor and
+ * record patterns spell out every component and change whenever a new option is added; the
+ * four-component shape of earlier releases is no longer the record's shape.
+ *
+ * @param http2                 whether to prefer HTTP/2
+ * @param minConcurrentRequests lower bound of the adaptive limit; equal to
+ *                              {@code maxConcurrentRequests} for a fixed limit
+ * @param maxConcurrentRequests how many tile requests to this source may be in flight at once
+ * @param retryPolicy           how transient failures are retried
+ * @param rateLimiter           paces requests to this source
+ * @param subdomains            values substituted for {@code {s}}; empty without one
+ * @param hostBalancing         how tiles are spread over {@code subdomains}
  */
-public record TileSource(String baseUrl, String userAgent, Duration connectTimeout, Duration readTimeout) {
+public record TileSource(String baseUrl, String userAgent, Duration connectTimeout, Duration readTimeout,
+        boolean http2, int minConcurrentRequests, int maxConcurrentRequests, RetryPolicy retryPolicy,
+        RateLimiter rateLimiter, List<String> subdomains, HostBalancing hostBalancing) {
 
     private static final String DEFAULT_BASE_URL = "https://tile.openstreetmap.org/";
     private static final String DEFAULT_USER_AGENT = "TrionixMapView/0.1 (+https://trionix.example)";
@@ -24,8 +70,29 @@ public record TileSource(String baseUrl, String userAgent, Duration connectTimeo
         Objects.requireNonNull(userAgent, "userAgent");
         Objects.requireNonNull(connectTimeout, "connectTimeout");
         Objects.requireNonNull(readTimeout, "readTimeout");
-        baseUrl = normalizeBaseUrl(baseUrl);
-        URI.create(baseUrl);
+        Objects.requireNonNull(retryPolicy, "retryPolicy");
+        Objects.requireNonNull(rateLimiter, "rateLimiter");
+        Objects.requireNonNull(hostBalancing, "hostBalancing");
+        subdomains = List.copyOf(subdomains);
+        if (minConcurrentRequests <= 0) {
+            throw new IllegalArgumentException("minConcurrentRequests must be positive");
+        }
+        if (maxConcurrentRequests < minConcurrentRequests) {
+            throw new IllegalArgumentException("maxConcurrentRequests must not be less than minConcurrentRequests");
+        }
+        if (!TileUrlTemplate.isTemplate(baseUrl)) {
+            baseUrl = normalizeBaseUrl(baseUrl);
+        }
+        TileUrlTemplate.compile(baseUrl, subdomains);
+    }
+
+    /**
+     * Creates an HTTP/1.1 source with the default request limit and retry policy and no rate limit.
+     */
+    public TileSource(String baseUrl, String userAgent, Duration connectTimeout, Duration readTimeout) {
+        this(baseUrl, userAgent, connectTimeout, readTimeout, false,
+                TileExecutors.maxConcurrentTiles(), TileExecutors.maxConcurrentTiles(), RetryPolicy.defaults(),
+                RateLimiter.unlimited(), List.of(), HostBalancing.BY_TILE);
     }
 
     public static TileSource openStreetMap() {
@@ -37,6 +104,124 @@ public record TileSource(String baseUrl, String userAgent, Duration connectTimeo
         return new TileSource(baseUrl, userAgent, connectTimeout, readTimeout);
     }
 
+    /**
+     * Creates a source from a URL template whose {@code {s}} placeholder is filled with one of
+     * {@code subdomains}.
+     *
+     * @throws IllegalArgumentException if the template lacks {@code {z}}, {@code {x}},
+     *                                  {@code {y}} or {@code {s}}, or {@code subdomains} is empty
+     */
+    public static TileSource of(String urlTemplate, List<String> subdomains, String userAgent,
+            Duration connectTimeout, Duration readTimeout) {
+        return new TileSource(urlTemplate, userAgent, connectTimeout, readTimeout, false,
+                TileExecutors.maxConcurrentTiles(), TileExecutors.maxConcurrentTiles(), RetryPolicy.defaults(),
+                RateLimiter.unlimited(), subdomains, HostBalancing.BY_TILE);
+    }
+
+    /**
+     * Returns a copy of this source that prefers HTTP/2 when {@code enabled}.
+     */
+    public TileSource withHttp2(boolean enabled) {
+        return new TileSource(baseUrl, userAgent, connectTimeout, readTimeout, enabled,
+                minConcurrentRequests, maxConcurrentRequests, retryPolicy, rateLimiter, subdomains, hostBalancing);
+    }
+
+    /**
+     * Returns a copy of this source with a fixed limit of {@code limit} concurrent tile requests.
+     *
+     * @throws IllegalArgumentException if {@code limit} is not positive
+     */
+    public TileSource withMaxConcurrentRequests(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("maxConcurrentRequests must be positive");
+        }
+        return new TileSource(baseUrl, userAgent, connectTimeout, readTimeout, http2, limit, limit,
+                retryPolicy, rateLimiter, subdomains, hostBalancing);
+    }
+
+    /**
+     * Returns a copy of this source whose request limit adapts to the measured latency and error
+     * rate, staying between {@code min} and {@code max}.
+     *
+     * @throws IllegalArgumentException if {@code min} is not positive or exceeds {@code max}
+     */
+    public TileSource withAdaptiveConcurrency(int min, int max) {
+        return new TileSource(baseUrl, userAgent, connectTimeout, readTimeout, http2, min, max,
+                retryPolicy, rateLimiter, subdomains, hostBalancing);
+    }
+
+    /**
+     * Returns a copy of this source retrying failed requests according to {@code policy}.
+     */
+    public TileSource withRetryPolicy(RetryPolicy policy) {
+        return new TileSource(baseUrl, userAgent, connectTimeout, readTimeout, http2,
+                minConcurrentRequests, maxConcurrentRequests, policy, rateLimiter, subdomains, hostBalancing);
+    }
+
+    /**
+     * Returns a copy of this source sending at most {@code requestsPerSecond} requests per second
+     * on average, and up to {@code burst} at once after a quiet period.
+     *
+     * @throws IllegalArgumentException if {@code requestsPerSecond} is not a positive finite
+     *                                  number or {@code burst} is not positive
+     */
+    public TileSource withRateLimit(double requestsPerSecond, int burst) {
+        return withRateLimiter(RateLimiter.tokenBucket(requestsPerSecond, burst));
+    }
+
+    /**
+     * Returns a copy of this source paced by {@code limiter}; {@link RateLimiter#unlimited()}
+     * removes the rate limit.
+     */
+    public TileSource withRateLimiter(RateLimiter limiter) {
+        return new TileSource(baseUrl, userAgent, connectTimeout, readTimeout, http2,
+                minConcurrentRequests, maxConcurrentRequests, retryPolicy, limiter, subdomains, hostBalancing);
+    }
+
+    /**
+     * Returns a copy of this source spreading its tiles over {@code subdomains} in the given way.
+     */
+    public TileSource withHostBalancing(HostBalancing balancing) {
+        return new TileSource(baseUrl, userAgent, connectTimeout, readTimeout, http2,
+                minConcurrentRequests, maxConcurrentRequests, retryPolicy, rateLimiter, subdomains, balancing);
+    }
+
+    /**
+     * Returns a copy of this source filling {@code {s}} with one of {@code hosts}.
+     *
+     * @throws IllegalArgumentException if the URL has no {@code {s}} placeholder or {@code hosts}
+     *                                  is empty
+     */
+    public TileSource withSubdomains(List<String> hosts) {
+        return new TileSource(baseUrl, userAgent, connectTimeout, readTimeout, http2,
+                minConcurrentRequests, maxConcurrentRequests, retryPolicy, rateLimiter, hosts, hostBalancing);
+    }
+
+    /**
+     * Returns whether the request limit adapts between {@link #minConcurrentRequests()} and
+     * {@link #maxConcurrentRequests()}.
+     */
+    public boolean isAdaptiveConcurrency() {
+        return minConcurrentRequests < maxConcurrentRequests;
+    }
+
+    /**
+     * How the tiles of a source with several {@link TileSource#subdomains() hosts} are assigned to
+     * them.
+     */
+    public enum HostBalancing {
+        /**
+         * Each tile always goes to the same host, and neighboring tiles alternate. Keeps browser
+         * and proxy caches effective; the default.
+         */
+        BY_TILE,
+        /**
+         * Each request goes to the host with the fewest requests in flight, routing around a slow
+         * host at the cost of fetching the same tile from different hosts over time.
+         */
+        LEAST_LOADED
+    }
+
     private static String normalizeBaseUrl(String baseUrl) {
         return baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
     }
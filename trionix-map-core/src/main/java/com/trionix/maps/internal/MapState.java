@@ -7,6 +7,8 @@ import static com.trionix.maps.internal.util.CoordinateNormalizer.normalizeLongi
 import com.trionix.maps.internal.projection.Projection;
 import com.trionix.maps.internal.projection.WebMercatorProjection;
 import com.trionix.maps.internal.tiles.TileCoordinate;
+import com.trionix.maps.internal.tiles.TileKey;
+import com.trionix.maps.internal.util.LongObjectHashMap;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -29,14 +31,30 @@ public final class MapState {
     private double zoom;
     private double viewportWidth;
     private double viewportHeight;
+    private double panVelocityX;
+    private double panVelocityY;
 
-    // Cached visible tiles to avoid recalculating every frame
+    // Cached visible tiles, reused until the covered tile range changes
     private List<TileCoordinate> cachedVisibleTiles;
-    private double cachedCenterLat;
-    private double cachedCenterLon;
-    private double cachedZoom;
-    private double cachedViewportWidth;
-    private double cachedViewportHeight;
+    private LongObjectHashMap<TileCoordinate> cachedVisibleTileKeys = new LongObjectHashMap<>();
+    private int cachedZoomLevel;
+    private long cachedStartX;
+    private long cachedEndX;
+    private long cachedStartY;
+    private long cachedEndY;
+
+    // Cached prefetch ring, reused until the expanded tile range changes
+    private List<TileCoordinate> cachedPrefetchTiles;
+    private List<TileCoordinate> prefetchVisibleTiles;
+    private int prefetchZoomLevel;
+    private long prefetchStartX;
+    private long prefetchEndX;
+    private long prefetchStartY;
+    private long prefetchEndY;
+
+    // Cached zoom pyramid, reused while the visible tile list is the same instance
+    private List<TileCoordinate> cachedPyramidTiles;
+    private List<TileCoordinate> pyramidVisibleTiles;
 
     public MapState() {
         this(WebMercatorProjection.INSTANCE, DEFAULT_MIN_ZOOM, DEFAULT_MAX_ZOOM);
@@ -89,40 +107,66 @@ public final class MapState {
         this.viewportHeight = Math.max(0.0, height);
     }
 
+    public double getPanVelocityX() {
+        return panVelocityX;
+    }
+
+    public double getPanVelocityY() {
+        return panVelocityY;
+    }
+
+    /**
+     * Records how fast the map center is moving, in pixels per second at the
+     * current zoom. Positive values move the center east and south.
+     */
+    public void setPanVelocity(double velocityX, double velocityY) {
+        this.panVelocityX = Double.isFinite(velocityX) ? velocityX : 0.0;
+        this.panVelocityY = Double.isFinite(velocityY) ? velocityY : 0.0;
+    }
+
     public int discreteZoomLevel() {
         return Math.max(0, (int) Math.floor(zoom));
     }
 
     /**
-     * Calculates a list of visible tile coordinates (row-major order) for the
-     * current state. Longitude wrapping is handled automatically. Results are
-     * cached and only recalculated when viewport parameters change.
+     * Returns the horizontal position of the viewport center in fractional
+     * tile units at the {@link #discreteZoomLevel() discrete zoom level}.
+     */
+    public double centerTileX() {
+        return projection.longitudeToPixelX(centerLon, discreteZoomLevel()) / Projection.TILE_SIZE;
+    }
+
+    /**
+     * Returns the vertical position of the viewport center in fractional tile
+     * units at the {@link #discreteZoomLevel() discrete zoom level}.
+     */
+    public double centerTileY() {
+        return projection.latitudeToPixelY(centerLat, discreteZoomLevel()) / Projection.TILE_SIZE;
+    }
+
+    /**
+     * Calculates a list of distinct visible tile coordinates (row-major order)
+     * for the current state. Longitude wrapping is handled automatically. The
+     * result is cached and the same instance is returned for as long as the
+     * viewport covers the same tile range, so panning within a tile allocates
+     * no new tile lists.
      */
     public List<TileCoordinate> visibleTiles() {
         if (viewportWidth <= 0.0 || viewportHeight <= 0.0) {
             return List.of();
         }
 
-        // Return cached result if viewport hasn't changed
-        if (cachedVisibleTiles != null
-                && Double.compare(centerLat, cachedCenterLat) == 0
-                && Double.compare(centerLon, cachedCenterLon) == 0
-                && Double.compare(zoom, cachedZoom) == 0
-                && Double.compare(viewportWidth, cachedViewportWidth) == 0
-                && Double.compare(viewportHeight, cachedViewportHeight) == 0) {
-            return cachedVisibleTiles;
-        }
-
         int zoomLevel = discreteZoomLevel();
         double tileSize = Projection.TILE_SIZE;
-        var centerPixels = projection.latLonToPixel(centerLat, centerLon, zoomLevel);
+        double centerPixelX = projection.longitudeToPixelX(centerLon, zoomLevel);
+        double centerPixelY = projection.latitudeToPixelY(centerLat, zoomLevel);
         double halfWidth = viewportWidth / 2.0;
         double halfHeight = viewportHeight / 2.0;
 
-        double minPixelX = centerPixels.x() - halfWidth;
-        double maxPixelXExclusive = centerPixels.x() + halfWidth;
-        double minPixelY = centerPixels.y() - halfHeight;
-        double maxPixelYExclusive = centerPixels.y() + halfHeight;
+        double minPixelX = centerPixelX - halfWidth;
+        double maxPixelXExclusive = centerPixelX + halfWidth;
+        double minPixelY = centerPixelY - halfHeight;
+        double maxPixelYExclusive = centerPixelY + halfHeight;
 
         long tileCount = Math.max(1L, 1L << zoomLevel);
         long startX = (long) Math.floor(minPixelX / tileSize);
@@ -130,31 +174,187 @@ public final class MapState {
         long startY = Math.max(0L, (long) Math.floor(minPixelY / tileSize));
         long endY = Math.min(tileCount - 1, (long) Math.ceil(maxPixelYExclusive / tileSize) - 1);
 
+        // Return cached result if the covered tile range hasn't changed
+        if (cachedVisibleTiles != null
+                && zoomLevel == cachedZoomLevel
+                && startX == cachedStartX
+                && endX == cachedEndX
+                && startY == cachedStartY
+                && endY == cachedEndY) {
+            return cachedVisibleTiles;
+        }
+
         if (endX < startX || endY < startY) {
             cachedVisibleTiles = List.of();
+            cachedVisibleTileKeys = new LongObjectHashMap<>();
         } else {
-            int columns = (int) (endX - startX + 1);
+            int columns = (int) Math.min(endX - startX + 1, tileCount);
             int rows = (int) (endY - startY + 1);
             List<TileCoordinate> tiles = new ArrayList<>(columns * rows);
+            LongObjectHashMap<TileCoordinate> keys = new LongObjectHashMap<>(columns * rows);
             for (long tileY = startY; tileY <= endY; tileY++) {
                 for (long tileX = startX; tileX <= endX; tileX++) {
                     long wrappedX = wrapTileX(tileX, tileCount);
-                    tiles.add(new TileCoordinate(zoomLevel, wrappedX, tileY));
+                    long key = TileKey.pack(zoomLevel, wrappedX, tileY);
+                    if (keys.containsKey(key)) {
+                        continue; // viewport wider than the world at low zoom
+                    }
+                    TileCoordinate tile = new TileCoordinate(zoomLevel, wrappedX, tileY);
+                    keys.put(key, tile);
+                    tiles.add(tile);
                 }
             }
             cachedVisibleTiles = List.copyOf(tiles);
+            cachedVisibleTileKeys = keys;
         }
 
         // Update cached parameters
-        cachedCenterLat = centerLat;
-        cachedCenterLon = centerLon;
-        cachedZoom = zoom;
-        cachedViewportWidth = viewportWidth;
-        cachedViewportHeight = viewportHeight;
+        cachedZoomLevel = zoomLevel;
+        cachedStartX = startX;
+        cachedEndX = endX;
+        cachedStartY = startY;
+        cachedEndY = endY;
 
         return cachedVisibleTiles;
     }
 
+    /**
+     * Calculates the tiles surrounding the visible area that are worth loading
+     * ahead of time: a ring {@code margin} tiles wide around the viewport,
+     * stretched in the direction of the current pan velocity by the distance
+     * covered in {@code lookaheadSeconds} (at most one viewport). Visible
+     * tiles are excluded. Like {@link #visibleTiles()}, the result is cached
+     * while the covered tile ranges stay the same.
+     */
+    public List<TileCoordinate> prefetchTiles(int margin, double lookaheadSeconds) {
+        if (margin < 0) {
+            throw new IllegalArgumentException("margin must not be negative");
+        }
+        if (lookaheadSeconds < 0.0) {
+            throw new IllegalArgumentException("lookaheadSeconds must not be negative");
+        }
+        if (viewportWidth <= 0.0 || viewportHeight <= 0.0) {
+            return List.of();
+        }
+        List<TileCoordinate> visible = visibleTiles();
+
+        int zoomLevel = discreteZoomLevel();
+        double tileSize = Projection.TILE_SIZE;
+        double centerPixelX = projection.longitudeToPixelX(centerLon, zoomLevel);
+        double centerPixelY = projection.latitudeToPixelY(centerLat, zoomLevel);
+        double aheadX = clamp(panVelocityX * lookaheadSeconds, viewportWidth);
+        double aheadY = clamp(panVelocityY * lookaheadSeconds, viewportHeight);
+
+        double minPixelX = centerPixelX - viewportWidth / 2.0 + Math.min(0.0, aheadX);
+        double maxPixelXExclusive = centerPixelX + viewportWidth / 2.0 + Math.max(0.0, aheadX);
+        double minPixelY = centerPixelY - viewportHeight / 2.0 + Math.min(0.0, aheadY);
+        double maxPixelYExclusive = centerPixelY + viewportHeight / 2.0 + Math.max(0.0, aheadY);
+
+        long tileCount = Math.max(1L, 1L << zoomLevel);
+        long startX = (long) Math.floor(minPixelX / tileSize) - margin;
+        long endX = (long) Math.ceil(maxPixelXExclusive / tileSize) - 1 + margin;
+        long startY = Math.max(0L, (long) Math.floor(minPixelY / tileSize) - margin);
+        long endY = Math.min(tileCount - 1, (long) Math.ceil(maxPixelYExclusive / tileSize) - 1 + margin);
+
+        if (cachedPrefetchTiles != null
+                && visible == prefetchVisibleTiles
+                && zoomLevel == prefetchZoomLevel
+                && startX == prefetchStartX
+                && endX == prefetchEndX
+                && startY == prefetchStartY
+                && endY == prefetchEndY) {
+            return cachedPrefetchTiles;
+        }
+
+        List<TileCoordinate> tiles = new ArrayList<>();
+        if (endX >= startX && endY >= startY && !visible.isEmpty()) {
+            LongObjectHashMap<TileCoordinate> seen = new LongObjectHashMap<>();
+            for (long tileY = startY; tileY <= endY; tileY++) {
+                for (long tileX = startX; tileX <= endX; tileX++) {
+                    long wrappedX = wrapTileX(tileX, tileCount);
+                    long key = TileKey.pack(zoomLevel, wrappedX, tileY);
+                    if (cachedVisibleTileKeys.containsKey(key) || seen.containsKey(key)) {
+                        continue;
+                    }
+                    TileCoordinate tile = new TileCoordinate(zoomLevel, wrappedX, tileY);
+                    seen.put(key, tile);
+                    tiles.add(tile);
+                }
+            }
+        }
+        cachedPrefetchTiles = List.copyOf(tiles);
+        prefetchVisibleTiles = visible;
+        prefetchZoomLevel = zoomLevel;
+        prefetchStartX = startX;
+        prefetchEndX = endX;
+        prefetchStartY = startY;
+        prefetchEndY = endY;
+        return cachedPrefetchTiles;
+    }
+
+    /**
+     * Returns the parents (one zoom level out) followed by the children (one
+     * zoom level in) of the visible tiles, without duplicates. Levels outside
+     * the zoom range of this state are skipped. The result is cached for as
+     * long as {@link #visibleTiles()} returns the same list.
+     */
+    public List<TileCoordinate> zoomPyramidTiles() {
+        List<TileCoordinate> visible = visibleTiles();
+        if (cachedPyramidTiles != null && visible == pyramidVisibleTiles) {
+            return cachedPyramidTiles;
+        }
+        List<TileCoordinate> tiles = new ArrayList<>();
+        if (!visible.isEmpty()) {
+            int zoomLevel = visible.get(0).zoom();
+            LongObjectHashMap<TileCoordinate> seen = new LongObjectHashMap<>();
+            if (zoomLevel > Math.max(0, (int) Math.floor(minZoom))) {
+                for (int i = 0; i < visible.size(); i++) {
+                    TileCoordinate tile = visible.get(i);
+                    addPyramidTile(tiles, seen, zoomLevel - 1, tile.x() >> 1, tile.y() >> 1);
+                }
+            }
+            if (zoomLevel < Math.min(TileKey.MAX_ZOOM, (int) Math.floor(maxZoom))) {
+                for (int i = 0; i < visible.size(); i++) {
+                    TileCoordinate tile = visible.get(i);
+                    long childX = tile.x() << 1;
+                    long childY = tile.y() << 1;
+                    addPyramidTile(tiles, seen, zoomLevel + 1, childX, childY);
+                    addPyramidTile(tiles, seen, zoomLevel + 1, childX + 1, childY);
+                    addPyramidTile(tiles, seen, zoomLevel + 1, childX, childY + 1);
+                    addPyramidTile(tiles, seen, zoomLevel + 1, childX + 1, childY + 1);
+                }
+            }
+        }
+        cachedPyramidTiles = List.copyOf(tiles);
+        pyramidVisibleTiles = visible;
+        return cachedPyramidTiles;
+    }
+
+    private static void addPyramidTile(List<TileCoordinate> tiles,
+            LongObjectHashMap<TileCoordinate> seen, int zoom, long x, long y) {
+        long key = TileKey.pack(zoom, x, y);
+        if (seen.containsKey(key)) {
+            return;
+        }
+        TileCoordinate tile = new TileCoordinate(zoom, x, y);
+        seen.put(key, tile);
+        tiles.add(tile);
+    }
+
+    /**
+     * Returns the visible tiles indexed by packed {@link TileKey}, matching the
+     * list most recently returned by {@link #visibleTiles()}. The map is
+     * replaced rather than mutated when the visible set changes and must be
+     * treated as read-only.
+     */
+    public LongObjectHashMap<TileCoordinate> visibleTileKeys() {
+        return cachedVisibleTileKeys;
+    }
+
+    private static double clamp(double value, double limit) {
+        return Math.max(-limit, Math.min(limit, value));
+    }
+
     private static long wrapTileX(long tileX, long tileCount) {
         long wrapped = tileX % tileCount;
         return wrapped < 0 ? wrapped + tileCount : wrapped;
@@ -0,0 +1,451 @@
+package com.trionix.maps.internal.cache;
+
+import com.trionix.maps.internal.util.LongObjectHashMap;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Persistent LRU index of the tiles stored by a disk cache.
+ *
+ * <p>Entries (packed tile key and file size) live in a primitive hash map
+ * threaded onto an access-ordered list, so lookups, recency updates and
+ * eviction of the eldest entry are O(1). Every mutation is appended to a
+ * binary journal which is replayed on {@link #open(Path, int) open}; once the
+ * journal holds more than twice as many records as there are entries it is
+ * rewritten as a compact snapshot, keeping appends O(1) amortized.
+ *
+ * <p>Journal layout: an 8-byte header (magic, version) followed by fixed-size
+ * records of one opcode byte, the packed key and the file size. A torn record
+ * at the end of the file (for example after a crash) is discarded on load.
+ *
+ * <p>Recency updates from {@link #touch(long)} are buffered in memory and
+ * written in batches of {@value #TOUCH_BATCH} records, or together with the
+ * next mutation, so cache reads do not turn into disk writes. A crash loses at
+ * most one batch of recency information, never an entry.
+ *
+ * <p>All methods are synchronized on the index.
+ */
+public final class DiskTileIndex implements Closeable {
+
+    private static final int MAGIC = 0x54524958; // "TRIX"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_BYTES = 1 + Long.BYTES + Integer.BYTES;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final byte OP_TOUCH = 3;
+    private static final int TOUCH_BATCH = 256;
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+    private static final long[] NO_KEYS = new long[0];
+
+    private final Path journalFile;
+    private final int maxEntries;
+    private final LongObjectHashMap<Node> entries = new LongObjectHashMap<>();
+    private final ByteBuffer pending = ByteBuffer.allocate(RECORD_BYTES * TOUCH_BATCH);
+    private Node eldest;
+    private Node youngest;
+    private long totalBytes;
+    private FileChannel journal;
+    private long journalRecords;
+    private boolean restored;
+
+    private DiskTileIndex(Path journalFile, int maxEntries) {
+        this.journalFile = journalFile;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Opens the index backed by the given journal, replaying it if it exists.
+     * A missing or unreadable journal yields an empty index for which
+     * {@link #wasRestored()} returns {@code false}; callers are expected to
+     * {@link #rebuild(long[], long[]) rebuild} it from the files on disk.
+     *
+     * @throws IllegalArgumentException if {@code maxEntries} is not positive
+     * @throws IOException              if the journal cannot be opened for writing
+     */
+    public static DiskTileIndex open(Path journalFile, int maxEntries) throws IOException {
+        Objects.requireNonNull(journalFile, "journalFile");
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        DiskTileIndex index = new DiskTileIndex(journalFile, maxEntries);
+        synchronized (index) {
+            index.load();
+        }
+        return index;
+    }
+
+    /** Returns whether the entries were restored from an existing journal. */
+    public synchronized boolean wasRestored() {
+        return restored;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Returns the summed size of all indexed files in bytes. */
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized boolean contains(long key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Marks the entry as most recently used. Unknown keys are ignored. The
+     * update is journaled lazily; see {@link #flush()}.
+     */
+    public synchronized void touch(long key) throws IOException {
+        Node node = entries.get(key);
+        if (node == null || node == youngest) {
+            return;
+        }
+        moveToYoungest(node);
+        buffer(OP_TOUCH, key, 0);
+        if (!pending.hasRemaining()) {
+            flush();
+        }
+    }
+
+    /** Writes buffered recency updates to the journal. */
+    public synchronized void flush() throws IOException {
+        if (pending.position() == 0) {
+            return;
+        }
+        writeFully(journal(), pending);
+        compactIfNeeded();
+    }
+
+    /**
+     * Records a stored file as the most recently used entry and evicts the
+     * eldest entries while the index exceeds its capacity.
+     *
+     * @return the keys of the evicted entries, whose files the caller deletes
+     */
+    public synchronized long[] add(long key, long sizeBytes) throws IOException {
+        Node node = entries.get(key);
+        if (node != null) {
+            totalBytes += sizeBytes - node.sizeBytes;
+            node.sizeBytes = sizeBytes;
+            moveToYoungest(node);
+        } else {
+            node = new Node(key, sizeBytes);
+            entries.put(key, node);
+            link(node);
+            totalBytes += sizeBytes;
+        }
+        append(OP_PUT, key, sizeBytes);
+        long[] evicted = trimToCapacity();
+        compactIfNeeded();
+        return evicted;
+    }
+
+    /**
+     * Forgets the entry, for example after its file was found missing.
+     */
+    public synchronized void remove(long key) throws IOException {
+        Node node = entries.remove(key);
+        if (node == null) {
+            return;
+        }
+        unlink(node);
+        totalBytes -= node.sizeBytes;
+        append(OP_REMOVE, key, 0);
+        compactIfNeeded();
+    }
+
+    /**
+     * Evicts the eldest entries until the index fits its capacity, which may
+     * have shrunk since the journal was written.
+     *
+     * @return the keys of the evicted entries, whose files the caller deletes
+     */
+    public synchronized long[] trimToCapacity() throws IOException {
+        int excess = entries.size() - maxEntries;
+        if (excess <= 0) {
+            return NO_KEYS;
+        }
+        long[] evicted = new long[excess];
+        for (int i = 0; i < excess; i++) {
+            Node node = eldest;
+            unlink(node);
+            entries.remove(node.key);
+            totalBytes -= node.sizeBytes;
+            append(OP_REMOVE, node.key, 0);
+            evicted[i] = node.key;
+        }
+        return evicted;
+    }
+
+    /**
+     * Replaces all entries with the given ones, eldest first, and writes them
+     * as a fresh journal. Used when no journal could be restored.
+     */
+    public synchronized void rebuild(long[] keys, long[] sizes) throws IOException {
+        if (keys.length != sizes.length) {
+            throw new IllegalArgumentException("keys and sizes must have the same length");
+        }
+        resetEntries();
+        for (int i = 0; i < keys.length; i++) {
+            Node node = entries.get(keys[i]);
+            if (node != null) {
+                totalBytes -= node.sizeBytes;
+                unlink(node);
+            } else {
+                node = new Node(keys[i], 0);
+                entries.put(keys[i], node);
+            }
+            node.sizeBytes = sizes[i];
+            totalBytes += sizes[i];
+            link(node);
+        }
+        compact();
+    }
+
+    /**
+     * Drops every entry and deletes the journal. The index stays usable and
+     * starts a new journal on the next mutation.
+     */
+    public synchronized void clear() throws IOException {
+        resetEntries();
+        pending.clear();
+        closeJournal();
+        Files.deleteIfExists(journalFile);
+        journalRecords = 0;
+    }
+
+    /** Flushes buffered recency updates and closes the journal. */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            closeJournal();
+        }
+    }
+
+    private void load() throws IOException {
+        if (Files.isRegularFile(journalFile)) {
+            restored = replay();
+            if (!restored) {
+                resetEntries();
+                Files.deleteIfExists(journalFile);
+            }
+        }
+    }
+
+    private boolean replay() throws IOException {
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            if (!readFully(channel, header) || header.getInt(0) != MAGIC
+                    || header.getInt(Integer.BYTES) != VERSION) {
+                return false;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * 4096);
+            long records = 0;
+            while (channel.read(buffer) > 0 || buffer.position() > 0) {
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_BYTES) {
+                    byte op = buffer.get();
+                    long key = buffer.getLong();
+                    long sizeBytes = buffer.getInt() & 0xFFFFFFFFL;
+                    if (!apply(op, key, sizeBytes)) {
+                        return false;
+                    }
+                    records++;
+                }
+                boolean torn = buffer.hasRemaining();
+                buffer.compact();
+                if (torn && channel.position() == channel.size()) {
+                    break;
+                }
+            }
+            // Drop a torn trailing record so later appends stay aligned
+            channel.truncate(HEADER_BYTES + records * RECORD_BYTES);
+            journalRecords = records;
+            return true;
+        }
+    }
+
+    private boolean apply(byte op, long key, long sizeBytes) {
+        Node node = entries.get(key);
+        switch (op) {
+            case OP_PUT -> {
+                if (node == null) {
+                    node = new Node(key, sizeBytes);
+                    entries.put(key, node);
+                    link(node);
+                } else {
+                    totalBytes -= node.sizeBytes;
+                    node.sizeBytes = sizeBytes;
+                    moveToYoungest(node);
+                }
+                totalBytes += sizeBytes;
+            }
+            case OP_REMOVE -> {
+                if (node != null) {
+                    entries.remove(key);
+                    unlink(node);
+                    totalBytes -= node.sizeBytes;
+                }
+            }
+            case OP_TOUCH -> {
+                if (node != null) {
+                    moveToYoungest(node);
+                }
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Writes a record, together with any buffered touches that precede it. */
+    private void append(byte op, long key, long sizeBytes) throws IOException {
+        if (!pending.hasRemaining()) {
+            writeFully(journal(), pending);
+        }
+        buffer(op, key, sizeBytes);
+        writeFully(journal(), pending);
+    }
+
+    private void buffer(byte op, long key, long sizeBytes) {
+        pending.put(op).putLong(key).putInt((int) Math.min(sizeBytes, 0xFFFFFFFFL));
+        journalRecords++;
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (journalRecords > MIN_COMPACTION_RECORDS && journalRecords > 2L * entries.size()) {
+            compact();
+        }
+    }
+
+    /** Rewrites the journal as one PUT record per entry, eldest first. */
+    private void compact() throws IOException {
+        closeJournal();
+        pending.clear(); // The snapshot already reflects buffered touches
+        Files.createDirectories(journalFile.toAbsolutePath().getParent());
+        Path tempFile = journalFile.resolveSibling(journalFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * 4096);
+            buffer.putInt(MAGIC).putInt(VERSION);
+            for (Node node = eldest; node != null; node = node.younger) {
+                if (buffer.remaining() < RECORD_BYTES) {
+                    writeFully(channel, buffer);
+                }
+                buffer.put(OP_PUT).putLong(node.key)
+                        .putInt((int) Math.min(node.sizeBytes, 0xFFFFFFFFL));
+            }
+            writeFully(channel, buffer);
+        }
+        Files.move(tempFile, journalFile, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        journalRecords = entries.size();
+    }
+
+    private FileChannel journal() throws IOException {
+        if (journal == null) {
+            Files.createDirectories(journalFile.toAbsolutePath().getParent());
+            boolean fresh = !Files.exists(journalFile) || Files.size(journalFile) < HEADER_BYTES;
+            journal = FileChannel.open(journalFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (fresh) {
+                journal.truncate(0);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION);
+                writeFully(journal, header);
+                journalRecords = pending.position() / RECORD_BYTES;
+            }
+        }
+        return journal;
+    }
+
+    private void closeJournal() throws IOException {
+        if (journal != null) {
+            FileChannel channel = journal;
+            journal = null;
+            channel.close();
+        }
+    }
+
+    private void resetEntries() {
+        entries.clear();
+        eldest = null;
+        youngest = null;
+        totalBytes = 0;
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void moveToYoungest(Node node) {
+        if (node == youngest) {
+            return;
+        }
+        unlink(node);
+        link(node);
+    }
+
+    private void link(Node node) {
+        node.older = youngest;
+        node.younger = null;
+        if (youngest != null) {
+            youngest.younger = node;
+        } else {
+            eldest = node;
+        }
+        youngest = node;
+    }
+
+    private void unlink(Node node) {
+        if (node.older != null) {
+            node.older.younger = node.younger;
+        } else {
+            eldest = node.younger;
+        }
+        if (node.younger != null) {
+            node.younger.older = node.older;
+        } else {
+            youngest = node.older;
+        }
+        node.older = null;
+        node.younger = null;
+    }
+
+    private static final class Node {
+        final long key;
+        long sizeBytes;
+        Node older;
+        Node younger;
+
+        Node(long key, long sizeBytes) {
+            this.key = key;
+            this.sizeBytes = sizeBytes;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.trionix.maps.internal.cache;
+
+import com.trionix.maps.internal.tiles.TileKey;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Memory-mapped hash index from packed tile keys to {@code (offset, length)}
+ * locations in a tile pack file.
+ *
+ * <p>The index file is a 32-byte header followed by an open-addressing table
+ * of fixed 24-byte slots (key + 1, offset, length), so lookups read straight
+ * from the mapping without materializing the index on the heap. Keys are
+ * stored incremented by one, leaving zero to mark an empty slot. Entries are
+ * never deleted individually; {@link #reset()} empties the table when the
+ * pack is rewritten. The table doubles in place once it is three quarters
+ * full, up to {@link #MAX_SLOTS} slots: the whole table is one mapping, which
+ * cannot exceed 2 GiB, so an index holds at most about 50 million tiles.
+ *
+ * <p>The header records how many bytes of the pack file the index covers,
+ * letting the owner replay records appended after the last update.
+ *
+ * <p>Not thread-safe; callers serialize mutations and exclude them from
+ * concurrent lookups. Lookups alone only use absolute reads of the mapping
+ * and may run concurrently, which is how an index opened with
+ * {@link #openReadOnly(Path)} is used.
+ */
+public final class MappedTileIndex implements Closeable {
+
+    private static final int MAGIC = 0x54494458; // "TIDX"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int SLOT_BYTES = 24;
+    private static final int MIN_SLOTS = 1024;
+    /** Largest power-of-two slot count whose table still fits a single mapping. */
+    static final int MAX_SLOTS = 1 << 26;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int SLOTS_OFFSET = 8;
+    private static final int SIZE_OFFSET = 12;
+    private static final int PACK_LENGTH_OFFSET = 16;
+    private static final int LIVE_BYTES_OFFSET = 24;
+
+    private final FileChannel channel;
+    private final boolean readOnly;
+    private MappedByteBuffer buffer;
+    private int slots;
+    private boolean restored;
+
+    private MappedTileIndex(FileChannel channel, boolean readOnly) {
+        this.channel = channel;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Maps the index file, creating an empty index if the file is missing or
+     * its header is not recognized (see {@link #wasRestored()}).
+     */
+    public static MappedTileIndex open(Path file) throws IOException {
+        Objects.requireNonNull(file, "file");
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return load(new MappedTileIndex(channel, false));
+    }
+
+    /**
+     * Maps an existing index file read-only. Mutating methods of the returned
+     * index throw {@link java.nio.ReadOnlyBufferException}.
+     *
+     * @throws IOException if the file is missing or not a valid index
+     */
+    public static MappedTileIndex openReadOnly(Path file) throws IOException {
+        Objects.requireNonNull(file, "file");
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        MappedTileIndex index = load(new MappedTileIndex(channel, true));
+        if (!index.restored) {
+            index.channel.close();
+            throw new IOException("Not a valid tile index: " + file);
+        }
+        return index;
+    }
+
+    private static MappedTileIndex load(MappedTileIndex index) throws IOException {
+        try {
+            index.load();
+        } catch (IOException | RuntimeException e) {
+            index.channel.close();
+            throw e;
+        }
+        return index;
+    }
+
+    /** Returns whether existing entries were found in the index file. */
+    public boolean wasRestored() {
+        return restored;
+    }
+
+    public int size() {
+        return buffer.getInt(SIZE_OFFSET);
+    }
+
+    /** Returns the length of the pack file prefix described by this index. */
+    public long packLength() {
+        return buffer.getLong(PACK_LENGTH_OFFSET);
+    }
+
+    public void setPackLength(long packLength) {
+        buffer.putLong(PACK_LENGTH_OFFSET, packLength);
+    }
+
+    /** Returns the summed payload length of all indexed tiles. */
+    public long liveBytes() {
+        return buffer.getLong(LIVE_BYTES_OFFSET);
+    }
+
+    /**
+     * Returns the slot holding {@code key}, or {@code -1} if the key is not
+     * indexed.
+     */
+    public int find(long key) {
+        int mask = slots - 1;
+        int slot = TileKey.hash(key) & mask;
+        long stored = key + 1;
+        for (int probes = 0; probes < slots; probes++) {
+            long candidate = buffer.getLong(slotPosition(slot));
+            if (candidate == 0) {
+                return -1;
+            }
+            if (candidate == stored) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    public long offset(int slot) {
+        return buffer.getLong(slotPosition(slot) + 8);
+    }
+
+    public int length(int slot) {
+        return buffer.getInt(slotPosition(slot) + 16);
+    }
+
+    /** Points {@code key} at a new location, replacing any previous one. */
+    public void put(long key, long offset, int length) throws IOException {
+        int existing = find(key);
+        if (existing >= 0) {
+            adjustLiveBytes(length - (long) length(existing));
+            writeSlot(existing, key, offset, length);
+            return;
+        }
+        if ((size() + 1) * 4L > slots * 3L) {
+            grow();
+        }
+        insert(key, offset, length);
+        buffer.putInt(SIZE_OFFSET, size() + 1);
+        adjustLiveBytes(length);
+    }
+
+    /** Visits every entry in table order. */
+    public void forEach(EntryVisitor visitor) {
+        for (int slot = 0; slot < slots; slot++) {
+            long stored = buffer.getLong(slotPosition(slot));
+            if (stored != 0) {
+                visitor.visit(stored - 1, offset(slot), length(slot));
+            }
+        }
+    }
+
+    /** Removes every entry and resets the covered pack length. */
+    public void reset() throws IOException {
+        remap(MIN_SLOTS);
+    }
+
+    /** Writes the mapping back to the file system. */
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!readOnly && buffer != null) {
+            buffer.force();
+        }
+        channel.close();
+    }
+
+    private void load() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize >= HEADER_BYTES + (long) MIN_SLOTS * SLOT_BYTES) {
+            buffer = channel.map(readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE,
+                    0, Math.min(fileSize, tableBytes(MAX_SLOTS)));
+            int storedSlots = buffer.getInt(SLOTS_OFFSET);
+            if (buffer.getInt(MAGIC_OFFSET) == MAGIC && buffer.getInt(VERSION_OFFSET) == VERSION
+                    && storedSlots >= MIN_SLOTS && storedSlots <= MAX_SLOTS && Integer.bitCount(storedSlots) == 1
+                    && tableBytes(storedSlots) <= fileSize) {
+                slots = storedSlots;
+                restored = true;
+                return;
+            }
+        }
+        if (!readOnly) {
+            remap(MIN_SLOTS);
+        }
+    }
+
+    /**
+     * Doubles the table, re-inserting every entry.
+     *
+     * @throws IOException if the table already has {@link #MAX_SLOTS} slots
+     */
+    private void grow() throws IOException {
+        if (slots >= MAX_SLOTS) {
+            throw new IOException("Tile index is full: " + size() + " tiles in " + slots + " slots");
+        }
+        int count = size();
+        long[] keys = new long[count];
+        long[] offsets = new long[count];
+        int[] lengths = new int[count];
+        int[] next = new int[1];
+        forEach((key, offset, length) -> {
+            int i = next[0]++;
+            keys[i] = key;
+            offsets[i] = offset;
+            lengths[i] = length;
+        });
+        long packLength = packLength();
+        long liveBytes = liveBytes();
+        remap(slots * 2);
+        for (int i = 0; i < count; i++) {
+            insert(keys[i], offsets[i], lengths[i]);
+        }
+        buffer.putInt(SIZE_OFFSET, count);
+        buffer.putLong(PACK_LENGTH_OFFSET, packLength);
+        buffer.putLong(LIVE_BYTES_OFFSET, liveBytes);
+    }
+
+    /**
+     * Maps an empty table of the given slot count, growing the file if needed.
+     * The file is never truncated, which would invalidate live mappings.
+     */
+    private void remap(int slotCount) throws IOException {
+        long tableSize = tableBytes(slotCount);
+        if (buffer == null || buffer.capacity() < tableSize) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(tableSize, Math.min(channel.size(), tableBytes(MAX_SLOTS))));
+        }
+        for (int position = HEADER_BYTES; position < tableSize; position += SLOT_BYTES) {
+            buffer.putLong(position, 0L);
+        }
+        slots = slotCount;
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.putInt(SLOTS_OFFSET, slotCount);
+        buffer.putInt(SIZE_OFFSET, 0);
+        buffer.putLong(PACK_LENGTH_OFFSET, 0);
+        buffer.putLong(LIVE_BYTES_OFFSET, 0);
+    }
+
+    private void insert(long key, long offset, int length) {
+        int mask = slots - 1;
+        int slot = TileKey.hash(key) & mask;
+        while (buffer.getLong(slotPosition(slot)) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        writeSlot(slot, key, offset, length);
+    }
+
+    private void writeSlot(int slot, long key, long offset, int length) {
+        int position = slotPosition(slot);
+        buffer.putLong(position, key + 1);
+        buffer.putLong(position + 8, offset);
+        buffer.putInt(position + 16, length);
+    }
+
+    private void adjustLiveBytes(long delta) {
+        buffer.putLong(LIVE_BYTES_OFFSET, liveBytes() + delta);
+    }
+
+    private static int slotPosition(int slot) {
+        return Math.toIntExact(HEADER_BYTES + (long) slot * SLOT_BYTES);
+    }
+
+    private static long tableBytes(int slotCount) {
+        return HEADER_BYTES + (long) slotCount * SLOT_BYTES;
+    }
+
+    /** Receives index entries from {@link #forEach(EntryVisitor)}. */
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void visit(long key, long offset, int length);
+    }
+}
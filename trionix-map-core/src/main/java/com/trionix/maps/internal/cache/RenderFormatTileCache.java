@@ -0,0 +1,50 @@
+package com.trionix.maps.internal.cache;
+
+import com.trionix.maps.TileCache;
+import com.trionix.maps.internal.tiles.TileImages;
+import java.util.Objects;
+import javafx.scene.image.Image;
+
+/**
+ * Memory tier decorator that stores tiles converted to premultiplied BGRA
+ * (see {@link TileImages#toRenderFormat(Image)}).
+ *
+ * <p>The conversion runs in {@link #put(int, long, long, Image)}, which the
+ * tile manager and {@code TieredTileCache} promotions call on tile-loading
+ * threads, so the renderer's {@link #peek(int, long, long)} only ever sees
+ * converted tiles.
+ */
+public final class RenderFormatTileCache implements TileCache {
+
+    private final TileCache delegate;
+
+    public RenderFormatTileCache(TileCache delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+    }
+
+    @Override
+    public Image get(int zoom, long x, long y) {
+        return delegate.get(zoom, x, y);
+    }
+
+    @Override
+    public Image peek(int zoom, long x, long y) {
+        return delegate.peek(zoom, x, y);
+    }
+
+    @Override
+    public boolean contains(int zoom, long x, long y) {
+        return delegate.contains(zoom, x, y);
+    }
+
+    @Override
+    public void put(int zoom, long x, long y, Image image) {
+        Objects.requireNonNull(image, "image");
+        delegate.put(zoom, x, y, TileImages.toRenderFormat(image));
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+}
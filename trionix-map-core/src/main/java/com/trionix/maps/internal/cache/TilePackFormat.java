@@ -0,0 +1,20 @@
+package com.trionix.maps.internal.cache;
+
+/**
+ * Layout constants of the tile pack file shared by the pack cache and the
+ * read-only pack retriever.
+ *
+ * <p>A pack starts with an 8-byte header (magic, version) followed by
+ * records of the packed tile key, the payload length and the encoded tile
+ * bytes. The {@link MappedTileIndex} stored alongside it points at payloads.
+ */
+public final class TilePackFormat {
+
+    public static final int MAGIC = 0x5450414B; // "TPAK"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 8;
+    public static final int RECORD_HEADER_BYTES = Long.BYTES + Integer.BYTES;
+
+    private TilePackFormat() {
+    }
+}
@@ -0,0 +1,87 @@
+package com.trionix.maps.internal.concurrent;
+
+/**
+ * Additive-increase / multiplicative-decrease concurrency limit driven by
+ * request latency and errors, in the spirit of Netflix's concurrency-limits.
+ *
+ * <p>Every completed request reports its round-trip time. While requests
+ * return close to the baseline latency and the limit is actually used (at
+ * least half of it in flight), the limit grows by one per request. A request
+ * slower than {@value #LATENCY_TOLERANCE} times the baseline signals queueing
+ * at the server or on the link and shrinks the limit by
+ * {@value #LATENCY_BACKOFF}; an error or timeout shrinks it by
+ * {@value #ERROR_BACKOFF}. The baseline is the fastest round trip seen in the
+ * current window of {@value #BASELINE_WINDOW} requests and is renewed with
+ * every window, so it follows route changes.
+ *
+ * <p>Thread-safe.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    static final double LATENCY_TOLERANCE = 2.0;
+    static final double LATENCY_BACKOFF = 0.9;
+    static final double ERROR_BACKOFF = 0.5;
+    static final int BASELINE_WINDOW = 500;
+
+    private final int minLimit;
+    private final int maxLimit;
+    // Guarded by this
+    private double limit;
+    private long baselineNanos = Long.MAX_VALUE;
+    private long windowMinNanos = Long.MAX_VALUE;
+    private int windowSamples;
+
+    /**
+     * @throws IllegalArgumentException if the bounds are not positive, are
+     *                                  inverted, or do not contain {@code initialLimit}
+     */
+    public AdaptiveConcurrencyLimit(int minLimit, int maxLimit, int initialLimit) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("limits must satisfy 0 < minLimit <= maxLimit");
+        }
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("initialLimit must be between minLimit and maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    /** Returns the current limit. */
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * Records a completed request and returns the new limit.
+     *
+     * @param rttNanos round-trip time of the request
+     * @param failed   whether the request failed in a way that suggests
+     *                 overload (I/O error, timeout, 429 or 5xx status)
+     * @param inFlight number of requests in flight when it completed,
+     *                 including this one
+     */
+    public synchronized int onSample(long rttNanos, boolean failed, int inFlight) {
+        if (failed) {
+            limit = Math.max(minLimit, Math.floor(limit * ERROR_BACKOFF));
+            return (int) limit;
+        }
+        updateBaseline(rttNanos);
+        if (rttNanos > baselineNanos * LATENCY_TOLERANCE) {
+            limit = Math.max(minLimit, Math.floor(limit * LATENCY_BACKOFF));
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+        return (int) limit;
+    }
+
+    private void updateBaseline(long rttNanos) {
+        windowMinNanos = Math.min(windowMinNanos, rttNanos);
+        baselineNanos = Math.min(baselineNanos, rttNanos);
+        if (++windowSamples >= BASELINE_WINDOW) {
+            baselineNanos = windowMinNanos;
+            windowMinNanos = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+    }
+}
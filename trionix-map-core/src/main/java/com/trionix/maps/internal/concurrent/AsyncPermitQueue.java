@@ -0,0 +1,169 @@
+package com.trionix.maps.internal.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking counterpart of a fair {@link java.util.concurrent.Semaphore}:
+ * {@link #acquire()} returns a future that completes once a permit is
+ * granted, so waiting requests cost a queued future instead of a parked
+ * thread.
+ *
+ * <p>Permits are granted in FIFO order by {@link #release()}, which completes
+ * the next waiter on the releasing thread. Cancelling a waiting future gives
+ * up its place in the queue; a future that was already granted must be
+ * released as usual.
+ *
+ * <p>The number of permits can be changed at any time with
+ * {@link #setPermits(int)}. Shrinking never revokes granted permits; new
+ * ones are only handed out once enough have been released.
+ */
+public final class AsyncPermitQueue {
+
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    // Guarded by waiters; available goes negative while more permits are held than allowed
+    private int permits;
+    private int available;
+    private int cancelledInQueue;
+
+    public AsyncPermitQueue(int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+        this.permits = permits;
+        this.available = permits;
+    }
+
+    /**
+     * Returns a future completing when a permit has been granted; already
+     * completed if one is free and nobody is waiting.
+     */
+    public CompletableFuture<Void> acquire() {
+        CompletableFuture<Void> waiter;
+        synchronized (waiters) {
+            if (available > 0 && waiters.isEmpty()) {
+                available--;
+                return CompletableFuture.completedFuture(null);
+            }
+            waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+        }
+        waiting.incrementAndGet();
+        waiter.whenComplete((ignored, error) -> {
+            if (waiter.isCancelled()) {
+                waiting.decrementAndGet();
+                purgeCancelled();
+            }
+        });
+        return waiter;
+    }
+
+    /** Takes a permit if one is free and nobody is waiting. */
+    public boolean tryAcquire() {
+        synchronized (waiters) {
+            if (available > 0 && waiters.isEmpty()) {
+                available--;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /** Returns a permit, handing it to the oldest waiter that is still interested. */
+    public void release() {
+        synchronized (waiters) {
+            if (available >= permits) {
+                throw new IllegalStateException("release without acquire");
+            }
+            available++;
+        }
+        grantWaiters();
+    }
+
+    /**
+     * Changes the number of permits, granting queued requests at once when it
+     * grows.
+     *
+     * @throws IllegalArgumentException if {@code permits} is not positive
+     */
+    public void setPermits(int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+        synchronized (waiters) {
+            available += permits - this.permits;
+            this.permits = permits;
+        }
+        grantWaiters();
+    }
+
+    /** Returns the number of permits that may currently be granted; negative after shrinking. */
+    public int availablePermits() {
+        synchronized (waiters) {
+            return available;
+        }
+    }
+
+    /** Returns the number of callers waiting for a permit. */
+    public int queueLength() {
+        return waiting.get();
+    }
+
+    /** Returns the total number of permits. */
+    public int permits() {
+        synchronized (waiters) {
+            return permits;
+        }
+    }
+
+    /** Returns the number of permits currently granted. */
+    public int inUse() {
+        synchronized (waiters) {
+            return permits - available;
+        }
+    }
+
+    private void grantWaiters() {
+        while (true) {
+            CompletableFuture<Void> next;
+            synchronized (waiters) {
+                if (available <= 0) {
+                    return;
+                }
+                next = waiters.poll();
+                if (next == null) {
+                    return;
+                }
+                if (next.isCancelled()) {
+                    cancelledInQueue = Math.max(0, cancelledInQueue - 1);
+                    continue;
+                }
+                available--;
+            }
+            // Complete outside the lock: the waiter's continuation runs right here
+            if (next.complete(null)) {
+                waiting.decrementAndGet();
+            } else {
+                synchronized (waiters) {
+                    available++; // Cancelled in the meantime
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops cancelled waiters once they make up half of the queue, keeping
+     * mass cancellation of queued requests amortized O(1) per request.
+     */
+    private void purgeCancelled() {
+        synchronized (waiters) {
+            cancelledInQueue++;
+            if (cancelledInQueue * 2 >= waiters.size()) {
+                waiters.removeIf(CompletableFuture::isCancelled);
+                cancelledInQueue = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.trionix.maps.internal.concurrent;
+
+import com.trionix.maps.RateLimiter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Non-blocking token bucket. Tokens accrue at a fixed rate up to the burst
+ * size; a request takes one token, or reserves the next one to accrue and
+ * receives a future completing when it does. Reservations are served in
+ * arrival order, so a queue of waiting requests drains at exactly the
+ * configured rate, and a cancelled reservation returns its token.
+ */
+public final class TokenBucket implements RateLimiter {
+
+    private final double tokensPerNano;
+    private final int burst;
+    private final LongSupplier clock;
+    // Guarded by this; negative while requests wait for tokens
+    private double tokens;
+    private long refilledAt;
+
+    /**
+     * @throws IllegalArgumentException if {@code requestsPerSecond} is not a
+     *                                  positive finite number or {@code burst}
+     *                                  is not positive
+     */
+    public TokenBucket(double requestsPerSecond, int burst) {
+        this(requestsPerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double requestsPerSecond, int burst, LongSupplier clock) {
+        if (!(requestsPerSecond > 0) || Double.isInfinite(requestsPerSecond)) {
+            throw new IllegalArgumentException("requestsPerSecond must be positive and finite");
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("burst must be positive");
+        }
+        this.tokensPerNano = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.clock = clock;
+        this.tokens = burst;
+        this.refilledAt = clock.getAsLong();
+    }
+
+    @Override
+    public CompletableFuture<Void> acquire() {
+        long waitNanos = reserve();
+        if (waitNanos == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> token = new CompletableFuture<>();
+        CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS, TileExecutors.tileExecutor())
+                .execute(() -> token.complete(null));
+        token.whenComplete((ignored, error) -> {
+            if (token.isCancelled()) {
+                refund();
+            }
+        });
+        return token;
+    }
+
+    /** Takes a token and returns how long to wait until it has accrued; {@code 0} if it is available now. */
+    synchronized long reserve() {
+        refill();
+        tokens -= 1.0;
+        return tokens >= 0.0 ? 0L : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+
+    private synchronized void refund() {
+        refill();
+        tokens = Math.min(burst, tokens + 1.0);
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenBucket[requestsPerSecond=" + tokensPerNano * TimeUnit.SECONDS.toNanos(1)
+                + ", burst=" + burst + "]";
+    }
+}
@@ -0,0 +1,22 @@
+package com.trionix.maps.internal.concurrent;
+
+import com.trionix.maps.RateLimiter;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Rate limiter that never delays a request; a singleton so that tile sources
+ * without a rate limit still compare equal.
+ */
+public enum UnlimitedRateLimiter implements RateLimiter {
+    INSTANCE;
+
+    @Override
+    public CompletableFuture<Void> acquire() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimiter.unlimited()";
+    }
+}
@@ -1,6 +1,7 @@
 package com.trionix.maps.internal.interaction;
 
 import com.trionix.maps.MapView;
+import com.trionix.maps.internal.MapState;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.input.ScrollEvent;
@@ -10,25 +11,35 @@ import javafx.scene.input.ZoomEvent;
  * Handles user interaction events (drag, scroll, click, pinch) for MapView.
  * <p>
  * This class encapsulates all input event processing logic to keep MapView
- * focused on rendering and state management.
+ * focused on rendering and state management. While dragging it also tracks a
+ * smoothed pan velocity in the {@link MapState} so tile prefetching can look
+ * ahead in the direction of motion.
  */
 public final class MapInteractionHandler {
 
     private static final double SCROLL_ZOOM_STEP = 0.5;
     private static final double DOUBLE_CLICK_ZOOM_DELTA = 1.0;
+    /** Time constant of the exponential smoothing applied to drag velocity. */
+    private static final double VELOCITY_SMOOTHING_NANOS = 100_000_000.0;
 
     private final MapView mapView;
+    private final MapState mapState;
     private boolean dragging;
     private double lastDragX;
     private double lastDragY;
+    private long lastDragNanos;
+    private double velocityX;
+    private double velocityY;
 
     /**
      * Creates a new interaction handler for the specified MapView.
      *
-     * @param mapView the map view to handle interactions for
+     * @param mapView  the map view to handle interactions for
+     * @param mapState the view's state, which receives the pan velocity
      */
-    public MapInteractionHandler(MapView mapView) {
+    public MapInteractionHandler(MapView mapView, MapState mapState) {
         this.mapView = mapView;
+        this.mapState = mapState;
     }
 
     /**
@@ -54,6 +65,9 @@ public final class MapInteractionHandler {
         dragging = true;
         lastDragX = event.getX();
         lastDragY = event.getY();
+        lastDragNanos = System.nanoTime();
+        velocityX = 0.0;
+        velocityY = 0.0;
     }
 
     private void handleMouseDragged(MouseEvent event) {
@@ -64,11 +78,31 @@ public final class MapInteractionHandler {
         double deltaY = event.getY() - lastDragY;
         lastDragX = event.getX();
         lastDragY = event.getY();
+        updateVelocity(deltaX, deltaY);
         mapView.panByPixelsDelta(deltaX, deltaY);
     }
 
     private void handleMouseReleased(MouseEvent event) {
         dragging = false;
+        velocityX = 0.0;
+        velocityY = 0.0;
+        mapState.setPanVelocity(0.0, 0.0);
+    }
+
+    private void updateVelocity(double deltaX, double deltaY) {
+        long now = System.nanoTime();
+        long elapsed = now - lastDragNanos;
+        lastDragNanos = now;
+        if (elapsed <= 0) {
+            return;
+        }
+        // Dragging the content right moves the map center left
+        double instantX = -deltaX * 1e9 / elapsed;
+        double instantY = -deltaY * 1e9 / elapsed;
+        double weight = 1.0 - Math.exp(-elapsed / VELOCITY_SMOOTHING_NANOS);
+        velocityX += (instantX - velocityX) * weight;
+        velocityY += (instantY - velocityY) * weight;
+        mapState.setPanVelocity(velocityX, velocityY);
     }
 
     private void handleMouseClicked(MouseEvent event) {
@@ -22,6 +22,30 @@ public interface Projection {
      */
     PixelCoordinate latLonToPixel(double latitude, double longitude, int zoom);
 
+    /**
+     * Returns the global pixel X coordinate of a longitude without allocating a
+     * {@link PixelCoordinate}. Intended for per-frame rendering code.
+     *
+     * @param longitude longitude in degrees
+     * @param zoom      zoom level (integer, >= 0)
+     * @return global pixel X coordinate
+     */
+    default double longitudeToPixelX(double longitude, int zoom) {
+        return latLonToPixel(0.0, longitude, zoom).x();
+    }
+
+    /**
+     * Returns the global pixel Y coordinate of a latitude without allocating a
+     * {@link PixelCoordinate}. Intended for per-frame rendering code.
+     *
+     * @param latitude latitude in degrees
+     * @param zoom     zoom level (integer, >= 0)
+     * @return global pixel Y coordinate
+     */
+    default double latitudeToPixelY(double latitude, int zoom) {
+        return latLonToPixel(latitude, 0.0, zoom).y();
+    }
+
     /**
      * Converts global pixel coordinates to latitude/longitude.
      *
@@ -23,13 +23,21 @@ public final class WebMercatorProjection implements Projection {
 
     @Override
     public PixelCoordinate latLonToPixel(double latitude, double longitude, int zoom) {
-        double lat = Math.toRadians(clampLatitude(latitude));
+        return new PixelCoordinate(longitudeToPixelX(longitude, zoom), latitudeToPixelY(latitude, zoom));
+    }
+
+    @Override
+    public double longitudeToPixelX(double longitude, int zoom) {
         double lon = Math.toRadians(normalizeLongitude(longitude));
+        double scale = TILE_SIZE * Math.pow(2, zoom);
+        return (lon + Math.PI) / (2 * Math.PI) * scale;
+    }
 
+    @Override
+    public double latitudeToPixelY(double latitude, int zoom) {
+        double lat = Math.toRadians(clampLatitude(latitude));
         double scale = TILE_SIZE * Math.pow(2, zoom);
-        double x = (lon + Math.PI) / (2 * Math.PI) * scale;
-        double y = (1 - Math.log(Math.tan(lat) + 1 / Math.cos(lat)) / Math.PI) / 2 * scale;
-        return new PixelCoordinate(x, y);
+        return (1 - Math.log(Math.tan(lat) + 1 / Math.cos(lat)) / Math.PI) / 2 * scale;
     }
 
     @Override
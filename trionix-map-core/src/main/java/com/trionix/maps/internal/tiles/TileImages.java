@@ -0,0 +1,52 @@
+package com.trionix.maps.internal.tiles;
+
+import java.nio.ByteBuffer;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
+
+/**
+ * Converts decoded tiles to the pixel layout the renderer uploads without
+ * conversion.
+ *
+ * <p>A decoded opaque PNG or JPEG keeps the decoder's RGB layout, and JavaFX
+ * converts it to premultiplied BGRA when the image is first uploaded as a
+ * texture, on the FX thread in the middle of a frame. {@link #toRenderFormat(Image)}
+ * does that conversion on the calling (background) thread instead, at the
+ * price of 4 instead of 3 bytes per pixel. Whether that pays off depends on
+ * the graphics pipeline, so it is only applied to memory tiers that opt in.
+ */
+public final class TileImages {
+
+    private static final WritablePixelFormat<ByteBuffer> RENDER_FORMAT = PixelFormat.getByteBgraPreInstance();
+
+    private TileImages() {
+    }
+
+    /**
+     * Returns a copy of {@code image} in premultiplied BGRA, or {@code image}
+     * itself if it failed to load, is still loading, already uses that layout
+     * or is a {@link WritableImage} (whose pixels are stored that way).
+     */
+    public static Image toRenderFormat(Image image) {
+        if (image.isError() || image instanceof WritableImage || image.getProgress() < 1.0) {
+            return image;
+        }
+        PixelReader reader = image.getPixelReader();
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        if (reader == null || width <= 0 || height <= 0) {
+            return image;
+        }
+        if (reader.getPixelFormat().getType() == PixelFormat.Type.BYTE_BGRA_PRE) {
+            return image;
+        }
+        byte[] pixels = new byte[width * height * 4];
+        reader.getPixels(0, 0, width, height, RENDER_FORMAT, pixels, 0, width * 4);
+        WritableImage converted = new WritableImage(width, height);
+        converted.getPixelWriter().setPixels(0, 0, width, height, RENDER_FORMAT, pixels, 0, width * 4);
+        return converted;
+    }
+}
@@ -0,0 +1,71 @@
+package com.trionix.maps.internal.tiles;
+
+/**
+ * Packs slippy-map tile indices into a single {@code long} so hot paths can identify tiles
+ * without allocating key objects.
+ *
+ * <p>Layout (most significant bit first): 6 bits zoom, 29 bits x, 29 bits y. This covers every
+ * tile up to zoom level {@value #MAX_ZOOM}. Packed keys are always non-negative.
+ */
+public final class TileKey {
+
+    /** Highest zoom level whose tile indices fit into a packed key. */
+    public static final int MAX_ZOOM = 29;
+
+    private static final int INDEX_BITS = 29;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+    private TileKey() {
+    }
+
+    /**
+     * Returns whether the given tile indices fit into a packed key.
+     */
+    public static boolean isValid(int zoom, long x, long y) {
+        return zoom >= 0 && zoom <= MAX_ZOOM && (x & ~INDEX_MASK) == 0 && (y & ~INDEX_MASK) == 0;
+    }
+
+    /**
+     * Packs the given tile indices.
+     *
+     * @throws IllegalArgumentException if zoom is outside [0, {@value #MAX_ZOOM}] or an index is
+     *                                  outside [0, 2^29)
+     */
+    public static long pack(int zoom, long x, long y) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("zoom out of range: " + zoom);
+        }
+        if (!isValid(zoom, x, y)) {
+            throw new IllegalArgumentException("tile index out of range: " + x + "/" + y);
+        }
+        return ((long) zoom << (2 * INDEX_BITS)) | (x << INDEX_BITS) | y;
+    }
+
+    public static long of(TileCoordinate coordinate) {
+        return pack(coordinate.zoom(), coordinate.x(), coordinate.y());
+    }
+
+    public static int zoom(long key) {
+        return (int) (key >>> (2 * INDEX_BITS));
+    }
+
+    public static long x(long key) {
+        return (key >>> INDEX_BITS) & INDEX_MASK;
+    }
+
+    public static long y(long key) {
+        return key & INDEX_MASK;
+    }
+
+    public static TileCoordinate toCoordinate(long key) {
+        return new TileCoordinate(zoom(key), x(key), y(key));
+    }
+
+    /**
+     * Spreads the bits of a packed key for use as a hash-table index.
+     */
+    public static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
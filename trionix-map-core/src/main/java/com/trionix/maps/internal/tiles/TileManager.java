@@ -1,13 +1,32 @@
 package com.trionix.maps.internal.tiles;
 
+import com.trionix.maps.EncodedTile;
+import com.trionix.maps.EncodedTileRetriever;
+import com.trionix.maps.EncodedTileRetriever.Revalidation;
+import com.trionix.maps.RetryPolicy;
 import com.trionix.maps.TileCache;
+import com.trionix.maps.TieredTileCache;
+import com.trionix.maps.TileMetadata;
+import com.trionix.maps.TileRetrievalException;
 import com.trionix.maps.TileRetriever;
-import java.util.LinkedHashSet;
+import com.trionix.maps.internal.MapState;
+import com.trionix.maps.internal.concurrent.TileExecutors;
+import com.trionix.maps.internal.projection.Projection;
+import com.trionix.maps.internal.util.LongObjectHashMap;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import javafx.application.Platform;
 import javafx.scene.image.Image;
@@ -15,53 +34,339 @@ import javafx.scene.image.Image;
 /**
  * Coordinates cache lookups, asynchronous tile retrieval, and generation-based
  * invalidation to ensure only current tiles are rendered.
+ *
+ * <p>Missing tiles are not handed to the retriever immediately. They wait in a
+ * priority queue ordered by distance from the viewport focus, with tiles of the
+ * current zoom level ahead of tiles left over from other zoom levels, and at
+ * most {@code maxConcurrentLoads} requests are dispatched at a time. Every
+ * refresh moves the focus and re-ranks the waiting tiles, so the area the user
+ * is looking at fills first.
+ *
+ * <p>Each refresh also defines the set of tiles worth loading: queued loads
+ * that the refresh no longer asks for are dropped before they reach the
+ * retriever, and in-flight loads are cancelled via
+ * {@link CompletableFuture#cancel(boolean)} so retrievers can abort the
+ * underlying exchange. Callers that prefetch must therefore include their
+ * prefetch ring in the refreshed tile list.
+ *
+ * <p>{@link #refreshTiles(MapState, TileConsumer)} adds such a prefetch stage:
+ * a ring of {@link #setPrefetchMargin(int) margin} tiles around the viewport,
+ * stretched along the current pan velocity. Prefetch loads rank behind every
+ * visible tile and may occupy at most {@link #setPrefetchBudget(int) budget}
+ * request slots, so they never starve visible tiles. With
+ * {@link #setZoomPrefetchEnabled(boolean) zoom prefetch} enabled, the parents
+ * and children of the visible tiles are queued behind the ring as well; they
+ * share the prefetch budget and are only dispatched while no visible tile is
+ * loading.
+ *
+ * <p>Tiles read from the cache lookup stage are checked against their
+ * {@link TileMetadata}; once expired, they are revalidated through
+ * {@link EncodedTileRetriever#revalidateTile(int, long, long, TileMetadata)}.
+ * With {@link #setStaleWhileRevalidateEnabled(boolean) stale-while-revalidate}
+ * (the default) the stale tile is delivered at once and a changed tile replaces
+ * it when the background check completes; otherwise the load waits for the
+ * check, falling back to the stale tile if the source is unreachable.
+ *
+ * <p>Tiles whose load failed are remembered for a while so that refreshes,
+ * which run on every pan frame, do not request them again at once. Each
+ * further failure of the same tile doubles the wait (with jitter, up to
+ * {@link #MAX_FAILURE_BACKOFF}); a {@code Retry-After} reported through
+ * {@link TileRetrievalException#retryAfter()} replaces it, and tiles the
+ * source does not have are held back for {@link #NOT_FOUND_BACKOFF}.
+ *
+ * <p>Tiles loaded in the background are handed to their consumers in
+ * batches: each one is queued, and a single {@link Platform#runLater} drains
+ * everything that arrived before it runs, so a burst of completions costs one
+ * FX event rather than one per tile.
  */
 public final class TileManager {
 
+    /** Default number of tiles prefetched around each side of the viewport. */
+    public static final int DEFAULT_PREFETCH_MARGIN = 1;
+
+    /** How far ahead of a pan, in seconds of motion, the prefetch ring reaches. */
+    public static final double DEFAULT_PREFETCH_LOOKAHEAD_SECONDS = 0.5;
+
+    /** Wait before re-requesting a tile after its first failure, before jitter. */
+    public static final Duration MIN_FAILURE_BACKOFF = Duration.ofSeconds(1);
+
+    /** Longest wait before re-requesting a tile that keeps failing. */
+    public static final Duration MAX_FAILURE_BACKOFF = Duration.ofMinutes(1);
+
+    /** Wait before re-requesting a tile the source reported as missing. */
+    public static final Duration NOT_FOUND_BACKOFF = Duration.ofMinutes(5);
+
+    private static final RetryPolicy FAILURE_BACKOFF =
+            new RetryPolicy(Integer.MAX_VALUE, MIN_FAILURE_BACKOFF, MAX_FAILURE_BACKOFF);
+    // Expired entries are swept once the negative cache grows past this size
+    private static final int FAILED_TILES_SWEEP_THRESHOLD = 1024;
+
+    private static final int TIER_VISIBLE = 0;
+    private static final int TIER_STALE_ZOOM = 1;
+    private static final int TIER_PREFETCH = 2;
+    private static final int TIER_ZOOM_PYRAMID = 3;
+
     private final TileCache cache;
     private final TileRetriever retriever;
-    private final Map<TileCoordinate, Integer> pendingRequests = new ConcurrentHashMap<>();
+    private int maxConcurrentLoads;
+    // Packed tile key -> queued or in-flight load; guards the scheduling state below
+    private final LongObjectHashMap<TileLoad> pendingRequests = new LongObjectHashMap<>();
+    private final PriorityQueue<TileLoad> loadQueue = new PriorityQueue<>();
+    // Scratch list for collecting loads to cancel, reused to avoid allocating on every refresh
+    private final List<TileLoad> staleLoads = new ArrayList<>();
+    // Packed tile key -> recent failure, consulted before queueing a load
+    private final LongObjectHashMap<FailedTile> failedTiles = new LongObjectHashMap<>();
+    private int inFlightLoads;
+    private int inFlightBackgroundLoads;
+    private int prefetchBudget;
+    private int focusZoom;
+    private double focusX;
+    private double focusY;
+    private double aheadX;
+    private double aheadY;
+    private volatile int prefetchMargin = DEFAULT_PREFETCH_MARGIN;
+    private volatile double prefetchLookaheadSeconds = DEFAULT_PREFETCH_LOOKAHEAD_SECONDS;
+    private volatile boolean zoomPrefetchEnabled;
+    private volatile boolean staleWhileRevalidate = true;
+    // Keys of tiles with a background revalidation in flight, so each is checked once
+    private final Set<Long> revalidating = ConcurrentHashMap.newKeySet();
+    // Loaded tiles waiting for the FX thread, and whether a drain of them is already posted
+    private final ConcurrentLinkedQueue<Delivery> deliveries = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean deliveryPosted = new AtomicBoolean();
+    // Number of outstanding dispatch requests; only the caller that raises it from zero drains
+    private final AtomicInteger dispatchRequests = new AtomicInteger();
     private final AtomicInteger generationCounter = new AtomicInteger();
     private final AtomicInteger tileSourceVersion = new AtomicInteger();
     private volatile int currentGeneration;
 
     public TileManager(TileCache cache, TileRetriever retriever) {
-        this.cache = Objects.requireNonNull(cache, "cache");
+        this(cache, retriever, TileExecutors.maxConcurrentTiles());
+    }
+
+    /**
+     * Creates a manager that keeps at most {@code maxConcurrentLoads} tile
+     * requests in flight, queueing the rest by priority. A disk cache passed
+     * on its own is placed behind a small memory tier, see
+     * {@link TieredTileCache#withMemoryTier(TileCache)}.
+     */
+    public TileManager(TileCache cache, TileRetriever retriever, int maxConcurrentLoads) {
+        // A bare disk cache is never read by peek, so its tiles would not be drawn
+        this.cache = TieredTileCache.withMemoryTier(Objects.requireNonNull(cache, "cache"));
         this.retriever = Objects.requireNonNull(retriever, "retriever");
+        if (maxConcurrentLoads <= 0) {
+            throw new IllegalArgumentException("maxConcurrentLoads must be positive");
+        }
+        this.maxConcurrentLoads = maxConcurrentLoads;
+        this.prefetchBudget = Math.max(1, maxConcurrentLoads / 4);
     }
 
     public int currentGeneration() {
         return currentGeneration;
     }
 
+    public int getPrefetchMargin() {
+        return prefetchMargin;
+    }
+
+    /**
+     * Sets how many tiles beyond each viewport edge are prefetched; {@code 0}
+     * disables the ring while still prefetching along the pan direction.
+     */
+    public void setPrefetchMargin(int margin) {
+        if (margin < 0) {
+            throw new IllegalArgumentException("margin must not be negative");
+        }
+        this.prefetchMargin = margin;
+    }
+
+    public double getPrefetchLookaheadSeconds() {
+        return prefetchLookaheadSeconds;
+    }
+
+    /**
+     * Sets how many seconds of pan motion the prefetch ring extrapolates
+     * ahead of the viewport; {@code 0} disables directional prefetch.
+     */
+    public void setPrefetchLookaheadSeconds(double seconds) {
+        if (!(seconds >= 0.0) || Double.isInfinite(seconds)) {
+            throw new IllegalArgumentException("seconds must be finite and not negative");
+        }
+        this.prefetchLookaheadSeconds = seconds;
+    }
+
+    public boolean isZoomPrefetchEnabled() {
+        return zoomPrefetchEnabled;
+    }
+
+    /**
+     * Enables loading the parent (zoom - 1) and child (zoom + 1) tiles of the
+     * visible set in the background, so crossing a zoom level finds imagery in
+     * the cache. Disabled by default because the children alone are four times
+     * as many tiles as the visible set.
+     */
+    public void setZoomPrefetchEnabled(boolean enabled) {
+        this.zoomPrefetchEnabled = enabled;
+    }
+
+    public boolean isStaleWhileRevalidateEnabled() {
+        return staleWhileRevalidate;
+    }
+
+    /**
+     * Chooses whether an expired cached tile is delivered immediately and
+     * revalidated in the background (the default), or revalidated before it
+     * is delivered.
+     */
+    public void setStaleWhileRevalidateEnabled(boolean enabled) {
+        this.staleWhileRevalidate = enabled;
+    }
+
+    public int getMaxConcurrentLoads() {
+        synchronized (pendingRequests) {
+            return maxConcurrentLoads;
+        }
+    }
+
+    /**
+     * Sets how many tile requests may be in flight at once. Loads already in
+     * flight keep their slots when the limit shrinks.
+     */
+    public void setMaxConcurrentLoads(int maxConcurrentLoads) {
+        if (maxConcurrentLoads <= 0) {
+            throw new IllegalArgumentException("maxConcurrentLoads must be positive");
+        }
+        synchronized (pendingRequests) {
+            this.maxConcurrentLoads = maxConcurrentLoads;
+        }
+        dispatchQueuedLoads();
+    }
+
+    public int getPrefetchBudget() {
+        synchronized (pendingRequests) {
+            return prefetchBudget;
+        }
+    }
+
+    /**
+     * Sets how many request slots prefetch and zoom prefetch loads may occupy
+     * at once. Visible tiles can always use every slot.
+     */
+    public void setPrefetchBudget(int budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("budget must not be negative");
+        }
+        synchronized (pendingRequests) {
+            prefetchBudget = budget;
+        }
+        dispatchQueuedLoads();
+    }
+
+    /**
+     * Refreshes the visible tiles of the given map state and prefetches the
+     * ring around them, focusing loads on the viewport center and
+     * extrapolating the prefetch ring along the state's pan velocity. When
+     * zoom prefetch is enabled the adjacent zoom levels are queued too.
+     */
+    public int refreshTiles(MapState mapState, TileConsumer consumer) {
+        Objects.requireNonNull(mapState, "mapState");
+        double lookahead = prefetchLookaheadSeconds;
+        List<TileCoordinate> prefetch = mapState.prefetchTiles(prefetchMargin, lookahead);
+        List<TileCoordinate> pyramid = zoomPrefetchEnabled ? mapState.zoomPyramidTiles() : List.of();
+        double centerX = mapState.centerTileX();
+        double centerY = mapState.centerTileY();
+        double aheadTiles = lookahead / Projection.TILE_SIZE;
+        return refresh(mapState.visibleTiles(), prefetch, pyramid, mapState.discreteZoomLevel(),
+                centerX, centerY,
+                centerX + mapState.getPanVelocityX() * aheadTiles,
+                centerY + mapState.getPanVelocityY() * aheadTiles,
+                consumer);
+    }
+
+    /**
+     * Refreshes the visible tile set, prioritizing loads around the centroid of
+     * the desired tiles.
+     *
+     * @see #refreshTiles(List, int, double, double, TileConsumer)
+     */
+    public int refreshTiles(List<TileCoordinate> desiredTiles, TileConsumer consumer) {
+        Objects.requireNonNull(desiredTiles, "desiredTiles");
+        if (desiredTiles.isEmpty()) {
+            return refreshTiles(desiredTiles, focusZoom, focusX, focusY, consumer);
+        }
+        double sumX = 0.0;
+        double sumY = 0.0;
+        for (int i = 0; i < desiredTiles.size(); i++) {
+            TileCoordinate tile = desiredTiles.get(i);
+            sumX += tile.x() + 0.5;
+            sumY += tile.y() + 0.5;
+        }
+        int size = desiredTiles.size();
+        return refreshTiles(desiredTiles, desiredTiles.get(0).zoom(), sumX / size, sumY / size,
+                consumer);
+    }
+
     /**
      * Refreshes the visible tile set. Cached tiles are delivered immediately
-     * while missing tiles are loaded asynchronously. Returns the generation id
+     * while missing tiles are queued and loaded asynchronously, nearest to the
+     * focus point first. Pending loads for tiles absent from
+     * {@code desiredTiles} are cancelled. Returns the generation id
      * representing this refresh.
+     *
+     * <p>Duplicate coordinates are tolerated: a missing tile is only requested
+     * once, although a cached duplicate is delivered once per occurrence.
+     *
+     * @param zoom   zoom level the focus point is expressed in
+     * @param focusX horizontal focus position in fractional tile units
+     * @param focusY vertical focus position in fractional tile units
      */
-    public int refreshTiles(List<TileCoordinate> desiredTiles, TileConsumer consumer) {
+    public int refreshTiles(List<TileCoordinate> desiredTiles, int zoom, double focusX,
+            double focusY, TileConsumer consumer) {
+        return refresh(desiredTiles, List.of(), List.of(), zoom, focusX, focusY, focusX, focusY,
+                consumer);
+    }
+
+    private int refresh(List<TileCoordinate> desiredTiles, List<TileCoordinate> prefetchTiles,
+            List<TileCoordinate> pyramidTiles, int zoom, double focusX, double focusY, double aheadX, double aheadY,
+            TileConsumer consumer) {
         Objects.requireNonNull(desiredTiles, "desiredTiles");
         Objects.requireNonNull(consumer, "consumer");
         int generation = generationCounter.incrementAndGet();
         currentGeneration = generation;
+        updateFocus(zoom, focusX, focusY, aheadX, aheadY);
 
-        // Preserve iteration order but drop duplicates to avoid redundant loads.
-        Set<TileCoordinate> uniqueTiles = new LinkedHashSet<>(desiredTiles);
-        for (TileCoordinate coordinate : uniqueTiles) {
-            Image cached = cache.get(coordinate.zoom(), coordinate.x(), coordinate.y());
+        for (int i = 0; i < desiredTiles.size(); i++) {
+            TileCoordinate coordinate = desiredTiles.get(i);
+            Image cached = cache.peek(coordinate.zoom(), coordinate.x(), coordinate.y());
             if (cached != null) {
                 deliverOnFxThread(coordinate, cached, consumer);
                 continue;
             }
-            scheduleLoad(coordinate, generation, consumer);
+            enqueueLoad(coordinate, TIER_VISIBLE, generation, consumer);
         }
+        enqueueMissing(prefetchTiles, TIER_PREFETCH, generation, consumer);
+        enqueueMissing(pyramidTiles, TIER_ZOOM_PYRAMID, generation, consumer);
+        cancelLoadsNotRequestedBy(generation);
+        dispatchQueuedLoads();
         return generation;
     }
 
-    /** Returns the cached tile image if available, otherwise {@code null}. */
+    /**
+     * Returns the cached tile image if it is available without blocking I/O,
+     * otherwise {@code null}. Safe to call on the JavaFX Application Thread.
+     */
     public Image cachedTile(TileCoordinate coordinate) {
         Objects.requireNonNull(coordinate, "coordinate");
-        return cache.get(coordinate.zoom(), coordinate.x(), coordinate.y());
+        return cache.peek(coordinate.zoom(), coordinate.x(), coordinate.y());
+    }
+
+    /**
+     * Returns the cached tile image for the given indices if available
+     * without blocking I/O, otherwise {@code null}; unlike
+     * {@link #cachedTile(TileCoordinate)} this does not require a coordinate
+     * object.
+     */
+    public Image cachedTile(int zoom, long x, long y) {
+        return cache.peek(zoom, x, y);
     }
 
     public void clearCache() {
@@ -69,54 +374,552 @@ public final class TileManager {
     }
 
     public void resetForTileSourceChange() {
-        pendingRequests.clear();
+        List<TileLoad> abandoned;
+        synchronized (pendingRequests) {
+            abandoned = new ArrayList<>(pendingRequests.size());
+            pendingRequests.forEach((key, load) -> abandoned.add(load));
+            pendingRequests.clear();
+            loadQueue.clear();
+            failedTiles.clear();
+        }
         currentGeneration = generationCounter.incrementAndGet();
         tileSourceVersion.incrementAndGet();
+        for (int i = 0; i < abandoned.size(); i++) {
+            abandoned.get(i).cancel();
+        }
+    }
+
+    /** Returns the number of tiles held back after a failed load, including expired entries. */
+    public int failedTileCount() {
+        synchronized (pendingRequests) {
+            return failedTiles.size();
+        }
+    }
+
+    /** Forgets failed loads, so every missing tile is requested again by the next refresh. */
+    public void clearFailedTiles() {
+        synchronized (pendingRequests) {
+            failedTiles.clear();
+        }
+    }
+
+    /** Returns the number of tile loads waiting for a free request slot. */
+    public int queuedLoadCount() {
+        synchronized (pendingRequests) {
+            return loadQueue.size();
+        }
     }
 
-    private void scheduleLoad(TileCoordinate coordinate, int generation, TileConsumer consumer) {
+    private void updateFocus(int zoom, double x, double y, double predictedX, double predictedY) {
+        synchronized (pendingRequests) {
+            if (zoom == focusZoom && x == focusX && y == focusY
+                    && predictedX == aheadX && predictedY == aheadY) {
+                return;
+            }
+            focusZoom = zoom;
+            focusX = x;
+            focusY = y;
+            aheadX = predictedX;
+            aheadY = predictedY;
+            if (loadQueue.isEmpty()) {
+                return;
+            }
+            // Priorities depend on the focus, so re-rank every waiting load and rebuild the heap
+            TileLoad[] waiting = loadQueue.toArray(new TileLoad[0]);
+            loadQueue.clear();
+            for (TileLoad load : waiting) {
+                rank(load);
+                loadQueue.add(load);
+            }
+        }
+    }
+
+    /** Queues background loads for the tiles that are not cached yet. */
+    private void enqueueMissing(List<TileCoordinate> tiles, int requestedTier, int generation,
+            TileConsumer consumer) {
+        for (int i = 0; i < tiles.size(); i++) {
+            TileCoordinate coordinate = tiles.get(i);
+            if (cache.peek(coordinate.zoom(), coordinate.x(), coordinate.y()) == null) {
+                enqueueLoad(coordinate, requestedTier, generation, consumer);
+            }
+        }
+    }
+
+    private void enqueueLoad(TileCoordinate coordinate, int requestedTier, int generation,
+            TileConsumer consumer) {
+        long key = TileKey.of(coordinate);
         int sourceVersion = tileSourceVersion.get();
-        if (pendingRequests.putIfAbsent(coordinate, sourceVersion) != null) {
-            return; // Skip duplicate request
+        synchronized (pendingRequests) {
+            TileLoad pending = pendingRequests.get(key);
+            if (pending != null) {
+                pending.requestedGeneration = generation; // Reuse the pending request
+                if (pending.requestedTier != requestedTier && !pending.dispatched) {
+                    // Prefetched tile scrolled into view (or out of it): move it to its new tier
+                    loadQueue.remove(pending);
+                    pending.requestedTier = requestedTier;
+                    rank(pending);
+                    loadQueue.add(pending);
+                }
+                return;
+            }
+            if (!failedTiles.isEmpty() && isBackingOff(key)) {
+                return;
+            }
+            TileLoad load = new TileLoad(key, coordinate, sourceVersion, consumer);
+            load.requestedGeneration = generation;
+            load.requestedTier = requestedTier;
+            pendingRequests.put(key, load);
+            rank(load);
+            loadQueue.add(load);
         }
+    }
 
-        // Use the retriever's async method directly
-        retriever.loadTile(coordinate.zoom(), coordinate.x(), coordinate.y())
-                .whenComplete((image, error) -> {
-                    // Always remove from pending requests
-                    pendingRequests.remove(coordinate, sourceVersion);
+    /** Returns whether the tile failed recently enough to skip it; must hold the lock. */
+    private boolean isBackingOff(long key) {
+        FailedTile failed = failedTiles.get(key);
+        return failed != null && System.nanoTime() - failed.retryAtNanos < 0;
+    }
 
-                    if (error != null) {
-                        return;
-                    }
+    /**
+     * Remembers a failed load so refreshes leave the tile alone until its
+     * backoff has passed. Cancellations are not failures.
+     */
+    private void recordFailure(TileLoad load, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        if (cause instanceof CancellationException || load.cancelled
+                || load.sourceVersion != tileSourceVersion.get()) {
+            return;
+        }
+        long now = System.nanoTime();
+        synchronized (pendingRequests) {
+            if (failedTiles.size() >= FAILED_TILES_SWEEP_THRESHOLD) {
+                sweepFailedTiles(now);
+            }
+            FailedTile failed = failedTiles.get(load.key);
+            if (failed == null) {
+                failed = new FailedTile();
+                failedTiles.put(load.key, failed);
+            }
+            failed.failures++;
+            failed.retryAtNanos = now + backoffAfter(cause, failed.failures).toNanos();
+        }
+    }
 
-                    if (sourceVersion != tileSourceVersion.get()) {
-                        return;
-                    }
+    private static Duration backoffAfter(Throwable cause, int failures) {
+        if (cause instanceof NoSuchElementException) {
+            return NOT_FOUND_BACKOFF;
+        }
+        if (cause instanceof TileRetrievalException retrieval) {
+            if (retrieval.isNotFound()) {
+                return NOT_FOUND_BACKOFF;
+            }
+            if (retrieval.retryAfter() != null) {
+                return retrieval.retryAfter();
+            }
+        }
+        return FAILURE_BACKOFF.backoff(failures);
+    }
+
+    private void sweepFailedTiles(long now) {
+        List<Long> expired = new ArrayList<>();
+        failedTiles.forEach((key, failed) -> {
+            if (now - failed.retryAtNanos >= 0) {
+                expired.add(key);
+            }
+        });
+        for (int i = 0; i < expired.size(); i++) {
+            failedTiles.remove(expired.get(i));
+        }
+    }
 
-                    if (image != null && !image.isError()) {
-                        // Cache the tile
-                        cache.put(coordinate.zoom(), coordinate.x(), coordinate.y(), image);
-                        // Deliver to UI - even if generation changed, the MapView will
-                        // use cached tiles during redraw and ignore tiles not in the
-                        // current visible set
-                        deliverOnFxThread(coordinate, image, consumer);
+    /**
+     * Drops queued loads and cancels in-flight loads that the given refresh
+     * did not ask for. Cancellation runs outside the lock because completion
+     * handlers re-enter it.
+     */
+    private void cancelLoadsNotRequestedBy(int generation) {
+        TileLoad[] cancelled;
+        synchronized (pendingRequests) {
+            pendingRequests.forEach((key, load) -> {
+                if (load.requestedGeneration != generation) {
+                    staleLoads.add(load);
+                }
+            });
+            if (staleLoads.isEmpty()) {
+                return;
+            }
+            for (int i = 0; i < staleLoads.size(); i++) {
+                TileLoad load = staleLoads.get(i);
+                pendingRequests.remove(load.key);
+                if (!load.dispatched) {
+                    loadQueue.remove(load);
+                }
+            }
+            cancelled = staleLoads.toArray(new TileLoad[0]);
+            staleLoads.clear();
+        }
+        for (TileLoad load : cancelled) {
+            load.cancel();
+        }
+    }
+
+    private void rank(TileLoad load) {
+        TileCoordinate tile = load.coordinate;
+        int zoomDelta = tile.zoom() - focusZoom;
+        // Project the focus onto the tile's zoom level so stale tiles are still ordered sensibly;
+        // prefetch tiles are ordered around the predicted center so the pan direction comes first
+        boolean prefetch = load.requestedTier == TIER_PREFETCH;
+        double centerX = Math.scalb(prefetch ? aheadX : focusX, zoomDelta);
+        double centerY = Math.scalb(prefetch ? aheadY : focusY, zoomDelta);
+        double tileCount = Math.scalb(1.0, tile.zoom());
+        double dx = Math.abs(tile.x() + 0.5 - centerX) % tileCount;
+        dx = Math.min(dx, tileCount - dx); // shortest distance across the antimeridian
+        double dy = tile.y() + 0.5 - centerY;
+        load.tier = load.requestedTier != TIER_VISIBLE ? load.requestedTier
+                : zoomDelta != 0 ? TIER_STALE_ZOOM : TIER_VISIBLE;
+        load.distance = dx * dx + dy * dy;
+    }
+
+    /**
+     * Hands queued loads to the retriever while request slots are free. Calls
+     * made while another thread (or a synchronous completion) is already
+     * draining are folded into that drain loop instead of recursing.
+     */
+    private void dispatchQueuedLoads() {
+        if (dispatchRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (true) {
+                TileLoad load;
+                synchronized (pendingRequests) {
+                    if (inFlightLoads >= maxConcurrentLoads) {
+                        break;
                     }
-                });
+                    load = loadQueue.peek();
+                    // Background loads rank last, so a blocked background head means only
+                    // background work is left
+                    if (load == null || !mayDispatch(load)) {
+                        break;
+                    }
+                    loadQueue.poll();
+                    load.dispatched = true;
+                    load.background = load.requestedTier != TIER_VISIBLE;
+                    inFlightLoads++;
+                    if (load.background) {
+                        inFlightBackgroundLoads++;
+                    }
+                }
+                startLoad(load);
+            }
+            missed = dispatchRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /** Applies the prefetch budget and holds zoom prefetch back until no visible tile loads. */
+    private boolean mayDispatch(TileLoad load) {
+        if (load.requestedTier == TIER_VISIBLE) {
+            return true;
+        }
+        if (inFlightBackgroundLoads >= prefetchBudget) {
+            return false;
+        }
+        return load.requestedTier != TIER_ZOOM_PYRAMID || inFlightLoads == inFlightBackgroundLoads;
+    }
+
+    /**
+     * Runs the cache lookup stage of a load: tiers that were skipped by the
+     * non-blocking {@link TileCache#peek(int, long, long) peek} (such as disk
+     * caches) are read off the FX thread, and only a miss goes on to the
+     * retriever. The load keeps its request slot throughout.
+     */
+    private void startLoad(TileLoad load) {
+        TileCoordinate coordinate = load.coordinate;
+        CompletableFuture<Image> lookup;
+        if (load.cancelled) {
+            lookup = CompletableFuture.failedFuture(new CancellationException());
+        } else {
+            try {
+                lookup = cache.getAsync(coordinate.zoom(), coordinate.x(), coordinate.y());
+            } catch (RuntimeException e) {
+                lookup = CompletableFuture.completedFuture(null);
+            }
+        }
+        load.future = lookup;
+        if (load.cancelled) {
+            lookup.cancel(true);
+        }
+        lookup.whenComplete((image, error) -> {
+            if (load.cancelled || error instanceof CancellationException) {
+                finishLoad(load, null, new CancellationException(), true);
+            } else if (error == null && image != null && !image.isError()) {
+                if (retriever instanceof EncodedTileRetriever encodedRetriever) {
+                    // Metadata may have to be read from disk, so check it off the completing thread
+                    TileExecutors.tileExecutor().execute(() -> checkFreshness(load, image, encodedRetriever));
+                } else {
+                    finishLoad(load, image, null, true);
+                }
+            } else {
+                // Cache miss or unreadable cache entry
+                fetchTile(load);
+            }
+        });
+    }
+
+    /**
+     * Delivers a cached tile that is still fresh, or revalidates an expired one
+     * in the background or, without stale-while-revalidate, before delivery.
+     */
+    private void checkFreshness(TileLoad load, Image image, EncodedTileRetriever encodedRetriever) {
+        TileCoordinate coordinate = load.coordinate;
+        TileMetadata metadata;
+        try {
+            metadata = cache.metadata(coordinate.zoom(), coordinate.x(), coordinate.y());
+        } catch (RuntimeException e) {
+            metadata = null;
+        }
+        if (load.cancelled) {
+            finishLoad(load, null, new CancellationException(), true);
+            return;
+        }
+        if (metadata == null || !metadata.isExpired(Instant.now())) {
+            finishLoad(load, image, null, true);
+            return;
+        }
+        if (staleWhileRevalidate) {
+            finishLoad(load, image, null, true);
+            revalidateInBackground(load, metadata, encodedRetriever);
+            return;
+        }
+        CompletableFuture<Revalidation> future;
+        try {
+            future = encodedRetriever.revalidateTile(coordinate.zoom(), coordinate.x(), coordinate.y(), metadata);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        load.future = future;
+        if (load.cancelled) {
+            future.cancel(true);
+        }
+        future.whenComplete((revalidation, error) -> {
+            if (load.cancelled || error instanceof CancellationException) {
+                finishLoad(load, null, new CancellationException(), true);
+            } else if (error != null) {
+                finishLoad(load, image, null, true); // Serve the stale tile while the source is unreachable
+            } else if (revalidation.isModified()) {
+                finishLoad(load, revalidation.tile(), null, false);
+            } else {
+                updateMetadata(coordinate, revalidation.metadata());
+                finishLoad(load, image, null, true);
+            }
+        });
+    }
+
+    /**
+     * Revalidates a stale tile that has already been delivered, replacing it if
+     * it changed. Runs outside the request slots; the retriever's own limits
+     * apply.
+     */
+    private void revalidateInBackground(TileLoad load, TileMetadata metadata,
+            EncodedTileRetriever encodedRetriever) {
+        if (!revalidating.add(load.key)) {
+            return;
+        }
+        TileCoordinate coordinate = load.coordinate;
+        CompletableFuture<Revalidation> future;
+        try {
+            future = encodedRetriever.revalidateTile(coordinate.zoom(), coordinate.x(), coordinate.y(), metadata);
+        } catch (RuntimeException e) {
+            revalidating.remove(load.key);
+            return;
+        }
+        future.whenComplete((revalidation, error) -> {
+            revalidating.remove(load.key);
+            if (error != null || load.sourceVersion != tileSourceVersion.get()) {
+                return;
+            }
+            if (revalidation.isModified()) {
+                EncodedTile tile = revalidation.tile();
+                try {
+                    cache.putEncoded(coordinate.zoom(), coordinate.x(), coordinate.y(), tile);
+                } catch (RuntimeException e) {
+                    // Still deliver the fresh tile
+                }
+                deliverOnFxThread(coordinate, tile.image(), load.consumer);
+            } else {
+                updateMetadata(coordinate, revalidation.metadata());
+            }
+        });
+    }
+
+    private void updateMetadata(TileCoordinate coordinate, TileMetadata metadata) {
+        try {
+            cache.updateMetadata(coordinate.zoom(), coordinate.x(), coordinate.y(), metadata);
+        } catch (RuntimeException e) {
+            // The tile is revalidated again next time
+        }
+    }
+
+    private void fetchTile(TileLoad load) {
+        TileCoordinate coordinate = load.coordinate;
+        CompletableFuture<?> future;
+        try {
+            // Prefer the encoded payload so disk caches can store it without re-encoding
+            future = retriever instanceof EncodedTileRetriever encodedRetriever
+                    ? encodedRetriever.loadEncodedTile(coordinate.zoom(), coordinate.x(), coordinate.y())
+                    : retriever.loadTile(coordinate.zoom(), coordinate.x(), coordinate.y());
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        load.future = future;
+        if (load.cancelled) {
+            future.cancel(true); // Cancelled while the retriever was being called
+        }
+        future.whenComplete((result, error) -> finishLoad(load, result, error, false));
+    }
+
+    /**
+     * Frees the load's request slot and, on success, caches and delivers the
+     * tile. {@code result} is an {@link Image} read from the cache, or the
+     * retriever's {@link Image} or {@link EncodedTile}.
+     *
+     * @param fromCache whether the result came from the cache lookup stage
+     *                  and therefore must not be stored again
+     */
+    private void finishLoad(TileLoad load, Object result, Throwable error, boolean fromCache) {
+        // Always remove from pending requests and free the request slot
+        synchronized (pendingRequests) {
+            pendingRequests.remove(load.key, load);
+            inFlightLoads--;
+            if (load.background) {
+                inFlightBackgroundLoads--;
+            }
+        }
+        dispatchQueuedLoads();
+
+        if (error != null) {
+            recordFailure(load, error);
+            return;
+        }
+
+        if (load.sourceVersion != tileSourceVersion.get()) {
+            return;
+        }
+
+        TileCoordinate coordinate = load.coordinate;
+        Image image = result instanceof EncodedTile tile ? tile.image() : (Image) result;
+        if (image != null && !image.isError()) {
+            if (!fromCache) {
+                synchronized (pendingRequests) {
+                    failedTiles.remove(load.key);
+                }
+            }
+            // Cache the tile
+            if (result instanceof EncodedTile tile) {
+                cache.putEncoded(coordinate.zoom(), coordinate.x(), coordinate.y(), tile);
+            } else if (!fromCache) {
+                cache.put(coordinate.zoom(), coordinate.x(), coordinate.y(), image);
+            }
+            // Deliver to UI - even if generation changed, the MapView will
+            // use cached tiles during redraw and ignore tiles not in the
+            // current visible set
+            deliverOnFxThread(coordinate, image, load.consumer);
+        }
     }
 
     private void deliverOnFxThread(TileCoordinate coordinate, Image image,
             TileConsumer consumer) {
-        Runnable delivery = () -> consumer.onTileLoaded(coordinate, image);
-        if (Platform.isFxApplicationThread()) {
-            delivery.run();
-        } else {
-            Platform.runLater(delivery);
+        if (Platform.isFxApplicationThread() && deliveries.isEmpty()) {
+            consumer.onTileLoaded(coordinate, image);
+            return;
+        }
+        deliveries.add(new Delivery(coordinate, image, consumer));
+        if (deliveryPosted.compareAndSet(false, true)) {
+            Platform.runLater(this::drainDeliveries);
+        }
+    }
+
+    /**
+     * Hands every queued tile to its consumer. The flag is cleared first, so a
+     * tile queued after the last poll posts a new drain instead of being
+     * stranded.
+     *
+     * <p>Draining per {@code runLater} rather than per pulse is enough: the
+     * map's consumers only mark their canvas dirty, and the actual redraw runs
+     * once per pulse from their redraw timer, however many drains ran since.
+     */
+    private void drainDeliveries() {
+        deliveryPosted.set(false);
+        Delivery delivery;
+        while ((delivery = deliveries.poll()) != null) {
+            delivery.consumer().onTileLoaded(delivery.coordinate(), delivery.image());
         }
     }
 
+    /** Returns the number of loaded tiles waiting to be handed to their consumers. */
+    int pendingDeliveryCount() {
+        return deliveries.size();
+    }
+
+    private record Delivery(TileCoordinate coordinate, Image image, TileConsumer consumer) {
+    }
+
+    /** Negative cache entry of a tile; guarded by the manager's {@code pendingRequests} lock. */
+    private static final class FailedTile {
+        int failures;
+        long retryAtNanos;
+    }
+
     @FunctionalInterface
     public interface TileConsumer {
         void onTileLoaded(TileCoordinate coordinate, Image image);
     }
+
+    /**
+     * Pending tile load. While queued it is ordered by its rank against the
+     * current focus; once dispatched it holds the retriever's future. Mutable
+     * scheduling fields are guarded by the manager's {@code pendingRequests}
+     * lock; the cancellation handshake uses volatile fields instead.
+     */
+    private static final class TileLoad implements Comparable<TileLoad> {
+        final long key;
+        final TileCoordinate coordinate;
+        final int sourceVersion;
+        final TileConsumer consumer;
+        int requestedGeneration;
+        int requestedTier;
+        int tier;
+        double distance;
+        boolean dispatched;
+        boolean background;
+        volatile CompletableFuture<?> future;
+        volatile boolean cancelled;
+
+        TileLoad(long key, TileCoordinate coordinate, int sourceVersion, TileConsumer consumer) {
+            this.key = key;
+            this.coordinate = coordinate;
+            this.sourceVersion = sourceVersion;
+            this.consumer = consumer;
+        }
+
+        /** Cancels the in-flight request, if any; must be called without holding the lock. */
+        void cancel() {
+            cancelled = true;
+            CompletableFuture<?> inFlight = future;
+            if (inFlight != null) {
+                inFlight.cancel(true);
+            }
+        }
+
+        @Override
+        public int compareTo(TileLoad other) {
+            if (tier != other.tier) {
+                return Integer.compare(tier, other.tier);
+            }
+            return Double.compare(distance, other.distance);
+        }
+    }
 }
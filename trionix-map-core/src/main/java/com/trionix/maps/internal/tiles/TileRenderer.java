@@ -0,0 +1,133 @@
+package com.trionix.maps.internal.tiles;
+
+import com.trionix.maps.internal.MapState;
+import com.trionix.maps.internal.projection.Projection;
+import java.util.List;
+import java.util.Objects;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+
+/**
+ * Render stage shared by {@code MapView} and {@code TileLayer} that paints the
+ * visible tiles onto a canvas.
+ *
+ * <p>Drawing a frame performs no heap allocation: projection math uses the
+ * primitive {@link Projection} accessors, tiles are iterated by index and cache
+ * lookups use packed keys. Panning without crossing a tile boundary therefore
+ * produces no garbage on the JavaFX Application Thread.
+ *
+ * <p>Tiles missing from the cache are drawn from whatever related imagery is
+ * cached, without issuing any request: a complete set of children (zoom + 1)
+ * is drawn as a mosaic, otherwise the nearest cached ancestor (up to
+ * {@value #MAX_ANCESTOR_DEPTH} levels out) is scaled up, and only if neither
+ * exists the placeholder is shown, overlaid with any children that are cached.
+ */
+public final class TileRenderer {
+
+    /** How many zoom levels out the renderer searches for an ancestor tile. */
+    public static final int MAX_ANCESTOR_DEPTH = 4;
+
+    private static final Image PLACEHOLDER = PlaceholderTileFactory.placeholder();
+
+    private final TileManager tileManager;
+
+    public TileRenderer(TileManager tileManager) {
+        this.tileManager = Objects.requireNonNull(tileManager, "tileManager");
+    }
+
+    /**
+     * Clears the canvas area and draws the given tiles positioned relative to
+     * the map center, substituting cached ancestor or child imagery, or a
+     * placeholder, for tiles that are not cached.
+     */
+    public void render(GraphicsContext graphics, Projection projection, MapState mapState,
+            List<TileCoordinate> tiles, double width, double height) {
+        graphics.clearRect(0.0, 0.0, width, height);
+        if (tiles.isEmpty()) {
+            return;
+        }
+        int zoomLevel = mapState.discreteZoomLevel();
+        double centerPixelX = projection.longitudeToPixelX(mapState.getCenterLon(), zoomLevel);
+        double centerPixelY = projection.latitudeToPixelY(mapState.getCenterLat(), zoomLevel);
+        double halfWidth = width / 2.0;
+        double halfHeight = height / 2.0;
+        double tileSize = Projection.TILE_SIZE;
+
+        for (int i = 0; i < tiles.size(); i++) {
+            TileCoordinate tile = tiles.get(i);
+            double screenX = tile.x() * tileSize - centerPixelX + halfWidth;
+            double screenY = tile.y() * tileSize - centerPixelY + halfHeight;
+            Image cached = tileManager.cachedTile(tile.zoom(), tile.x(), tile.y());
+            if (cached != null) {
+                graphics.drawImage(cached, screenX, screenY, tileSize, tileSize);
+            } else {
+                drawFallback(graphics, tile, screenX, screenY, tileSize);
+            }
+        }
+    }
+
+    private void drawFallback(GraphicsContext graphics, TileCoordinate tile, double screenX,
+            double screenY, double tileSize) {
+        int zoom = tile.zoom();
+        long x = tile.x();
+        long y = tile.y();
+        double half = tileSize / 2.0;
+
+        Image topLeft = null;
+        Image topRight = null;
+        Image bottomLeft = null;
+        Image bottomRight = null;
+        if (zoom < TileKey.MAX_ZOOM) {
+            long childX = x << 1;
+            long childY = y << 1;
+            topLeft = tileManager.cachedTile(zoom + 1, childX, childY);
+            topRight = tileManager.cachedTile(zoom + 1, childX + 1, childY);
+            bottomLeft = tileManager.cachedTile(zoom + 1, childX, childY + 1);
+            bottomRight = tileManager.cachedTile(zoom + 1, childX + 1, childY + 1);
+        }
+        boolean allChildren = topLeft != null && topRight != null
+                && bottomLeft != null && bottomRight != null;
+        if (!allChildren && drawAncestor(graphics, zoom, x, y, screenX, screenY, tileSize)) {
+            return;
+        }
+        if (!allChildren) {
+            graphics.drawImage(PLACEHOLDER, screenX, screenY, tileSize, tileSize);
+        }
+        drawChild(graphics, topLeft, screenX, screenY, half);
+        drawChild(graphics, topRight, screenX + half, screenY, half);
+        drawChild(graphics, bottomLeft, screenX, screenY + half, half);
+        drawChild(graphics, bottomRight, screenX + half, screenY + half, half);
+    }
+
+    /**
+     * Draws the matching sub-rectangle of the nearest cached ancestor scaled up
+     * to the tile's bounds.
+     *
+     * @return {@code true} if an ancestor was found
+     */
+    private boolean drawAncestor(GraphicsContext graphics, int zoom, long x, long y,
+            double screenX, double screenY, double tileSize) {
+        int maxDepth = Math.min(MAX_ANCESTOR_DEPTH, zoom);
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            Image ancestor = tileManager.cachedTile(zoom - depth, x >> depth, y >> depth);
+            if (ancestor == null) {
+                continue;
+            }
+            long mask = (1L << depth) - 1;
+            double sourceWidth = ancestor.getWidth() / (1L << depth);
+            double sourceHeight = ancestor.getHeight() / (1L << depth);
+            graphics.drawImage(ancestor,
+                    (x & mask) * sourceWidth, (y & mask) * sourceHeight, sourceWidth, sourceHeight,
+                    screenX, screenY, tileSize, tileSize);
+            return true;
+        }
+        return false;
+    }
+
+    private static void drawChild(GraphicsContext graphics, Image child, double screenX,
+            double screenY, double size) {
+        if (child != null) {
+            graphics.drawImage(child, screenX, screenY, size, size);
+        }
+    }
+}
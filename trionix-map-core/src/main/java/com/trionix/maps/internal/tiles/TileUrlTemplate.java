@@ -0,0 +1,121 @@
+package com.trionix.maps.internal.tiles;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiled tile URL template with {@code {z}}, {@code {x}} and {@code {y}}
+ * placeholders and an optional {@code {s}} placeholder for one of several
+ * hosts. A plain base URL without placeholders stands for
+ * {@code <base>{z}/{x}/{y}.png}. Templates are split into literal and
+ * placeholder parts once, so expanding one per tile request costs a single
+ * string build.
+ */
+public final class TileUrlTemplate {
+
+    private static final String DEFAULT_PATH = "{z}/{x}/{y}.png";
+    private static final List<String> PLACEHOLDERS = List.of("{z}", "{x}", "{y}", "{s}");
+
+    private final String[] literals;
+    // Placeholder between literals[i] and literals[i + 1]: 'z', 'x', 'y' or 's'
+    private final char[] placeholders;
+    private final List<String> hosts;
+
+    private TileUrlTemplate(String[] literals, char[] placeholders, List<String> hosts) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.hosts = hosts;
+    }
+
+    /** Returns whether {@code url} contains any tile placeholder. */
+    public static boolean isTemplate(String url) {
+        for (String placeholder : PLACEHOLDERS) {
+            if (url.contains(placeholder)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compiles {@code url}, a template or a base URL ending in {@code /}, to
+     * be expanded with the given {@code {s}} values.
+     *
+     * @throws IllegalArgumentException if a coordinate placeholder is missing,
+     *                                  {@code {s}} and {@code subdomains} do not
+     *                                  come together, or an expansion is not a
+     *                                  valid URI
+     */
+    public static TileUrlTemplate compile(String url, List<String> subdomains) {
+        String template = isTemplate(url) ? url : url + DEFAULT_PATH;
+        List<String> literals = new ArrayList<>();
+        StringBuilder placeholders = new StringBuilder();
+        int start = 0;
+        int open = template.indexOf('{');
+        while (open >= 0) {
+            int end = open + 3;
+            if (end <= template.length() && PLACEHOLDERS.contains(template.substring(open, end))) {
+                literals.add(template.substring(start, open));
+                placeholders.append(template.charAt(open + 1));
+                start = end;
+                open = template.indexOf('{', end);
+            } else {
+                open = template.indexOf('{', open + 1);
+            }
+        }
+        literals.add(template.substring(start));
+        String kinds = placeholders.toString();
+        if (kinds.indexOf('z') < 0 || kinds.indexOf('x') < 0 || kinds.indexOf('y') < 0) {
+            throw new IllegalArgumentException("urlTemplate must contain {z}, {x} and {y}");
+        }
+        boolean sharded = kinds.indexOf('s') >= 0;
+        if (sharded && subdomains.isEmpty()) {
+            throw new IllegalArgumentException("{s} placeholder requires subdomains");
+        }
+        if (!sharded && !subdomains.isEmpty()) {
+            throw new IllegalArgumentException("subdomains require an {s} placeholder");
+        }
+        for (String subdomain : subdomains) {
+            if (subdomain.isBlank()) {
+                throw new IllegalArgumentException("subdomains must not be blank");
+            }
+        }
+        TileUrlTemplate compiled = new TileUrlTemplate(literals.toArray(new String[0]), kinds.toCharArray(),
+                List.copyOf(subdomains));
+        for (int host = 0; host < compiled.hostCount(); host++) {
+            URI.create(compiled.expand(0, 0, 0, host));
+        }
+        return compiled;
+    }
+
+    /** Returns how many hosts tiles can be spread over; at least one. */
+    public int hostCount() {
+        return Math.max(1, hosts.size());
+    }
+
+    /**
+     * Returns the host a tile is assigned to when tiles are spread by
+     * position: neighboring tiles alternate, and a tile always maps to the
+     * same host so that HTTP caches along the way stay effective.
+     */
+    public int hostFor(long x, long y) {
+        return (int) Math.floorMod(x + y, (long) hostCount());
+    }
+
+    /** Returns the URL of a tile on the given host. */
+    public String expand(int zoom, long x, long y, int host) {
+        StringBuilder url = new StringBuilder(literals[0].length() + 32);
+        url.append(literals[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            switch (placeholders[i]) {
+                case 'z' -> url.append(zoom);
+                case 'x' -> url.append(x);
+                case 'y' -> url.append(y);
+                default -> url.append(hosts.get(host));
+            }
+            url.append(literals[i + 1]);
+        }
+        return url.toString();
+    }
+}
@@ -4,16 +4,16 @@ import com.trionix.maps.MapView;
 import com.trionix.maps.TileCache;
 import com.trionix.maps.TileRetriever;
 import com.trionix.maps.internal.MapState;
-import com.trionix.maps.internal.projection.Projection;
 import com.trionix.maps.internal.tiles.TileCoordinate;
+import com.trionix.maps.internal.tiles.TileKey;
 import com.trionix.maps.internal.tiles.TileManager;
-import com.trionix.maps.internal.tiles.PlaceholderTileFactory;
+import com.trionix.maps.internal.tiles.TileRenderer;
+import com.trionix.maps.internal.util.LongObjectHashMap;
 import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
 import java.util.List;
 import java.util.Objects;
 
@@ -23,17 +23,20 @@ import java.util.Objects;
  */
 public class TileLayer extends MapLayer {
 
-    private static final Image PLACEHOLDER = PlaceholderTileFactory.placeholder();
     private static final double REDRAW_EPSILON = 0.001;
     private static final long REDRAW_WINDOW_NANOS = 1_500_000_000L;
 
     private final TileManager tileManager;
+    private final TileRenderer tileRenderer;
     private final Canvas canvas = new Canvas();
     private final GraphicsContext graphics = canvas.getGraphicsContext2D();
     private final MapState mapState = new MapState();
     private final AnimationTimer redrawTimer = new AnimationTimer() {
         @Override
         public void handle(long now) {
+            if (tilesPendingRedraw) {
+                redrawCurrentTiles();
+            }
             if (now >= redrawUntilNanos) {
                 stop();
                 return;
@@ -43,7 +46,10 @@ public class TileLayer extends MapLayer {
     };
 
     private List<TileCoordinate> currentVisibleTiles = List.of();
+    private LongObjectHashMap<TileCoordinate> currentVisibleTileKeys = new LongObjectHashMap<>();
     private boolean redrawToggle;
+    // Set when visible tiles arrived since the last draw; the redraw timer draws them once per pulse
+    private boolean tilesPendingRedraw;
     private long redrawUntilNanos;
     // Listeners to sync MapState
     private final ChangeListener<Number> centerLatListener = (obs, old, val) -> requestRefresh();
@@ -54,6 +60,7 @@ public class TileLayer extends MapLayer {
         Objects.requireNonNull(retriever, "retriever");
         Objects.requireNonNull(cache, "cache");
         this.tileManager = new TileManager(cache, retriever);
+        this.tileRenderer = new TileRenderer(tileManager);
 
         getChildren().add(canvas);
         canvas.setManaged(false);
@@ -109,22 +116,30 @@ public class TileLayer extends MapLayer {
         }
         List<TileCoordinate> visible = mapState.visibleTiles();
         currentVisibleTiles = visible;
-        tileManager.refreshTiles(visible, (coordinate, image) -> redrawLoadedTile(coordinate));
+        currentVisibleTileKeys = mapState.visibleTileKeys();
+        tileManager.refreshTiles(mapState, (coordinate, image) -> redrawLoadedTile(coordinate));
     }
 
+    /**
+     * Marks the canvas for a redraw on the next pulse rather than drawing at
+     * once, so any number of tiles arriving within a frame cost one redraw.
+     */
     private void redrawLoadedTile(TileCoordinate coordinate) {
-        if (!currentVisibleTiles.contains(coordinate)) {
+        if (!currentVisibleTileKeys.containsKey(TileKey.of(coordinate))) {
             return;
         }
+        tilesPendingRedraw = true;
+        extendRedrawWindow();
+        Platform.requestNextPulse();
+    }
 
+    private void redrawCurrentTiles() {
         double width = canvas.getWidth();
         double height = canvas.getHeight();
         if (width <= 0 || height <= 0) {
             return;
         }
-
         drawTiles(width, height);
-        extendRedrawWindow();
     }
 
     private void forceCanvasInvalidation() {
@@ -139,32 +154,8 @@ public class TileLayer extends MapLayer {
     }
 
     private void drawTiles(double width, double height) {
-        graphics.clearRect(0.0, 0.0, width, height);
-        if (currentVisibleTiles.isEmpty()) {
-            return;
-        }
-
-        Projection projection = getProjection();
-        int zoomLevel = mapState.discreteZoomLevel();
-
-        Projection.PixelCoordinate centerPixels = projection.latLonToPixel(
-                mapState.getCenterLat(), mapState.getCenterLon(), zoomLevel);
-
-        double halfWidth = width / 2.0;
-        double halfHeight = height / 2.0;
-        double tileSize = Projection.TILE_SIZE;
-
-        for (TileCoordinate tile : currentVisibleTiles) {
-            Image cached = tileManager.cachedTile(tile);
-            Image image = cached != null ? cached : PLACEHOLDER;
-
-            double tileOriginX = tile.x() * tileSize;
-            double tileOriginY = tile.y() * tileSize;
-            double screenX = tileOriginX - centerPixels.x() + halfWidth;
-            double screenY = tileOriginY - centerPixels.y() + halfHeight;
-
-            graphics.drawImage(image, screenX, screenY, tileSize, tileSize);
-        }
+        tilesPendingRedraw = false;
+        tileRenderer.render(graphics, getProjection(), mapState, currentVisibleTiles, width, height);
     }
 
     /**
@@ -0,0 +1,197 @@
+package com.trionix.maps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.framework.junit5.Start;
+import org.testfx.util.WaitForAsyncUtils;
+
+@ExtendWith(ApplicationExtension.class)
+class ConcurrentTileCacheTest {
+
+    private Image sampleImage;
+
+    @Start
+    private void start(Stage stage) {
+        // Initialize JavaFX toolkit
+    }
+
+    @BeforeEach
+    void setUp() {
+        WaitForAsyncUtils.waitForFxEvents();
+        sampleImage = new WritableImage(1, 1);
+    }
+
+    @Test
+    void evictsTileThatWasNotReadSinceInsertion() {
+        ConcurrentTileCache cache = new ConcurrentTileCache(2);
+        cache.put(1, 1, 1, sampleImage);
+        cache.put(1, 2, 2, sampleImage);
+        cache.get(1, 1, 1); // give tile 1 a second chance
+        cache.put(1, 3, 3, sampleImage);
+
+        assertThat(cache.get(1, 1, 1)).isNotNull();
+        assertThat(cache.get(1, 2, 2)).isNull();
+        assertThat(cache.get(1, 3, 3)).isNotNull();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void replacingExistingTileDoesNotEvict() {
+        ConcurrentTileCache cache = new ConcurrentTileCache(2);
+        Image replacement = new WritableImage(2, 2);
+        cache.put(1, 1, 1, sampleImage);
+        cache.put(1, 2, 2, sampleImage);
+        cache.put(1, 1, 1, replacement);
+
+        assertThat(cache.get(1, 1, 1)).isSameAs(replacement);
+        assertThat(cache.get(1, 2, 2)).isSameAs(sampleImage);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void staysWithinCapacityUnderChurn() {
+        ConcurrentTileCache cache = new ConcurrentTileCache(64);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(10, i, i % 7, sampleImage);
+        }
+
+        assertThat(cache.size()).isEqualTo(64);
+        assertThat(cache.get(10, 9_999, 9_999 % 7)).isSameAs(sampleImage);
+    }
+
+    @Test
+    void clearRemovesAllTiles() {
+        ConcurrentTileCache cache = new ConcurrentTileCache(10);
+        cache.put(1, 1, 1, sampleImage);
+        cache.put(2, 2, 2, sampleImage);
+
+        cache.clear();
+
+        assertThat(cache.get(1, 1, 1)).isNull();
+        assertThat(cache.get(2, 2, 2)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void treatsTilesOutsideKeyRangeAsMisses() {
+        ConcurrentTileCache cache = new ConcurrentTileCache(10);
+
+        cache.put(30, 0, 0, sampleImage);
+        cache.put(1, -1, 0, sampleImage);
+
+        assertThat(cache.get(30, 0, 0)).isNull();
+        assertThat(cache.get(1, -1, 0)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void byteBudgetEvictsByDecodedSize() {
+        ConcurrentTileCache cache = ConcurrentTileCache.withMaxBytes(4 * 256 * 256 * 4);
+        Image standard = new WritableImage(256, 256);
+        Image retina = new WritableImage(512, 512);
+
+        cache.put(1, 0, 0, standard);
+        cache.put(1, 1, 0, standard);
+        cache.put(1, 2, 0, standard);
+        assertThat(cache.weight()).isEqualTo(3 * 256 * 256 * 4);
+
+        cache.put(2, 0, 0, retina);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.weight()).isEqualTo(512 * 512 * 4);
+        assertThat(cache.get(2, 0, 0)).isSameAs(retina);
+    }
+
+    @Test
+    void byteBudgetGrowsTableBeyondInitialSize() {
+        ConcurrentTileCache cache = ConcurrentTileCache.withMaxBytes(1_000 * 4);
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(5, i, 0, sampleImage);
+        }
+
+        assertThat(cache.size()).isEqualTo(1_000);
+        assertThat(cache.weight()).isEqualTo(1_000 * 4);
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(cache.get(5, i, 0)).isSameAs(sampleImage);
+        }
+    }
+
+    @Test
+    void replacingTileUpdatesWeight() {
+        ConcurrentTileCache cache = ConcurrentTileCache.withMaxBytes(1024L * 1024 * 1024);
+        cache.put(1, 1, 1, new WritableImage(256, 256));
+        cache.put(1, 1, 1, new WritableImage(512, 512));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.weight()).isEqualTo(512 * 512 * 4);
+    }
+
+    @Test
+    void imageLargerThanBudgetIsNotCached() {
+        ConcurrentTileCache cache = ConcurrentTileCache.withMaxBytes(16);
+        cache.put(1, 1, 1, new WritableImage(256, 256));
+
+        assertThat(cache.get(1, 1, 1)).isNull();
+        assertThat(cache.weight()).isZero();
+    }
+
+    @Test
+    void nonPositiveMaxBytesThrowsIllegalArgumentException() {
+        assertThatThrownBy(() -> ConcurrentTileCache.withMaxBytes(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maxBytes must be positive");
+    }
+
+    @Test
+    void nonPositiveCapacityThrowsIllegalArgumentException() {
+        assertThatThrownBy(() -> new ConcurrentTileCache(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("capacity must be positive");
+    }
+
+    @Test
+    void readersNeverObserveForeignTilesWhileWritersEvict() throws InterruptedException {
+        ConcurrentTileCache cache = new ConcurrentTileCache(32);
+        Image[] images = new Image[8];
+        for (int i = 0; i < images.length; i++) {
+            images[i] = new WritableImage(i + 1, 1);
+        }
+        AtomicBoolean mismatch = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Void>> tasks = java.util.stream.IntStream.range(0, 8)
+                    .mapToObj(worker -> (Callable<Void>) () -> {
+                        for (int i = 0; i < 5_000; i++) {
+                            long x = i % 100;
+                            cache.put(worker, x, worker, images[worker]);
+                            Image read = cache.get(worker, x, worker);
+                            if (read != null && read != images[worker]) {
+                                mismatch.set(true);
+                            }
+                        }
+                        return null;
+                    })
+                    .toList();
+            executor.invokeAll(tasks);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(mismatch).isFalse();
+        assertThat(cache.size()).isLessThanOrEqualTo(32);
+    }
+}
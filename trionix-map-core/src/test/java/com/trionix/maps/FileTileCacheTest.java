@@ -6,6 +6,8 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -72,6 +74,7 @@ class FileTileCacheTest {
         assertThat(retrieved).isNotNull();
         assertThat(retrieved.getWidth()).isEqualTo(256);
         assertThat(retrieved.getHeight()).isEqualTo(256);
+        assertThat(cache.contains(12, 2048, 1536)).isTrue();
     }
 
     @Test
@@ -81,6 +84,7 @@ class FileTileCacheTest {
         Image retrieved = cache.get(12, 9999, 9999);
 
         assertThat(retrieved).isNull();
+        assertThat(cache.contains(12, 9999, 9999)).isFalse();
     }
 
     @Test
@@ -121,6 +125,123 @@ class FileTileCacheTest {
         assertThat(cache.get(1, 3, 3)).isNotNull();
     }
 
+    @Test
+    void putEncodedStoresBytesWithoutReencoding() throws IOException {
+        byte[] encoded;
+        try (var stream = FileTileCacheTest.class
+                .getResourceAsStream("/com/trionix/maps/placeholder-tile.png")) {
+            assertThat(stream).isNotNull();
+            encoded = stream.readAllBytes();
+        }
+        FileTileCache cache = new FileTileCache(cacheDir, 100);
+
+        cache.putEncoded(5, 3, 7, sampleImage, encoded);
+
+        Path tilePath = cacheDir.resolve("5").resolve("3").resolve("7.png");
+        assertThat(Files.readAllBytes(tilePath)).isEqualTo(encoded);
+        Image retrieved = cache.get(5, 3, 7);
+        assertThat(retrieved).isNotNull();
+        assertThat(retrieved.getWidth()).isEqualTo(256);
+    }
+
+    @Test
+    void metadataIsStoredWithTileAndRemovedOnEviction() {
+        FileTileCache cache = new FileTileCache(cacheDir, 1);
+        TileMetadata metadata = new TileMetadata("W/\"a:b\"", "Wed, 21 Oct 2015 07:28:00 GMT",
+                Instant.parse("2030-01-01T00:00:00Z"));
+
+        cache.putEncoded(4, 1, 2, new EncodedTile(sampleImage, new byte[] {1, 2, 3}, metadata));
+
+        assertThat(new FileTileCache(cacheDir, 1).metadata(4, 1, 2)).isEqualTo(metadata);
+        TileMetadata refreshed = new TileMetadata("W/\"a:b\"", null, Instant.parse("2031-01-01T00:00:00Z"));
+        cache.updateMetadata(4, 1, 2, refreshed);
+        assertThat(cache.metadata(4, 1, 2)).isEqualTo(refreshed);
+
+        cache.put(4, 1, 3, sampleImage);
+
+        assertThat(cache.metadata(4, 1, 2)).isNull();
+        assertThat(Files.exists(cacheDir.resolve("4").resolve("1").resolve("2.png" + FileTileCache.METADATA_SUFFIX)))
+                .isFalse();
+        cache.updateMetadata(4, 1, 2, refreshed);
+        assertThat(cache.metadata(4, 1, 2)).isNull();
+    }
+
+    @Test
+    void putWithoutMetadataDropsStaleMetadata() {
+        FileTileCache cache = new FileTileCache(cacheDir, 10);
+        cache.putEncoded(4, 1, 2, new EncodedTile(sampleImage, new byte[] {1},
+                new TileMetadata("\"v1\"", null, null)));
+
+        cache.put(4, 1, 2, sampleImage);
+
+        assertThat(cache.metadata(4, 1, 2)).isNull();
+    }
+
+    @Test
+    void evictionOrderSurvivesReopen() {
+        FileTileCache first = new FileTileCache(cacheDir, 3);
+        first.put(1, 0, 0, sampleImage);
+        first.put(1, 1, 1, sampleImage);
+        first.put(1, 2, 2, sampleImage);
+
+        FileTileCache reopened = new FileTileCache(cacheDir, 3);
+        reopened.put(1, 3, 3, sampleImage);
+
+        assertThat(Files.exists(cacheDir.resolve(FileTileCache.JOURNAL_FILE_NAME))).isTrue();
+        assertThat(Files.exists(cacheDir.resolve("1").resolve("0").resolve("0.png"))).isFalse();
+        assertThat(reopened.get(1, 1, 1)).isNotNull();
+        assertThat(reopened.get(1, 3, 3)).isNotNull();
+    }
+
+    @Test
+    void getDoesNotWriteToTileFile() throws IOException {
+        FileTileCache cache = new FileTileCache(cacheDir, 100);
+        cache.put(3, 1, 2, sampleImage);
+        Path tilePath = cacheDir.resolve("3").resolve("1").resolve("2.png");
+        Files.setLastModifiedTime(tilePath, FileTime.fromMillis(1_000L));
+
+        assertThat(cache.get(3, 1, 2)).isNotNull();
+
+        assertThat(Files.getLastModifiedTime(tilePath).toMillis()).isEqualTo(1_000L);
+    }
+
+    @Test
+    void flushedAccessOrderSurvivesReopen() {
+        FileTileCache first = new FileTileCache(cacheDir, 3);
+        first.put(1, 0, 0, sampleImage);
+        first.put(1, 1, 1, sampleImage);
+        first.put(1, 2, 2, sampleImage);
+        first.get(1, 0, 0);
+        first.flush();
+
+        FileTileCache reopened = new FileTileCache(cacheDir, 3);
+        reopened.put(1, 3, 3, sampleImage);
+
+        assertThat(Files.exists(cacheDir.resolve("1").resolve("0").resolve("0.png"))).isTrue();
+        assertThat(Files.exists(cacheDir.resolve("1").resolve("1").resolve("1.png"))).isFalse();
+    }
+
+    @Test
+    void rebuildsIndexFromExistingFilesWhenJournalIsMissing() throws IOException {
+        FileTileCache first = new FileTileCache(cacheDir, 10);
+        first.put(2, 0, 0, sampleImage);
+        first.put(2, 1, 0, sampleImage);
+        first.put(2, 2, 0, sampleImage);
+        Files.setLastModifiedTime(cacheDir.resolve("2").resolve("0").resolve("0.png"),
+                FileTime.fromMillis(1_000L));
+        Files.delete(cacheDir.resolve(FileTileCache.JOURNAL_FILE_NAME));
+
+        FileTileCache reopened = new FileTileCache(cacheDir, 2);
+        reopened.put(2, 3, 0, sampleImage);
+
+        assertThat(Files.exists(cacheDir.resolve("2").resolve("0").resolve("0.png"))).isFalse();
+        long remaining;
+        try (Stream<Path> files = Files.walk(cacheDir)) {
+            remaining = files.filter(path -> path.toString().endsWith(".png")).count();
+        }
+        assertThat(remaining).isEqualTo(2);
+    }
+
     @Test
     void concurrentAccessIsThreadSafe() throws InterruptedException {
         FileTileCache cache = new FileTileCache(cacheDir, 50);
@@ -142,15 +263,47 @@ class FileTileCacheTest {
             executor.awaitTermination(30, TimeUnit.SECONDS);
         }
 
+        // Strict LRU may evict every tile of a worker that finished early, so only the total is
+        // deterministic: the 50 most recently written of the 80 tiles
+        int retrievedCount = 0;
         for (int worker = 0; worker < 8; worker++) {
-            int retrievedCount = 0;
             for (int i = 0; i < 10; i++) {
                 if (cache.get(worker, i, worker) != null) {
                     retrievedCount++;
                 }
             }
-            assertThat(retrievedCount).isGreaterThan(0);
         }
+        assertThat(retrievedCount).isEqualTo(50);
+    }
+
+    @Test
+    void evictionDoesNotDeleteConcurrentlyRewrittenTiles() throws Exception {
+        FileTileCache cache = new FileTileCache(cacheDir, 4);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Callable<Void>> tasks = java.util.stream.IntStream.range(0, 4)
+                    .mapToObj(worker -> (Callable<Void>) () -> {
+                        for (int i = 0; i < 200; i++) {
+                            cache.putEncoded(3, (worker + i) % 8, 0, sampleImage, new byte[] {(byte) i});
+                        }
+                        return null;
+                    })
+                    .toList();
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+
+        // Every indexed tile still has its file
+        long remaining;
+        try (Stream<Path> files = Files.walk(cacheDir)) {
+            remaining = files.filter(path -> path.toString().endsWith(".png")).count();
+        }
+        assertThat(remaining).isEqualTo(4);
     }
 
     @Test
@@ -61,6 +61,19 @@ class InMemoryTileCacheTest {
         assertThat(cache.get(1, 3, 3)).isNotNull();
     }
 
+    @Test
+    void treatsTilesOutsideKeyRangeAsMisses() {
+        WaitForAsyncUtils.waitForFxEvents();
+        InMemoryTileCache cache = new InMemoryTileCache(2);
+
+        cache.put(30, 0, 0, getSampleImage());
+        cache.put(1, -1, 0, getSampleImage());
+
+        assertThat(cache.get(30, 0, 0)).isNull();
+        assertThat(cache.get(1, -1, 0)).isNull();
+        assertThat(cache.get(1, 0, 1L << 29)).isNull();
+    }
+
     @Test
     void supportsConcurrentAccess() throws InterruptedException {
         WaitForAsyncUtils.waitForFxEvents();
@@ -5,13 +5,19 @@ import static org.assertj.core.api.Assertions.within;
 
 import com.trionix.maps.internal.MapState;
 import com.trionix.maps.internal.tiles.PlaceholderTileFactory;
+import com.trionix.maps.internal.tiles.TileCoordinate;
 import com.trionix.maps.layer.MapLayer;
+import com.trionix.maps.layer.TileLayer;
 import com.trionix.maps.testing.RecordingTileRetriever;
 import com.trionix.maps.testing.RecordingTileRetriever.LoadRequest;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
@@ -28,6 +34,7 @@ import javafx.stage.Stage;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okio.Buffer;
@@ -184,6 +191,77 @@ class MapViewIntegrationTest {
         assertThat(afterColor.getBlue()).isCloseTo(Color.DARKORANGE.getBlue(), within(0.01));
     }
 
+    @Test
+    void drawsTilesFromDiskOnlyCache(@TempDir Path cacheDir) throws Exception {
+        var cache = new FileTileCache(cacheDir, 100);
+        var state = new MapState();
+        state.setZoom(2.0);
+        state.setViewportSize(256.0, 256.0);
+        var tileImage = solidImage(Color.DARKORANGE);
+        for (var tile : state.visibleTiles()) {
+            cache.put(tile.zoom(), tile.x(), tile.y(), tileImage);
+        }
+        var retriever = new RecordingTileRetriever();
+
+        mount(() -> {
+            var view = new MapView(retriever, cache);
+            view.setZoom(2.0);
+            return view;
+        }, 256, 256);
+        // Disk reads complete on tile-loading threads
+        Thread.sleep(300);
+        WaitForAsyncUtils.waitForFxEvents();
+
+        var snapshot = new WritableImage(256, 256);
+        Platform.runLater(() -> mapView.snapshot(null, snapshot));
+        WaitForAsyncUtils.waitForFxEvents();
+
+        var color = colorAt(snapshot, 100, 100);
+        assertThat(color.getRed()).isCloseTo(Color.DARKORANGE.getRed(), within(0.01));
+        assertThat(color.getGreen()).isCloseTo(Color.DARKORANGE.getGreen(), within(0.01));
+        assertThat(color.getBlue()).isCloseTo(Color.DARKORANGE.getBlue(), within(0.01));
+        // Only prefetch tiles outside the viewport go to the network
+        var requests = retriever.awaitRequests(retriever.requestCount(), Duration.ofSeconds(1));
+        assertThat(requests).extracting(LoadRequest::coordinate).doesNotContainAnyElementsOf(state.visibleTiles());
+    }
+
+    @Test
+    void redrawsBatchOfDeliveredTilesOncePerPulse() throws Exception {
+        var retriever = new RecordingTileRetriever();
+        var cache = new CountingTileCache();
+
+        mount(() -> {
+            var view = new MapView(retriever, cache);
+            view.setZoom(3.0);
+            return view;
+        }, 512, 512);
+
+        var visibleTiles = visibleTiles(mapView, 512.0, 512.0);
+        var requests = retriever.awaitRequests(visibleTiles.size(), Duration.ofSeconds(1));
+        deliverInOneBatch(requests, visibleTiles, cache);
+
+        assertThat(cache.probeLookups()).isEqualTo(1);
+    }
+
+    @Test
+    void tileLayerRedrawsBatchOfDeliveredTilesOncePerPulse() throws Exception {
+        var layerRetriever = new RecordingTileRetriever();
+        var cache = new CountingTileCache();
+
+        mount(() -> {
+            var view = new MapView(new RecordingTileRetriever(), new InMemoryTileCache(64));
+            view.setZoom(3.0);
+            view.getLayers().add(new TileLayer(layerRetriever, cache));
+            return view;
+        }, 512, 512);
+
+        var visibleTiles = visibleTiles(mapView, 512.0, 512.0);
+        var requests = layerRetriever.awaitRequests(visibleTiles.size(), Duration.ofSeconds(1));
+        deliverInOneBatch(requests, visibleTiles, cache);
+
+        assertThat(cache.probeLookups()).isEqualTo(1);
+    }
+
     @Test
     void panZoomLoopMaintainsHighFrameRate() {
         var tileImage = new WritableImage(256, 256);
@@ -371,6 +449,7 @@ class MapViewIntegrationTest {
 
             mount(() -> {
                 var view = new MapView(retriever, cache);
+                view.setPrefetchMargin(0); // count only visible tile requests
                 view.setCenterLat(0.0);
                 view.setCenterLon(0.0);
                 view.setZoom(2.0);
@@ -408,6 +487,43 @@ class MapViewIntegrationTest {
         }
     }
 
+    private static List<TileCoordinate> visibleTiles(MapView view, double width, double height) {
+        var state = new MapState();
+        state.setCenterLat(view.getCenterLat());
+        state.setCenterLon(view.getCenterLon());
+        state.setZoom(view.getZoom());
+        state.setViewportSize(width, height);
+        return state.visibleTiles();
+    }
+
+    /**
+     * Completes the visible tiles' requests while the FX thread is blocked, so
+     * they are all delivered together, then counts renders of the first tile
+     * over the following pulses.
+     */
+    private static void deliverInOneBatch(List<LoadRequest> requests, List<TileCoordinate> visibleTiles,
+            CountingTileCache cache) throws InterruptedException {
+        var blocked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            cache.startCounting(visibleTiles.get(0));
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        blocked.await();
+        var tileImage = new WritableImage(256, 256);
+        requests.stream()
+                .filter(request -> visibleTiles.contains(request.coordinate()))
+                .forEach(request -> request.future().complete(tileImage));
+        release.countDown();
+        Thread.sleep(200);
+        WaitForAsyncUtils.waitForFxEvents();
+    }
+
     private void mount(java.util.function.Supplier<MapView> factory, double width, double height) {
         Platform.runLater(() -> {
             this.mapView = factory.get();
@@ -537,6 +653,46 @@ class MapViewIntegrationTest {
         }
     }
 
+    /** Memory cache that counts the renderer's lookups of one probe tile. */
+    private static final class CountingTileCache implements TileCache {
+        private final InMemoryTileCache delegate = new InMemoryTileCache(256);
+        private final AtomicInteger probeLookups = new AtomicInteger();
+        private volatile TileCoordinate probe;
+
+        void startCounting(TileCoordinate tile) {
+            probe = tile;
+            probeLookups.set(0);
+        }
+
+        int probeLookups() {
+            return probeLookups.get();
+        }
+
+        @Override
+        public Image get(int zoom, long x, long y) {
+            return delegate.get(zoom, x, y);
+        }
+
+        @Override
+        public Image peek(int zoom, long x, long y) {
+            TileCoordinate current = probe;
+            if (current != null && current.zoom() == zoom && current.x() == x && current.y() == y) {
+                probeLookups.incrementAndGet();
+            }
+            return delegate.get(zoom, x, y);
+        }
+
+        @Override
+        public void put(int zoom, long x, long y, Image image) {
+            delegate.put(zoom, x, y, image);
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+        }
+    }
+
     private static final class TrackingLayer extends MapLayer {
         private int addedCount;
         private int removedCount;
@@ -0,0 +1,90 @@
+package com.trionix.maps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.framework.junit5.Start;
+
+@ExtendWith(ApplicationExtension.class)
+class MappedPackTileRetrieverTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path packFile;
+
+    @Start
+    private void start(Stage stage) {
+        // Initialize JavaFX toolkit
+    }
+
+    @BeforeEach
+    void seedPack() throws IOException {
+        byte[] pngBytes;
+        try (InputStream stream = MappedPackTileRetrieverTest.class
+                .getResourceAsStream("/com/trionix/maps/placeholder-tile.png")) {
+            assertThat(stream).isNotNull();
+            pngBytes = stream.readAllBytes();
+        }
+        packFile = tempDir.resolve("offline.pack");
+        PackTileCache seeder = new PackTileCache(packFile, 1L << 20);
+        Image image = new WritableImage(1, 1);
+        seeder.putEncoded(4, 3, 5, image, pngBytes);
+        seeder.putEncoded(4, 3, 6, image, pngBytes);
+        seeder.flush();
+    }
+
+    @Test
+    void decodesTileFromMappedPack() throws Exception {
+        try (MappedPackTileRetriever retriever = new MappedPackTileRetriever(packFile)) {
+            Image image = retriever.loadTile(4, 3, 6).get(5, TimeUnit.SECONDS);
+
+            assertThat(image.getWidth()).isEqualTo(256.0);
+            assertThat(retriever.size()).isEqualTo(2);
+            assertThat(retriever.contains(4, 3, 5)).isTrue();
+            assertThat(retriever.contains(4, 3, 7)).isFalse();
+        }
+    }
+
+    @Test
+    void missingTileCompletesExceptionally() throws IOException {
+        try (MappedPackTileRetriever retriever = new MappedPackTileRetriever(packFile)) {
+            assertThatThrownBy(() -> retriever.loadTile(9, 0, 0).get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(NoSuchElementException.class);
+        }
+    }
+
+    @Test
+    void rejectsPackWithStaleIndex() throws IOException {
+        Files.write(packFile, new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+
+        assertThatThrownBy(() -> new MappedPackTileRetriever(packFile))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("Failed to open tile pack");
+    }
+
+    @Test
+    void nullPathThrowsIllegalArgumentException() {
+        assertThatThrownBy(() -> new MappedPackTileRetriever(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("packFile must not be null");
+    }
+}
@@ -0,0 +1,230 @@
+package com.trionix.maps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.framework.junit5.Start;
+import org.testfx.util.WaitForAsyncUtils;
+
+@ExtendWith(ApplicationExtension.class)
+class PackTileCacheTest {
+
+    private Image sampleImage;
+    private byte[] pngBytes;
+
+    @TempDir
+    Path tempDir;
+
+    private Path packFile;
+
+    @Start
+    private void start(Stage stage) {
+        // Initialize JavaFX toolkit
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        WaitForAsyncUtils.waitForFxEvents();
+        sampleImage = new WritableImage(256, 256);
+        try (InputStream stream = PackTileCacheTest.class
+                .getResourceAsStream("/com/trionix/maps/placeholder-tile.png")) {
+            assertThat(stream).isNotNull();
+            pngBytes = stream.readAllBytes();
+        }
+        packFile = tempDir.resolve("tiles.pack");
+    }
+
+    @Test
+    void putEncodedAndGetRoundtripUsesTwoFiles() throws IOException {
+        PackTileCache cache = new PackTileCache(packFile, 1L << 20);
+
+        for (int x = 0; x < 20; x++) {
+            cache.putEncoded(5, x, 3, sampleImage, pngBytes);
+        }
+
+        Image retrieved = cache.get(5, 7, 3);
+        assertThat(retrieved).isNotNull();
+        assertThat(retrieved.getWidth()).isEqualTo(256);
+        assertThat(cache.get(5, 7, 4)).isNull();
+        assertThat(cache.contains(5, 7, 3)).isTrue();
+        assertThat(cache.contains(5, 7, 4)).isFalse();
+        assertThat(cache.size()).isEqualTo(20);
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files).containsExactlyInAnyOrder(packFile,
+                    tempDir.resolve("tiles.pack" + PackTileCache.INDEX_SUFFIX));
+        }
+    }
+
+    @Test
+    void putEncodesImageWhenNoBytesAreAvailable() {
+        PackTileCache cache = new PackTileCache(packFile, 1L << 20);
+
+        cache.put(1, 1, 1, sampleImage);
+
+        assertThat(cache.get(1, 1, 1)).isNotNull();
+    }
+
+    @Test
+    void peekMissesAndGetAsyncReadsPack() throws Exception {
+        PackTileCache cache = new PackTileCache(packFile, 1L << 20);
+        cache.putEncoded(2, 1, 1, sampleImage, pngBytes);
+
+        assertThat(cache.peek(2, 1, 1)).isNull();
+        assertThat(cache.getAsync(2, 1, 1).get(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    void reopenedCacheFindsStoredTiles() {
+        PackTileCache first = new PackTileCache(packFile, 1L << 20);
+        first.putEncoded(3, 1, 2, sampleImage, pngBytes);
+        first.putEncoded(3, 2, 2, sampleImage, pngBytes);
+        first.flush();
+
+        PackTileCache reopened = new PackTileCache(packFile, 1L << 20);
+
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.get(3, 2, 2)).isNotNull();
+    }
+
+    @Test
+    void rebuildsMissingIndexAndDropsTornRecord() throws IOException {
+        PackTileCache first = new PackTileCache(packFile, 1L << 20);
+        first.putEncoded(3, 1, 2, sampleImage, pngBytes);
+        first.putEncoded(3, 2, 2, sampleImage, pngBytes);
+        first.clear();
+        first.putEncoded(4, 0, 0, sampleImage, pngBytes);
+        first.flush();
+        long intactSize = Files.size(packFile);
+        Files.delete(tempDir.resolve("tiles.pack" + PackTileCache.INDEX_SUFFIX));
+        Files.write(packFile, new byte[] {0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 1, 0, 42},
+                StandardOpenOption.APPEND);
+
+        PackTileCache reopened = new PackTileCache(packFile, 1L << 20);
+
+        assertThat(reopened.size()).isEqualTo(1);
+        assertThat(reopened.get(4, 0, 0)).isNotNull();
+        assertThat(Files.size(packFile)).isEqualTo(intactSize);
+    }
+
+    @Test
+    void compactReclaimsReplacedTiles() throws IOException {
+        PackTileCache cache = new PackTileCache(packFile, 1L << 20);
+        for (int i = 0; i < 5; i++) {
+            cache.putEncoded(6, 1, 1, sampleImage, pngBytes);
+        }
+        long before = Files.size(packFile);
+
+        cache.compact();
+
+        assertThat(Files.size(packFile)).isLessThan(before / 4);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get(6, 1, 1)).isNotNull();
+    }
+
+    @Test
+    void exceedingMaxBytesEvictsOldestWrittenTiles() throws IOException {
+        long recordBytes = pngBytes.length + 12L;
+        PackTileCache cache = new PackTileCache(packFile, 8 + recordBytes * 8);
+
+        for (int x = 0; x < 9; x++) {
+            cache.putEncoded(7, x, 0, sampleImage, pngBytes);
+        }
+
+        assertThat(Files.size(packFile)).isLessThanOrEqualTo(8 + recordBytes * 8);
+        assertThat(cache.get(7, 0, 0)).isNull();
+        assertThat(cache.get(7, 8, 0)).isNotNull();
+        assertThat(cache.size()).isBetween(1, 8);
+    }
+
+    @Test
+    void compactsInBackgroundOnceSevenEighthsFull() throws Exception {
+        long recordBytes = pngBytes.length + 12L;
+        PackTileCache cache = new PackTileCache(packFile, 8 + recordBytes * 8);
+
+        for (int x = 0; x < 8; x++) {
+            cache.putEncoded(7, x, 0, sampleImage, pngBytes);
+        }
+
+        // No append exceeded maxBytes, so only the background compaction can evict the oldest tile
+        WaitForAsyncUtils.waitFor(5, TimeUnit.SECONDS, () -> !cache.contains(7, 0, 0));
+        assertThat(cache.get(7, 7, 0)).isNotNull();
+        assertThat(cache.size()).isLessThan(8);
+    }
+
+    @Test
+    void appendsDuringCompactionStayReadable() throws Exception {
+        long recordBytes = pngBytes.length + 12L;
+        PackTileCache cache = new PackTileCache(packFile, 8 + recordBytes * 40);
+
+        List<CompletableFuture<Void>> writers = IntStream.range(0, 4)
+                .mapToObj(writer -> CompletableFuture.runAsync(() -> {
+                    for (int x = 0; x < 60; x++) {
+                        cache.putEncoded(9, x, writer, sampleImage, pngBytes);
+                        cache.get(9, x / 2, writer);
+                    }
+                }))
+                .toList();
+        CompletableFuture.allOf(writers.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        assertThat(Files.size(packFile)).isLessThanOrEqualTo(8 + recordBytes * 40);
+        assertThat(cache.size()).isPositive();
+        for (int writer = 0; writer < 4; writer++) {
+            for (int x = 0; x < 60; x++) {
+                // A compaction may still be evicting, but an indexed tile must always decode
+                if (cache.get(9, x, writer) == null) {
+                    assertThat(cache.contains(9, x, writer)).isFalse();
+                }
+            }
+        }
+    }
+
+    @Test
+    void clearDeletesPackAndIndex() {
+        PackTileCache cache = new PackTileCache(packFile, 1L << 20);
+        cache.putEncoded(1, 0, 0, sampleImage, pngBytes);
+
+        cache.clear();
+
+        assertThat(Files.exists(packFile)).isFalse();
+        assertThat(cache.get(1, 0, 0)).isNull();
+    }
+
+    @Test
+    void rejectsFileThatIsNotATilePack() throws IOException {
+        Files.write(packFile, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+        PackTileCache cache = new PackTileCache(packFile, 1L << 20);
+
+        assertThat(cache.get(1, 0, 0)).isNull();
+        assertThatThrownBy(() -> cache.putEncoded(1, 0, 0, sampleImage, pngBytes))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    void invalidArgumentsThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> new PackTileCache(null, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("packFile must not be null");
+        assertThatThrownBy(() -> new PackTileCache(packFile, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maxBytes must be positive");
+    }
+}
@@ -3,13 +3,21 @@ package com.trionix.maps;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.trionix.maps.internal.concurrent.AsyncPermitQueue;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javafx.scene.image.Image;
 import javafx.stage.Stage;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
 import okio.Buffer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -48,6 +56,16 @@ class SimpleOsmTileRetrieverTest {
         pngBytes = null;
     }
 
+    private void enqueueTile(MockWebServer server) {
+        @SuppressWarnings("resource")
+        Buffer buffer = new Buffer().write(pngBytes);
+        server.enqueue(new MockResponse().setResponseCode(200).setBody(buffer));
+    }
+
+    private static String hostOf(MockWebServer server) {
+        return server.getHostName() + ":" + server.getPort();
+    }
+
     @Test
     void loadsTileFromMockServer() throws ExecutionException, InterruptedException {
         @SuppressWarnings("resource")
@@ -68,6 +86,114 @@ class SimpleOsmTileRetrieverTest {
         assertThat(recordedRequest.getHeader("User-Agent")).isEqualTo("JUnit-Test");
     }
 
+    @Test
+    void loadEncodedTileKeepsResponseBody() throws Exception {
+        @SuppressWarnings("resource")
+        Buffer buffer = new Buffer().write(pngBytes);
+        webServer.enqueue(new MockResponse().setResponseCode(200).setBody(buffer));
+        SimpleOsmTileRetriever retriever = new SimpleOsmTileRetriever(
+                webServer.url("/").toString(),
+                "JUnit-Test",
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1));
+
+        EncodedTile tile = retriever.loadEncodedTile(2, 1, 1).get();
+
+        assertThat(tile.data()).isEqualTo(pngBytes);
+        assertThat(tile.image().getWidth()).isEqualTo(256.0);
+    }
+
+    @Test
+    void capturesCachingHeadersAsMetadata() throws Exception {
+        @SuppressWarnings("resource")
+        Buffer buffer = new Buffer().write(pngBytes);
+        webServer.enqueue(new MockResponse().setResponseCode(200).setBody(buffer)
+                .setHeader("ETag", "\"v1\"")
+                .setHeader("Last-Modified", "Wed, 21 Oct 2015 07:28:00 GMT")
+                .setHeader("Cache-Control", "public, max-age=3600"));
+        SimpleOsmTileRetriever retriever = new SimpleOsmTileRetriever(
+                webServer.url("/").toString(),
+                "JUnit-Test",
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1));
+
+        Instant before = Instant.now();
+        TileMetadata metadata = retriever.loadEncodedTile(2, 1, 1).get().metadata();
+
+        assertThat(metadata.etag()).isEqualTo("\"v1\"");
+        assertThat(metadata.lastModified()).isEqualTo("Wed, 21 Oct 2015 07:28:00 GMT");
+        assertThat(metadata.expires()).isBetween(before.plusSeconds(3599), Instant.now().plusSeconds(3600));
+    }
+
+    @Test
+    void revalidationSendsValidatorsAndTreats304AsNotModified() throws Exception {
+        webServer.enqueue(new MockResponse().setResponseCode(304).setHeader("Cache-Control", "max-age=60"));
+        SimpleOsmTileRetriever retriever = new SimpleOsmTileRetriever(
+                webServer.url("/").toString(),
+                "JUnit-Test",
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1));
+        TileMetadata cached = new TileMetadata("\"v1\"", "Wed, 21 Oct 2015 07:28:00 GMT", Instant.EPOCH);
+
+        EncodedTileRetriever.Revalidation revalidation = retriever.revalidateTile(3, 2, 1, cached).get();
+
+        assertThat(revalidation.isModified()).isFalse();
+        assertThat(revalidation.metadata().etag()).isEqualTo("\"v1\"");
+        assertThat(revalidation.metadata().isExpired(Instant.now())).isFalse();
+        var recordedRequest = webServer.takeRequest();
+        assertThat(recordedRequest.getHeader("If-None-Match")).isEqualTo("\"v1\"");
+        assertThat(recordedRequest.getHeader("If-Modified-Since")).isEqualTo("Wed, 21 Oct 2015 07:28:00 GMT");
+    }
+
+    @Test
+    void revalidationReturnsChangedTile() throws Exception {
+        @SuppressWarnings("resource")
+        Buffer buffer = new Buffer().write(pngBytes);
+        webServer.enqueue(new MockResponse().setResponseCode(200).setBody(buffer).setHeader("ETag", "\"v2\""));
+        SimpleOsmTileRetriever retriever = new SimpleOsmTileRetriever(
+                webServer.url("/").toString(),
+                "JUnit-Test",
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1));
+
+        EncodedTileRetriever.Revalidation revalidation = retriever
+                .revalidateTile(3, 2, 1, new TileMetadata("\"v1\"", null, Instant.EPOCH)).get();
+
+        assertThat(revalidation.isModified()).isTrue();
+        assertThat(revalidation.tile().data()).isEqualTo(pngBytes);
+        assertThat(revalidation.metadata().etag()).isEqualTo("\"v2\"");
+    }
+
+    @Test
+    void metricsSeparateQueueingFromNetworkTime() throws Exception {
+        @SuppressWarnings("resource")
+        Buffer first = new Buffer().write(pngBytes);
+        @SuppressWarnings("resource")
+        Buffer second = new Buffer().write(pngBytes);
+        webServer.enqueue(new MockResponse().setResponseCode(200).setBody(first)
+                .setBodyDelay(200, TimeUnit.MILLISECONDS));
+        webServer.enqueue(new MockResponse().setResponseCode(200).setBody(second));
+        SimpleOsmTileRetriever retriever = new SimpleOsmTileRetriever(TileSource.of(
+                webServer.url("/").toString(), "JUnit-Test", Duration.ofSeconds(1), Duration.ofSeconds(5))
+                .withMaxConcurrentRequests(1));
+
+        CompletableFuture<Image> slow = retriever.loadTile(1, 0, 0);
+        CompletableFuture<Image> queued = retriever.loadTile(1, 0, 1);
+        assertThat(retriever.metrics().queued()).isEqualTo(1);
+        assertThat(retriever.metrics().inFlight()).isEqualTo(1);
+        CompletableFuture.allOf(slow, queued).get(5, TimeUnit.SECONDS);
+
+        SimpleOsmTileRetriever.Metrics metrics = retriever.metrics();
+        assertThat(metrics.started()).isEqualTo(2);
+        assertThat(metrics.completed()).isEqualTo(2);
+        assertThat(metrics.failed()).isZero();
+        assertThat(metrics.queued()).isZero();
+        assertThat(metrics.inFlight()).isZero();
+        assertThat(metrics.queueTime()).isGreaterThanOrEqualTo(Duration.ofMillis(150));
+        assertThat(metrics.networkTime()).isGreaterThanOrEqualTo(Duration.ofMillis(150));
+        assertThat(metrics.decodeTime()).isPositive();
+    }
+
     @Test
     void propagatesHttpErrors() {
         webServer.enqueue(new MockResponse().setResponseCode(404));
@@ -82,6 +208,56 @@ class SimpleOsmTileRetrieverTest {
                 .hasMessageContaining("Unexpected HTTP status");
     }
 
+    @Test
+    void cancellationAbortsInFlightExchange() throws Exception {
+        webServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        SimpleOsmTileRetriever retriever = new SimpleOsmTileRetriever(
+                webServer.url("/").toString(),
+                "JUnit-Test",
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(30));
+        AsyncPermitQueue limiter = retriever.concurrencyLimiter();
+        int idlePermits = limiter.availablePermits();
+
+        CompletableFuture<Image> future = retriever.loadTile(3, 1, 2);
+        assertThat(webServer.takeRequest(2, TimeUnit.SECONDS)).isNotNull();
+        assertThat(limiter.availablePermits()).isEqualTo(idlePermits - 1);
+        future.cancel(true);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (limiter.availablePermits() != idlePermits && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(limiter.availablePermits()).isEqualTo(idlePermits);
+    }
+
+    @Test
+    void cancellationBeforePermitSkipsNetworkRequest() throws Exception {
+        SimpleOsmTileRetriever retriever = new SimpleOsmTileRetriever(
+                webServer.url("/").toString(),
+                "JUnit-Test",
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1));
+        AsyncPermitQueue limiter = retriever.concurrencyLimiter();
+        int heldPermits = 0;
+        while (limiter.tryAcquire()) {
+            heldPermits++;
+        }
+        try {
+            CompletableFuture<Image> future = retriever.loadTile(2, 1, 1);
+            assertThat(limiter.queueLength()).isEqualTo(1);
+            future.cancel(true);
+            assertThat(limiter.queueLength()).isZero();
+        } finally {
+            for (int i = 0; i < heldPermits; i++) {
+                limiter.release();
+            }
+        }
+
+        assertThat(webServer.takeRequest(200, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(webServer.getRequestCount()).isZero();
+    }
+
     @Test
     void defaultTileSourceExposesOsmDefaults() {
         TileSource source = TileSource.openStreetMap();
@@ -90,6 +266,259 @@ class SimpleOsmTileRetrieverTest {
         assertThat(source.userAgent()).isEqualTo("TrionixMapView/0.1 (+https://trionix.example)");
         assertThat(source.connectTimeout()).isEqualTo(Duration.ofSeconds(30));
         assertThat(source.readTimeout()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(source.http2()).isFalse();
+        assertThat(source.maxConcurrentRequests()).isEqualTo(12);
+    }
+
+    @Test
+    void tileSourceRejectsNonPositiveRequestLimit() {
+        assertThatThrownBy(() -> TileSource.openStreetMap().withMaxConcurrentRequests(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maxConcurrentRequests must be positive");
+    }
+
+    @Test
+    void tileSourceValidatesAdaptiveBounds() {
+        TileSource adaptive = TileSource.openStreetMap().withAdaptiveConcurrency(2, 32);
+
+        assertThat(adaptive.isAdaptiveConcurrency()).isTrue();
+        assertThat(adaptive.withMaxConcurrentRequests(8).isAdaptiveConcurrency()).isFalse();
+        assertThat(TileSource.openStreetMap().isAdaptiveConcurrency()).isFalse();
+        assertThatThrownBy(() -> TileSource.openStreetMap().withAdaptiveConcurrency(0, 4))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("minConcurrentRequests must be positive");
+        assertThatThrownBy(() -> TileSource.openStreetMap().withAdaptiveConcurrency(8, 4))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maxConcurrentRequests must not be less than minConcurrentRequests");
+    }
+
+    @Test
+    void adaptiveLimitBacksOffOnServerErrors() throws Exception {
+        webServer.enqueue(new MockResponse().setResponseCode(503));
+        webServer.enqueue(new MockResponse().setResponseCode(429));
+        SimpleOsmTileRetriever retriever = new SimpleOsmTileRetriever(TileSource.of(
+                webServer.url("/").toString(), "JUnit-Test", Duration.ofSeconds(1), Duration.ofSeconds(1))
+                .withAdaptiveConcurrency(2, 64)
+                .withRetryPolicy(RetryPolicy.none()));
+        assertThat(retriever.metrics().limit()).isEqualTo(12);
+
+        assertThatThrownBy(() -> retriever.loadTile(1, 0, 0).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class);
+        assertThat(retriever.metrics().limit()).isEqualTo(6);
+        assertThatThrownBy(() -> retriever.loadTile(1, 0, 1).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class);
+        assertThat(retriever.metrics().limit()).isEqualTo(3);
+    }
+
+    @Test
+    void retriesServerErrorsWithBackoff() throws Exception {
+        webServer.enqueue(new MockResponse().setResponseCode(503));
+        @SuppressWarnings("resource")
+        Buffer buffer = new Buffer().write(pngBytes);
+        webServer.enqueue(new MockResponse().setResponseCode(200).setBody(buffer));
+        SimpleOsmTileRetriever retriever = new SimpleOsmTileRetriever(TileSource.of(
+                webServer.url("/").toString(), "JUnit-Test", Duration.ofSeconds(1), Duration.ofSeconds(1))
+                .withRetryPolicy(new RetryPolicy(2, Duration.ofMillis(10), Duration.ofMillis(50))));
+
+        Image image = retriever.loadTile(1, 0, 0).get(5, TimeUnit.SECONDS);
+
+        assertThat(image.getWidth()).isEqualTo(256.0);
+        assertThat(webServer.getRequestCount()).isEqualTo(2);
+        assertThat(retriever.metrics().retried()).isEqualTo(1);
+    }
+
+    @Test
+    void waitsForShortRetryAfterAndFailsOnLongOne() throws Exception {
+        webServer.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "0"));
+        webServer.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "120"));
+        SimpleOsmTileRetriever retriever = new SimpleOsmTileRetriever(TileSource.of(
+                webServer.url("/").toString(), "JUnit-Test", Duration.ofSeconds(1), Duration.ofSeconds(1)));
+
+        assertThatThrownBy(() -> retriever.loadTile(1, 0, 0).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOfSatisfying(TileRetrievalException.class, failure -> {
+                    assertThat(failure.statusCode()).isEqualTo(429);
+                    assertThat(failure.retryAfter()).isEqualTo(Duration.ofSeconds(120));
+                });
+        assertThat(webServer.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotRetryMissingTiles() throws Exception {
+        webServer.enqueue(new MockResponse().setResponseCode(404));
+        SimpleOsmTileRetriever retriever = new SimpleOsmTileRetriever(TileSource.of(
+                webServer.url("/").toString(), "JUnit-Test", Duration.ofSeconds(1), Duration.ofSeconds(1)));
+
+        assertThatThrownBy(() -> retriever.loadTile(1, 0, 0).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOfSatisfying(TileRetrievalException.class,
+                        failure -> assertThat(failure.isNotFound()).isTrue());
+        assertThat(webServer.getRequestCount()).isEqualTo(1);
+        assertThat(retriever.metrics().retried()).isZero();
+    }
+
+    @Test
+    void retryPolicyBackoffGrowsWithinBounds() {
+        RetryPolicy policy = new RetryPolicy(5, Duration.ofMillis(100), Duration.ofMillis(1000));
+
+        assertThat(policy.backoff(1)).isBetween(Duration.ofMillis(50), Duration.ofMillis(100));
+        assertThat(policy.backoff(3)).isBetween(Duration.ofMillis(200), Duration.ofMillis(400));
+        assertThat(policy.backoff(40)).isBetween(Duration.ofMillis(500), Duration.ofMillis(1000));
+        assertThat(TileSource.openStreetMap().retryPolicy()).isEqualTo(RetryPolicy.defaults());
+        assertThatThrownBy(() -> new RetryPolicy(-1, Duration.ofMillis(100), Duration.ofMillis(100)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maxRetries must not be negative");
+        assertThatThrownBy(() -> new RetryPolicy(1, Duration.ofMillis(100), Duration.ofMillis(10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maxBackoff must not be less than initialBackoff");
+    }
+
+    @Test
+    void rateLimitSpacesRequestsToSource() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            @SuppressWarnings("resource")
+            Buffer buffer = new Buffer().write(pngBytes);
+            webServer.enqueue(new MockResponse().setResponseCode(200).setBody(buffer));
+        }
+        TileSource source = TileSource.of(webServer.url("/").toString(), "JUnit-Test",
+                Duration.ofSeconds(1), Duration.ofSeconds(5)).withRateLimit(20, 1);
+        SimpleOsmTileRetriever retriever = new SimpleOsmTileRetriever(source);
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Image>> loads = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            loads.add(retriever.loadTile(3, i, 0));
+        }
+        CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // One request at once, then one every 50 ms
+        assertThat(elapsed).isGreaterThanOrEqualTo(Duration.ofMillis(190));
+        assertThat(webServer.getRequestCount()).isEqualTo(5);
+        assertThat(retriever.metrics().throttleTime()).isGreaterThan(Duration.ZERO);
+        assertThat(source.withHttp2(true).rateLimiter()).isSameAs(source.rateLimiter());
+    }
+
+    @Test
+    void requestWaitingForRateLimiterDoesNotHoldPermit() throws Exception {
+        enqueueTile(webServer);
+        CompletableFuture<Void> heldBack = new CompletableFuture<>();
+        List<CompletableFuture<Void>> tokens = new ArrayList<>(List.of(heldBack));
+        RateLimiter limiter = () -> tokens.isEmpty() ? CompletableFuture.completedFuture(null) : tokens.remove(0);
+        TileSource source = TileSource.of(webServer.url("/").toString(), "JUnit-Test", Duration.ofSeconds(1),
+                Duration.ofSeconds(5)).withMaxConcurrentRequests(1).withRateLimiter(limiter);
+        SimpleOsmTileRetriever retriever = new SimpleOsmTileRetriever(source);
+
+        CompletableFuture<Image> throttled = retriever.loadTile(3, 0, 0);
+        Image image = retriever.loadTile(3, 1, 0).get(5, TimeUnit.SECONDS);
+
+        assertThat(image).isNotNull();
+        assertThat(throttled).isNotDone();
+        assertThat(webServer.takeRequest().getPath()).isEqualTo("/3/1/0.png");
+        throttled.cancel(true);
+        assertThat(heldBack).isCancelled();
+    }
+
+    @Test
+    void spreadsTilesOverSubdomainsByPosition() throws Exception {
+        try (MockWebServer second = new MockWebServer()) {
+            second.start();
+            enqueueTile(webServer);
+            enqueueTile(second);
+            TileSource source = TileSource.of("http://{s}/tiles/{z}/{x}/{y}.png?style=dark",
+                    List.of(hostOf(webServer), hostOf(second)), "JUnit-Test",
+                    Duration.ofSeconds(1), Duration.ofSeconds(1));
+            SimpleOsmTileRetriever retriever = new SimpleOsmTileRetriever(source);
+
+            retriever.loadTile(2, 0, 0).get(5, TimeUnit.SECONDS);
+            retriever.loadTile(2, 1, 0).get(5, TimeUnit.SECONDS);
+
+            assertThat(webServer.takeRequest(1, TimeUnit.SECONDS).getPath()).isEqualTo("/tiles/2/0/0.png?style=dark");
+            assertThat(second.takeRequest(1, TimeUnit.SECONDS).getPath()).isEqualTo("/tiles/2/1/0.png?style=dark");
+        }
+    }
+
+    @Test
+    void leastLoadedBalancingAvoidsBusyHost() throws Exception {
+        try (MockWebServer second = new MockWebServer()) {
+            second.start();
+            webServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+            enqueueTile(second);
+            enqueueTile(second);
+            TileSource source = TileSource.of("http://{s}/{z}/{x}/{y}.png",
+                    List.of(hostOf(webServer), hostOf(second)), "JUnit-Test",
+                    Duration.ofSeconds(1), Duration.ofSeconds(30))
+                    .withHostBalancing(TileSource.HostBalancing.LEAST_LOADED);
+            SimpleOsmTileRetriever retriever = new SimpleOsmTileRetriever(source);
+
+            CompletableFuture<Image> stuck = retriever.loadTile(2, 0, 0);
+            assertThat(webServer.takeRequest(2, TimeUnit.SECONDS)).isNotNull();
+            retriever.loadTile(2, 0, 0).get(5, TimeUnit.SECONDS);
+            retriever.loadTile(2, 2, 2).get(5, TimeUnit.SECONDS);
+
+            assertThat(second.getRequestCount()).isEqualTo(2);
+            assertThat(webServer.getRequestCount()).isEqualTo(1);
+            stuck.cancel(true);
+        }
+    }
+
+    @Test
+    void tileSourceValidatesUrlTemplates() {
+        TileSource plain = TileSource.of("https://tiles.example.com/base", "JUnit-Test",
+                Duration.ofSeconds(1), Duration.ofSeconds(1));
+
+        assertThat(plain.baseUrl()).isEqualTo("https://tiles.example.com/base/");
+        assertThat(TileSource.of("https://tiles.example.com/{z}/{x}/{y}.png", "JUnit-Test",
+                Duration.ofSeconds(1), Duration.ofSeconds(1)).baseUrl())
+                .isEqualTo("https://tiles.example.com/{z}/{x}/{y}.png");
+        assertThatThrownBy(() -> TileSource.of("https://{s}.example.com/{z}/{x}/{y}.png", "JUnit-Test",
+                Duration.ofSeconds(1), Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("{s} placeholder requires subdomains");
+        assertThatThrownBy(() -> plain.withSubdomains(List.of("a", "b")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("subdomains require an {s} placeholder");
+    }
+
+    @Test
+    void eachTileSourceHasItsOwnRequestLimit() throws Exception {
+        webServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        @SuppressWarnings("resource")
+        Buffer buffer = new Buffer().write(pngBytes);
+        webServer.enqueue(new MockResponse().setResponseCode(200).setBody(buffer));
+        TileSource slow = TileSource.of(webServer.url("/slow/").toString(), "JUnit-Test",
+                Duration.ofSeconds(1), Duration.ofSeconds(30)).withMaxConcurrentRequests(1);
+        SimpleOsmTileRetriever retriever = new SimpleOsmTileRetriever(slow);
+        assertThat(retriever.concurrencyLimiter().availablePermits()).isEqualTo(1);
+
+        CompletableFuture<Image> stuck = retriever.loadTile(1, 0, 0);
+        assertThat(webServer.takeRequest(2, TimeUnit.SECONDS)).isNotNull();
+        assertThat(retriever.concurrencyLimiter().availablePermits()).isZero();
+        retriever.setTileSource(slow.withMaxConcurrentRequests(4));
+
+        Image image = retriever.loadTile(1, 0, 1).get(5, TimeUnit.SECONDS);
+
+        assertThat(image.getWidth()).isEqualTo(256.0);
+        assertThat(retriever.concurrencyLimiter().availablePermits()).isEqualTo(4);
+        stuck.cancel(true);
+    }
+
+    @Test
+    void http2SourceFallsBackToHttp11Server() throws Exception {
+        @SuppressWarnings("resource")
+        Buffer buffer = new Buffer().write(pngBytes);
+        webServer.enqueue(new MockResponse().setResponseCode(200).setBody(buffer));
+        SimpleOsmTileRetriever retriever = new SimpleOsmTileRetriever(TileSource.of(
+                webServer.url("/").toString(), "JUnit-Test", Duration.ofSeconds(1), Duration.ofSeconds(1))
+                .withHttp2(true)
+                .withMaxConcurrentRequests(64));
+
+        Image image = retriever.loadTile(1, 1, 1).get(5, TimeUnit.SECONDS);
+
+        assertThat(image.getWidth()).isEqualTo(256.0);
+        assertThat(webServer.takeRequest().getRequestUrl().encodedPath()).isEqualTo("/1/1/1.png");
     }
 
     @Test
@@ -3,8 +3,10 @@ package com.trionix.maps;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import javafx.scene.image.Image;
 import javafx.scene.image.WritableImage;
 import javafx.stage.Stage;
@@ -12,6 +14,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.testfx.framework.junit5.ApplicationExtension;
 import org.testfx.framework.junit5.Start;
 import org.testfx.util.WaitForAsyncUtils;
@@ -78,6 +81,54 @@ class TieredTileCacheTest {
         assertThat(l2.get(1, 1, 1)).isNotNull();
     }
 
+    @Test
+    void putEncodedPassesBytesToEveryTier() {
+        var l1 = new InMemoryTileCache(10);
+        List<byte[]> received = new ArrayList<>();
+        TileCache l2 = new TileCache() {
+            @Override
+            public Image get(int zoom, long x, long y) {
+                return null;
+            }
+
+            @Override
+            public void put(int zoom, long x, long y, Image image) {
+                throw new AssertionError("expected putEncoded");
+            }
+
+            @Override
+            public void putEncoded(int zoom, long x, long y, Image image, byte[] encoded) {
+                received.add(encoded);
+            }
+
+            @Override
+            public void clear() {
+            }
+        };
+        var tiered = new TieredTileCache(List.of(l1, l2));
+        byte[] encoded = {1, 2, 3};
+
+        tiered.putEncoded(1, 1, 1, sampleImage, encoded);
+
+        assertThat(l1.get(1, 1, 1)).isNotNull();
+        assertThat(received).containsExactly(encoded);
+    }
+
+    @Test
+    void peekSkipsDiskTierAndGetAsyncPromotesHit(@TempDir Path cacheDir) throws Exception {
+        var l1 = new InMemoryTileCache(10);
+        var l2 = new FileTileCache(cacheDir, 10);
+        var tiered = new TieredTileCache(List.of(l1, l2));
+        l2.put(4, 2, 2, new WritableImage(256, 256));
+
+        assertThat(tiered.peek(4, 2, 2)).isNull();
+
+        Image loaded = tiered.getAsync(4, 2, 2).get(5, TimeUnit.SECONDS);
+        assertThat(loaded).isNotNull();
+        assertThat(l1.get(4, 2, 2)).isSameAs(loaded);
+        assertThat(tiered.peek(4, 2, 2)).isSameAs(loaded);
+    }
+
     @Test
     void clearClearsAllTiers() {
         var l1 = new InMemoryTileCache(10);
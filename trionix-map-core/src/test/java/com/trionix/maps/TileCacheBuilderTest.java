@@ -3,6 +3,7 @@ package com.trionix.maps;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.trionix.maps.internal.cache.RenderFormatTileCache;
 import java.nio.file.Path;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -22,12 +23,40 @@ class TileCacheBuilderTest {
     }
 
     @Test
-    void buildDiskOnlyCacheReturnsFileTileCache() {
+    void buildConcurrentMemoryCacheReturnsConcurrentTileCache() {
+        TileCache cache = TileCacheBuilder.create()
+                .concurrentMemory(500)
+                .build();
+
+        assertThat(cache).isInstanceOf(ConcurrentTileCache.class);
+    }
+
+    @Test
+    void buildMemoryBytesCacheUsesByteBudget() {
+        TileCache cache = TileCacheBuilder.create()
+                .memoryBytes(64L * 1024 * 1024)
+                .build();
+
+        assertThat(cache).isInstanceOf(ConcurrentTileCache.class);
+        assertThat(((ConcurrentTileCache) cache).maxWeight()).isEqualTo(64L * 1024 * 1024);
+    }
+
+    @Test
+    void buildDiskOnlyCachePutsMemoryTierInFront() {
         TileCache cache = TileCacheBuilder.create()
                 .disk(tempDir.resolve("tiles"), 10000)
                 .build();
 
-        assertThat(cache).isInstanceOf(FileTileCache.class);
+        assertThat(cache).isInstanceOf(TieredTileCache.class);
+    }
+
+    @Test
+    void buildPackOnlyCachePutsMemoryTierInFront() {
+        TileCache cache = TileCacheBuilder.create()
+                .pack(tempDir.resolve("tiles.pack"), 1L << 20)
+                .build();
+
+        assertThat(cache).isInstanceOf(TieredTileCache.class);
     }
 
     @Test
@@ -40,6 +69,21 @@ class TileCacheBuilderTest {
         assertThat(cache).isInstanceOf(TieredTileCache.class);
     }
 
+    @Test
+    void convertToRenderFormatWrapsOnlyMemoryTiers() {
+        TileCache memoryOnly = TileCacheBuilder.create()
+                .memory(500)
+                .convertToRenderFormat(true)
+                .build();
+        TileCache diskOnly = TileCacheBuilder.create()
+                .disk(tempDir.resolve("tiles"), 10000)
+                .convertToRenderFormat(true)
+                .build();
+
+        assertThat(memoryOnly).isInstanceOf(RenderFormatTileCache.class);
+        assertThat(diskOnly).isInstanceOf(TieredTileCache.class);
+    }
+
     @Test
     void buildWithNoConfigurationThrowsIllegalStateException() {
         assertThatThrownBy(() -> TileCacheBuilder.create().build())
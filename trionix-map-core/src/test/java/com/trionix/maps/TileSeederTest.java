@@ -0,0 +1,269 @@
+package com.trionix.maps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.trionix.maps.testing.RecordingTileRetriever;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.framework.junit5.Start;
+
+@ExtendWith(ApplicationExtension.class)
+class TileSeederTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Start
+    private void start(Stage stage) {
+        // Initialize JavaFX toolkit
+    }
+
+    @Test
+    void seedsEveryTileOfTheRegionOnce() {
+        var retriever = new CountingRetriever();
+        var cache = new InMemoryTileCache(1_000);
+        TileSeeder seeder = TileSeeder.builder(retriever, cache)
+                .bounds(GeoPoint.of(-10, -10), GeoPoint.of(10, 10))
+                .zoomRange(0, 3)
+                .maxConcurrentRequests(3)
+                .build();
+
+        TileSeeder.Progress progress = seeder.run();
+
+        // 1 + 4 + 4 + 4 tiles: from zoom 1 on the box touches the four central tiles
+        assertThat(seeder.tileCount()).isEqualTo(13);
+        assertThat(progress.isDone()).isTrue();
+        assertThat(progress.downloaded()).isEqualTo(13);
+        assertThat(retriever.requested).hasSize(13).contains("3/3/3", "3/4/4");
+        assertThat(cache.get(3, 4, 4)).isNotNull();
+        assertThat(retriever.maxInFlight.get()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void skipsTilesAlreadyInCache() {
+        var retriever = new CountingRetriever();
+        var cache = new InMemoryTileCache(1_000);
+        cache.put(0, 0, 0, new WritableImage(1, 1));
+
+        TileSeeder.Progress progress = TileSeeder.builder(retriever, cache)
+                .bounds(GeoPoint.of(-10, -10), GeoPoint.of(10, 10))
+                .zoomRange(0, 1)
+                .build()
+                .run();
+
+        assertThat(progress.skipped()).isEqualTo(1);
+        assertThat(progress.downloaded()).isEqualTo(4);
+        assertThat(retriever.requested).doesNotContain("0/0/0");
+    }
+
+    @Test
+    void regionCrossingAntimeridianWrapsColumns() {
+        var retriever = new CountingRetriever();
+        TileSeeder seeder = TileSeeder.builder(retriever, new InMemoryTileCache(100))
+                .bounds(GeoPoint.of(10, 170), GeoPoint.of(20, -170))
+                .zoomRange(2, 2)
+                .build();
+
+        seeder.run();
+
+        assertThat(retriever.requested).containsExactlyInAnyOrder("2/3/1", "2/0/1");
+    }
+
+    @Test
+    void resumesFromCheckpoint() {
+        Path checkpoint = tempDir.resolve("seed.checkpoint");
+        var first = new CountingRetriever();
+        TileSeeder.Progress done = TileSeeder.builder(first, new InMemoryTileCache(1_000))
+                .bounds(GeoPoint.of(-10, -10), GeoPoint.of(10, 10))
+                .zoomRange(0, 3)
+                .checkpoint(checkpoint)
+                .build()
+                .run();
+        assertThat(done.isDone()).isTrue();
+
+        var second = new CountingRetriever();
+        TileSeeder.Progress resumed = TileSeeder.builder(second, new InMemoryTileCache(1_000))
+                .bounds(GeoPoint.of(-10, -10), GeoPoint.of(10, 10))
+                .zoomRange(0, 3)
+                .checkpoint(checkpoint)
+                .build()
+                .run();
+
+        assertThat(second.requested).isEmpty();
+        assertThat(resumed.skipped()).isEqualTo(13);
+
+        var otherRegion = new CountingRetriever();
+        TileSeeder.builder(otherRegion, new InMemoryTileCache(1_000))
+                .bounds(GeoPoint.of(-10, -10), GeoPoint.of(10, 10))
+                .zoomRange(0, 1)
+                .checkpoint(checkpoint)
+                .build()
+                .run();
+        assertThat(otherRegion.requested).hasSize(5);
+    }
+
+    @Test
+    void resumedRunRetriesFailedTiles() {
+        Path checkpoint = tempDir.resolve("seed.checkpoint");
+        var cache = new InMemoryTileCache(1_000);
+        TileRetriever flaky = (zoom, x, y) -> (zoom == 1 && x == 0 && y == 0) || (zoom == 3 && x == 4 && y == 4)
+                ? CompletableFuture.failedFuture(new IllegalStateException("boom"))
+                : CompletableFuture.completedFuture(new WritableImage(1, 1));
+        TileSeeder.Progress first = TileSeeder.builder(flaky, cache)
+                .bounds(GeoPoint.of(-10, -10), GeoPoint.of(10, 10))
+                .zoomRange(0, 3)
+                .checkpoint(checkpoint)
+                .build()
+                .run();
+        assertThat(first.failed()).isEqualTo(2);
+
+        var retry = new CountingRetriever();
+        TileSeeder.Progress resumed = TileSeeder.builder(retry, cache)
+                .bounds(GeoPoint.of(-10, -10), GeoPoint.of(10, 10))
+                .zoomRange(0, 3)
+                .checkpoint(checkpoint)
+                .build()
+                .run();
+
+        assertThat(retry.requested).containsExactlyInAnyOrder("1/0/0", "3/4/4");
+        assertThat(resumed.downloaded()).isEqualTo(2);
+        assertThat(resumed.isDone()).isTrue();
+    }
+
+    @Test
+    void failedTilesAreCountedAndNotCached() {
+        TileRetriever failing = (zoom, x, y) -> CompletableFuture.failedFuture(new IllegalStateException("boom"));
+        var cache = new InMemoryTileCache(100);
+
+        TileSeeder.Progress progress = TileSeeder.builder(failing, cache)
+                .bounds(GeoPoint.of(-10, -10), GeoPoint.of(10, 10))
+                .zoomRange(0, 1)
+                .build()
+                .run();
+
+        assertThat(progress.failed()).isEqualTo(5);
+        assertThat(progress.isDone()).isTrue();
+        assertThat(cache.get(0, 0, 0)).isNull();
+    }
+
+    @Test
+    void cancelStopsBeforeRemainingTiles() {
+        var retriever = new CountingRetriever();
+        TileSeeder[] seeder = new TileSeeder[1];
+        seeder[0] = TileSeeder.builder(retriever, new InMemoryTileCache(1_000))
+                .bounds(GeoPoint.of(-60, -60), GeoPoint.of(60, 60))
+                .zoomRange(0, 6)
+                .maxConcurrentRequests(1)
+                .progressListener(progress -> {
+                    if (progress.completed() == 2) {
+                        seeder[0].cancel();
+                    }
+                })
+                .build();
+
+        TileSeeder.Progress progress = seeder[0].run();
+
+        assertThat(progress.cancelled()).isTrue();
+        assertThat(progress.completed()).isLessThan(seeder[0].tileCount());
+        assertThat(retriever.requested.size()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void checkpointWriteFailureIsReportedAfterEveryTileIsCountedOnce() throws Exception {
+        Path blocker = Files.createFile(tempDir.resolve("blocker"));
+        List<TileSeeder.Progress> reports = new CopyOnWriteArrayList<>();
+        TileSeeder seeder = TileSeeder.builder(new CountingRetriever(), new InMemoryTileCache(2_000))
+                .bounds(GeoPoint.of(-60, -60), GeoPoint.of(60, 60))
+                .zoomRange(0, 6)
+                .checkpoint(blocker.resolve("seed.checkpoint"))
+                .progressListener(reports::add)
+                .build();
+        assertThat(seeder.tileCount()).isGreaterThan(256);
+
+        assertThatThrownBy(seeder::run)
+                .isInstanceOf(UncheckedIOException.class)
+                .hasMessageContaining("Failed to write seed checkpoint");
+
+        // A failed checkpoint write must not turn a stored tile into a failed one counted twice
+        assertThat(reports).hasSize((int) seeder.tileCount())
+                .allSatisfy(progress -> assertThat(progress.failed()).isZero())
+                .extracting(TileSeeder.Progress::completed)
+                .doesNotHaveDuplicates()
+                .contains(seeder.tileCount())
+                .allSatisfy(completed -> assertThat(completed).isLessThanOrEqualTo(seeder.tileCount()));
+    }
+
+    @Test
+    void interruptCancelsLoadsInFlightBeforeReturning() throws Exception {
+        Path checkpoint = tempDir.resolve("seed.checkpoint");
+        var retriever = new RecordingTileRetriever();
+        TileSeeder seeder = TileSeeder.builder(retriever, new InMemoryTileCache(100))
+                .bounds(GeoPoint.of(-10, -10), GeoPoint.of(10, 10))
+                .zoomRange(0, 3)
+                .maxConcurrentRequests(2)
+                .checkpoint(checkpoint)
+                .build();
+        CompletableFuture<TileSeeder.Progress> result = new CompletableFuture<>();
+        Thread runner = new Thread(() -> result.complete(seeder.run()));
+        runner.start();
+
+        List<RecordingTileRetriever.LoadRequest> inFlight = retriever.awaitRequests(2, Duration.ofSeconds(5));
+        runner.interrupt();
+        TileSeeder.Progress progress = result.get(5, TimeUnit.SECONDS);
+
+        assertThat(progress.cancelled()).isTrue();
+        assertThat(progress.completed()).isZero();
+        assertThat(inFlight).allSatisfy(request -> assertThat(request.future()).isCancelled());
+        assertThat(Files.readAllLines(checkpoint)).last().isEqualTo("0");
+    }
+
+    @Test
+    void builderRejectsInvalidArguments() {
+        var builder = TileSeeder.builder(new CountingRetriever(), new InMemoryTileCache(1));
+
+        assertThatThrownBy(() -> builder.zoomRange(3, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.maxConcurrentRequests(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maxConcurrentRequests must be positive");
+        assertThatThrownBy(() -> builder.bounds(GeoPoint.of(10, 0), GeoPoint.of(0, 10)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(builder::build)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("bounds must be set");
+    }
+
+    private static final class CountingRetriever implements TileRetriever {
+        final Set<String> requested = ConcurrentHashMap.newKeySet();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        public CompletableFuture<Image> loadTile(int zoom, long x, long y) {
+            requested.add(zoom + "/" + x + "/" + y);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                Image image = new WritableImage(1, 1);
+                inFlight.decrementAndGet();
+                return image;
+            });
+        }
+    }
+}
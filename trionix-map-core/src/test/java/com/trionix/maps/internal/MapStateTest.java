@@ -1,9 +1,11 @@
 package com.trionix.maps.internal;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 
 import com.trionix.maps.internal.projection.Projection;
 import com.trionix.maps.internal.tiles.TileCoordinate;
+import com.trionix.maps.internal.tiles.TileKey;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 
@@ -54,6 +56,110 @@ class MapStateTest {
         assertThat(tiles).allMatch(tile -> tile.y() >= 0 && tile.y() <= maxTileIndex);
     }
 
+    @Test
+    void reusesVisibleTilesWhilePanningWithinSameTileRange() {
+        MapState state = new MapState();
+        state.setCenterLat(10.0);
+        state.setCenterLon(10.0);
+        state.setZoom(6.0);
+        state.setViewportSize(300.0, 200.0);
+
+        List<TileCoordinate> first = state.visibleTiles();
+        state.setCenterLon(10.0001);
+        List<TileCoordinate> second = state.visibleTiles();
+
+        assertThat(second).isSameAs(first);
+        assertThat(state.visibleTileKeys().size()).isEqualTo(first.size());
+        first.forEach(tile -> assertThat(state.visibleTileKeys().get(TileKey.of(tile))).isEqualTo(tile));
+    }
+
+    @Test
+    void dropsWrappedDuplicatesWhenViewportIsWiderThanWorld() {
+        MapState state = new MapState();
+        state.setCenterLat(0.0);
+        state.setCenterLon(0.0);
+        state.setZoom(0.0);
+        state.setViewportSize(1024.0, 256.0);
+
+        assertThat(state.visibleTiles()).containsExactly(new TileCoordinate(0, 0, 0));
+    }
+
+    @Test
+    void reportsCenterInFractionalTileUnits() {
+        MapState state = new MapState();
+        state.setCenterLat(0.0);
+        state.setCenterLon(0.0);
+        state.setZoom(3.4);
+
+        assertThat(state.centerTileX()).isCloseTo(4.0, within(1e-9));
+        assertThat(state.centerTileY()).isCloseTo(4.0, within(1e-9));
+    }
+
+    @Test
+    void prefetchRingSurroundsVisibleTiles() {
+        MapState state = new MapState();
+        state.setCenterLat(0.0);
+        state.setCenterLon(0.0);
+        state.setZoom(3.0);
+        state.setViewportSize(256.0, 256.0);
+
+        List<TileCoordinate> prefetch = state.prefetchTiles(1, 0.5);
+
+        assertThat(prefetch).hasSize(12).doesNotContainAnyElementsOf(state.visibleTiles());
+        assertThat(prefetch).allSatisfy(tile -> {
+            assertThat(tile.x()).isBetween(2L, 5L);
+            assertThat(tile.y()).isBetween(2L, 5L);
+        });
+        assertThat(state.prefetchTiles(1, 0.5)).isSameAs(prefetch);
+    }
+
+    @Test
+    void prefetchExtendsInPanDirection() {
+        MapState state = new MapState();
+        state.setCenterLat(0.0);
+        state.setCenterLon(0.0);
+        state.setZoom(3.0);
+        state.setViewportSize(256.0, 256.0);
+        state.setPanVelocity(512.0, 0.0);
+
+        List<TileCoordinate> prefetch = state.prefetchTiles(0, 0.5);
+
+        assertThat(prefetch).containsExactly(new TileCoordinate(3, 5, 3), new TileCoordinate(3, 5, 4));
+        assertThat(state.prefetchTiles(0, 0.0)).isEmpty();
+    }
+
+    @Test
+    void zoomPyramidContainsParentsAndChildrenOfVisibleTiles() {
+        MapState state = new MapState();
+        state.setCenterLat(0.0);
+        state.setCenterLon(0.0);
+        state.setZoom(3.0);
+        state.setViewportSize(256.0, 256.0);
+
+        List<TileCoordinate> pyramid = state.zoomPyramidTiles();
+
+        assertThat(pyramid).filteredOn(tile -> tile.zoom() == 2).containsExactly(
+                new TileCoordinate(2, 1, 1),
+                new TileCoordinate(2, 2, 1),
+                new TileCoordinate(2, 1, 2),
+                new TileCoordinate(2, 2, 2));
+        assertThat(pyramid).filteredOn(tile -> tile.zoom() == 4).hasSize(16)
+                .allSatisfy(tile -> {
+                    assertThat(tile.x()).isBetween(6L, 9L);
+                    assertThat(tile.y()).isBetween(6L, 9L);
+                });
+        assertThat(state.zoomPyramidTiles()).isSameAs(pyramid);
+    }
+
+    @Test
+    void zoomPyramidSkipsLevelsOutsideZoomRange() {
+        MapState state = new MapState();
+        state.setZoom(0.0);
+        state.setViewportSize(256.0, 256.0);
+
+        assertThat(state.zoomPyramidTiles()).extracting(TileCoordinate::zoom).containsOnly(1);
+    }
+
     @Test
     void returnsEmptyListWhenViewportIsZeroSized() {
         MapState state = new MapState();
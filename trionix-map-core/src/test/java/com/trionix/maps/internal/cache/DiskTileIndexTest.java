@@ -0,0 +1,134 @@
+package com.trionix.maps.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DiskTileIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void evictsLeastRecentlyUsedEntry() throws IOException {
+        try (DiskTileIndex index = DiskTileIndex.open(tempDir.resolve("index"), 2)) {
+            index.add(1L, 10);
+            index.add(2L, 20);
+            index.touch(1L);
+
+            long[] evicted = index.add(3L, 30);
+
+            assertThat(evicted).containsExactly(2L);
+            assertThat(index.size()).isEqualTo(2);
+            assertThat(index.totalBytes()).isEqualTo(40);
+        }
+    }
+
+    @Test
+    void replaysJournalOnReopen() throws IOException {
+        Path journal = tempDir.resolve("index");
+        try (DiskTileIndex index = DiskTileIndex.open(journal, 10)) {
+            assertThat(index.wasRestored()).isFalse();
+            index.add(1L, 10);
+            index.add(2L, 20);
+            index.add(3L, 30);
+            index.remove(2L);
+        }
+
+        try (DiskTileIndex reopened = DiskTileIndex.open(journal, 2)) {
+            assertThat(reopened.wasRestored()).isTrue();
+            assertThat(reopened.contains(1L)).isTrue();
+            assertThat(reopened.contains(2L)).isFalse();
+            assertThat(reopened.totalBytes()).isEqualTo(40);
+            assertThat(reopened.add(4L, 40)).containsExactly(1L);
+        }
+    }
+
+    @Test
+    void bufferedTouchesAreWrittenOnClose() throws IOException {
+        Path journal = tempDir.resolve("index");
+        try (DiskTileIndex index = DiskTileIndex.open(journal, 10)) {
+            index.add(1L, 10);
+            index.add(2L, 20);
+            long sizeBeforeTouch = Files.size(journal);
+            index.touch(1L);
+            assertThat(Files.size(journal)).isEqualTo(sizeBeforeTouch);
+        }
+
+        try (DiskTileIndex reopened = DiskTileIndex.open(journal, 2)) {
+            assertThat(reopened.add(3L, 30)).containsExactly(2L);
+        }
+    }
+
+    @Test
+    void discardsTornTrailingRecord() throws IOException {
+        Path journal = tempDir.resolve("index");
+        try (DiskTileIndex index = DiskTileIndex.open(journal, 10)) {
+            index.add(1L, 10);
+            index.add(2L, 20);
+        }
+        Files.write(journal, new byte[] {1, 0, 0}, StandardOpenOption.APPEND);
+
+        try (DiskTileIndex reopened = DiskTileIndex.open(journal, 10)) {
+            assertThat(reopened.wasRestored()).isTrue();
+            assertThat(reopened.size()).isEqualTo(2);
+            reopened.add(3L, 30);
+        }
+        try (DiskTileIndex reopened = DiskTileIndex.open(journal, 10)) {
+            assertThat(reopened.size()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void rejectsJournalWithUnknownHeader() throws IOException {
+        Path journal = tempDir.resolve("index");
+        Files.write(journal, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+        try (DiskTileIndex index = DiskTileIndex.open(journal, 10)) {
+            assertThat(index.wasRestored()).isFalse();
+            assertThat(index.size()).isZero();
+        }
+    }
+
+    @Test
+    void compactsJournalWhenMostRecordsAreObsolete() throws IOException {
+        Path journal = tempDir.resolve("index");
+        try (DiskTileIndex index = DiskTileIndex.open(journal, 4)) {
+            for (long key = 0; key < 5_000; key++) {
+                index.add(key, 100);
+            }
+        }
+
+        assertThat(Files.size(journal)).isLessThan(5_000L * 13);
+        try (DiskTileIndex reopened = DiskTileIndex.open(journal, 4)) {
+            assertThat(reopened.size()).isEqualTo(4);
+            assertThat(reopened.contains(4_999L)).isTrue();
+            assertThat(reopened.add(5_000L, 100)).containsExactly(4_996L);
+        }
+    }
+
+    @Test
+    void rebuildReplacesEntriesEldestFirst() throws IOException {
+        try (DiskTileIndex index = DiskTileIndex.open(tempDir.resolve("index"), 3)) {
+            index.add(9L, 1);
+            index.rebuild(new long[] {1L, 2L, 3L}, new long[] {10, 20, 30});
+
+            assertThat(index.contains(9L)).isFalse();
+            assertThat(index.totalBytes()).isEqualTo(60);
+            assertThat(index.add(4L, 40)).containsExactly(1L);
+        }
+    }
+
+    @Test
+    void nonPositiveCapacityThrowsIllegalArgumentException() {
+        assertThatThrownBy(() -> DiskTileIndex.open(tempDir.resolve("index"), 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maxEntries must be positive");
+    }
+}
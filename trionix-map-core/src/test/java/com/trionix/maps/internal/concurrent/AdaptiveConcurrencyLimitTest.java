@@ -0,0 +1,59 @@
+package com.trionix.maps.internal.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = 20_000_000L;
+
+    @Test
+    void growsWhileLatencyStaysAtBaselineAndLimitIsUsed() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 10, 4);
+
+        assertThat(limit.onSample(FAST, false, 4)).isEqualTo(5);
+        assertThat(limit.onSample(FAST, false, 5)).isEqualTo(6);
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(FAST, false, 10);
+        }
+
+        assertThat(limit.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void doesNotGrowWhileMostlyIdle() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 10, 8);
+
+        assertThat(limit.onSample(FAST, false, 1)).isEqualTo(8);
+    }
+
+    @Test
+    void backsOffWhenLatencyClimbs() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 100, 50);
+        limit.onSample(FAST, false, 1);
+
+        assertThat(limit.onSample(FAST * 3, false, 50)).isEqualTo(45);
+    }
+
+    @Test
+    void halvesOnFailureButNotBelowMinimum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(3, 100, 16);
+
+        assertThat(limit.onSample(FAST, true, 16)).isEqualTo(8);
+        assertThat(limit.onSample(FAST, true, 8)).isEqualTo(4);
+        assertThat(limit.onSample(FAST, true, 4)).isEqualTo(3);
+    }
+
+    @Test
+    void rejectsInvalidBounds() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(0, 4, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(4, 2, 3))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(1, 4, 5))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("initialLimit must be between minLimit and maxLimit");
+    }
+}
@@ -0,0 +1,113 @@
+package com.trionix.maps.internal.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+class AsyncPermitQueueTest {
+
+    @Test
+    void grantsFreePermitsImmediately() {
+        AsyncPermitQueue queue = new AsyncPermitQueue(2);
+
+        assertThat(queue.acquire()).isDone();
+        assertThat(queue.tryAcquire()).isTrue();
+        assertThat(queue.tryAcquire()).isFalse();
+        assertThat(queue.availablePermits()).isZero();
+    }
+
+    @Test
+    void releaseGrantsWaitersInArrivalOrder() {
+        AsyncPermitQueue queue = new AsyncPermitQueue(1);
+        queue.acquire();
+        CompletableFuture<Void> first = queue.acquire();
+        CompletableFuture<Void> second = queue.acquire();
+        assertThat(queue.queueLength()).isEqualTo(2);
+
+        queue.release();
+
+        assertThat(first).isDone();
+        assertThat(second).isNotDone();
+        assertThat(queue.queueLength()).isEqualTo(1);
+        assertThat(queue.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void cancelledWaitersAreSkipped() {
+        AsyncPermitQueue queue = new AsyncPermitQueue(1);
+        queue.acquire();
+        CompletableFuture<Void> cancelled = queue.acquire();
+        CompletableFuture<Void> waiting = queue.acquire();
+
+        cancelled.cancel(false);
+        assertThat(queue.queueLength()).isEqualTo(1);
+        queue.release();
+
+        assertThat(waiting).isDone();
+        queue.release();
+        assertThat(queue.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void massCancellationKeepsQueueUsable() {
+        AsyncPermitQueue queue = new AsyncPermitQueue(1);
+        queue.acquire();
+        List<CompletableFuture<Void>> waiters = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            waiters.add(queue.acquire());
+        }
+        CompletableFuture<Void> last = queue.acquire();
+
+        waiters.forEach(waiter -> waiter.cancel(false));
+        queue.release();
+
+        assertThat(queue.queueLength()).isZero();
+        assertThat(last).isDone();
+    }
+
+    @Test
+    void growingPermitsGrantsWaiters() {
+        AsyncPermitQueue queue = new AsyncPermitQueue(1);
+        queue.acquire();
+        CompletableFuture<Void> first = queue.acquire();
+        CompletableFuture<Void> second = queue.acquire();
+
+        queue.setPermits(3);
+
+        assertThat(first).isDone();
+        assertThat(second).isDone();
+        assertThat(queue.inUse()).isEqualTo(3);
+    }
+
+    @Test
+    void shrinkingPermitsKeepsGrantedOnes() {
+        AsyncPermitQueue queue = new AsyncPermitQueue(3);
+        queue.tryAcquire();
+        queue.tryAcquire();
+        queue.tryAcquire();
+
+        queue.setPermits(1);
+        assertThat(queue.availablePermits()).isEqualTo(-2);
+        queue.release();
+        queue.release();
+
+        assertThat(queue.tryAcquire()).isFalse();
+        queue.release();
+        assertThat(queue.tryAcquire()).isTrue();
+        assertThat(queue.inUse()).isEqualTo(1);
+    }
+
+    @Test
+    void releaseWithoutAcquireThrows() {
+        AsyncPermitQueue queue = new AsyncPermitQueue(1);
+
+        assertThatThrownBy(queue::release).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new AsyncPermitQueue(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("permits must be positive");
+    }
+}
@@ -0,0 +1,64 @@
+package com.trionix.maps.internal.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void allowsBurstThenSpacesRequests() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(10, 2, clock::get);
+
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isEqualTo(100 * MILLIS);
+        assertThat(bucket.reserve()).isEqualTo(200 * MILLIS);
+    }
+
+    @Test
+    void refillsUpToBurstWhileIdle() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(10, 2, clock::get);
+        bucket.reserve();
+        bucket.reserve();
+
+        clock.addAndGet(10_000 * MILLIS);
+
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isEqualTo(100 * MILLIS);
+    }
+
+    @Test
+    void cancelledReservationReturnsItsToken() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(1, 1, clock::get);
+        assertThat(bucket.acquire()).isDone();
+        CompletableFuture<Void> waiting = bucket.acquire();
+        assertThat(waiting).isNotDone();
+
+        waiting.cancel(false);
+
+        assertThat(bucket.reserve()).isEqualTo(1_000 * MILLIS);
+    }
+
+    @Test
+    void rejectsInvalidRates() {
+        assertThatThrownBy(() -> new TokenBucket(0, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("requestsPerSecond must be positive and finite");
+        assertThatThrownBy(() -> new TokenBucket(Double.POSITIVE_INFINITY, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(5, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("burst must be positive");
+    }
+}
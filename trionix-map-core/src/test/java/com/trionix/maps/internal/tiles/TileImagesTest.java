@@ -0,0 +1,78 @@
+package com.trionix.maps.internal.tiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.trionix.maps.InMemoryTileCache;
+import com.trionix.maps.internal.cache.RenderFormatTileCache;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.stage.Stage;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.framework.junit5.Start;
+
+@ExtendWith(ApplicationExtension.class)
+class TileImagesTest {
+
+    @Start
+    private void start(Stage stage) {
+        // Initialize JavaFX toolkit
+    }
+
+    @Test
+    void convertsOpaqueTilesToPremultipliedBgra() throws IOException {
+        byte[] png = opaquePng(0x336699);
+        Image decoded = new Image(new ByteArrayInputStream(png));
+        assertThat(decoded.getPixelReader().getPixelFormat().getType()).isEqualTo(PixelFormat.Type.BYTE_RGB);
+
+        Image tile = TileImages.toRenderFormat(decoded);
+
+        assertThat(tile).isInstanceOf(WritableImage.class);
+        assertThat(tile.getPixelReader().getPixelFormat().getType()).isEqualTo(PixelFormat.Type.BYTE_BGRA_PRE);
+        assertThat(tile.getWidth()).isEqualTo(256.0);
+        assertThat(tile.getPixelReader().getArgb(17, 200)).isEqualTo(decoded.getPixelReader().getArgb(17, 200));
+    }
+
+    @Test
+    void keepsImagesThatNeedNoConversion() {
+        Image placeholder = new Image(TileImagesTest.class.getResourceAsStream("/com/trionix/maps/placeholder-tile.png"));
+        Image broken = new Image(new ByteArrayInputStream(new byte[] {1, 2, 3}));
+        WritableImage writable = new WritableImage(4, 4);
+
+        assertThat(placeholder.getPixelReader().getPixelFormat().getType()).isEqualTo(PixelFormat.Type.BYTE_BGRA_PRE);
+        assertThat(TileImages.toRenderFormat(placeholder)).isSameAs(placeholder);
+        assertThat(TileImages.toRenderFormat(broken)).isSameAs(broken);
+        assertThat(TileImages.toRenderFormat(writable)).isSameAs(writable);
+    }
+
+    @Test
+    void renderFormatCacheStoresConvertedTiles() throws IOException {
+        Image decoded = new Image(new ByteArrayInputStream(opaquePng(0x336699)));
+        var cache = new RenderFormatTileCache(new InMemoryTileCache(4));
+
+        cache.put(3, 1, 2, decoded);
+
+        Image stored = cache.peek(3, 1, 2);
+        assertThat(stored).isInstanceOf(WritableImage.class);
+        assertThat(stored.getPixelReader().getPixelFormat().getType()).isEqualTo(PixelFormat.Type.BYTE_BGRA_PRE);
+    }
+
+    private static byte[] opaquePng(int rgb) throws IOException {
+        BufferedImage image = new BufferedImage(256, 256, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 256; y++) {
+            for (int x = 0; x < 256; x++) {
+                image.setRGB(x, y, rgb ^ (x << 8) ^ y);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,38 @@
+package com.trionix.maps.internal.tiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class TileKeyTest {
+
+    @Test
+    void roundTripsTileIndices() {
+        long maxIndex = (1L << TileKey.MAX_ZOOM) - 1;
+        long key = TileKey.pack(TileKey.MAX_ZOOM, maxIndex, 12345L);
+
+        assertThat(key).isNotNegative();
+        assertThat(TileKey.zoom(key)).isEqualTo(TileKey.MAX_ZOOM);
+        assertThat(TileKey.x(key)).isEqualTo(maxIndex);
+        assertThat(TileKey.y(key)).isEqualTo(12345L);
+        assertThat(TileKey.toCoordinate(key)).isEqualTo(new TileCoordinate(TileKey.MAX_ZOOM, maxIndex, 12345L));
+    }
+
+    @Test
+    void distinguishesNeighbouringTiles() {
+        assertThat(TileKey.pack(3, 1, 2)).isNotEqualTo(TileKey.pack(3, 2, 1));
+        assertThat(TileKey.pack(3, 1, 2)).isNotEqualTo(TileKey.pack(4, 1, 2));
+        assertThat(TileKey.of(new TileCoordinate(3, 1, 2))).isEqualTo(TileKey.pack(3, 1, 2));
+    }
+
+    @Test
+    void rejectsIndicesOutsidePackedRange() {
+        assertThatThrownBy(() -> TileKey.pack(TileKey.MAX_ZOOM + 1, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TileKey.pack(1, -1, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TileKey.pack(1, 0, 1L << 29))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -2,16 +2,28 @@ package com.trionix.maps.internal.tiles;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.trionix.maps.EncodedTile;
+import com.trionix.maps.EncodedTileRetriever;
+import com.trionix.maps.EncodedTileRetriever.Revalidation;
 import com.trionix.maps.InMemoryTileCache;
+import com.trionix.maps.TileCache;
+import com.trionix.maps.TileMetadata;
+import com.trionix.maps.TileRetrievalException;
 import com.trionix.maps.TileRetriever;
+import com.trionix.maps.internal.MapState;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
+import javafx.application.Platform;
 import javafx.scene.image.Image;
 import javafx.scene.image.WritableImage;
 import javafx.stage.Stage;
@@ -179,6 +191,489 @@ class TileManagerTest {
         WaitForAsyncUtils.waitForFxEvents();
     }
 
+    @Test
+    void loadsTilesNearestToFocusFirst() throws InterruptedException {
+        WaitForAsyncUtils.waitForFxEvents();
+
+        RecordingRetriever retriever = new RecordingRetriever();
+        TileManager manager = new TileManager(new InMemoryTileCache(64), retriever, 1);
+        List<TileCoordinate> tiles = new ArrayList<>();
+        for (long y = 0; y < 5; y++) {
+            for (long x = 0; x < 5; x++) {
+                tiles.add(new TileCoordinate(4, x, y));
+            }
+        }
+
+        manager.refreshTiles(tiles, 4, 2.5, 2.5, (tile, img) -> { });
+
+        double previousDistance = -1.0;
+        for (int i = 0; i < tiles.size(); i++) {
+            LoadRequest request = retriever.takeRequest(Duration.ofSeconds(1));
+            assertThat(retriever.requestCount()).isZero();
+            double dx = request.coordinate().x() - 2;
+            double dy = request.coordinate().y() - 2;
+            double distance = dx * dx + dy * dy;
+            assertThat(distance).isGreaterThanOrEqualTo(previousDistance);
+            previousDistance = distance;
+            request.future().complete(getSampleImage());
+        }
+        assertThat(manager.queuedLoadCount()).isZero();
+        WaitForAsyncUtils.waitForFxEvents();
+    }
+
+    @Test
+    void reprioritizesQueuedLoadsWhenFocusMoves() throws InterruptedException {
+        WaitForAsyncUtils.waitForFxEvents();
+
+        RecordingRetriever retriever = new RecordingRetriever();
+        TileManager manager = new TileManager(new InMemoryTileCache(64), retriever, 1);
+        List<TileCoordinate> row = new ArrayList<>();
+        for (long x = 0; x < 8; x++) {
+            row.add(new TileCoordinate(5, x, 0));
+        }
+
+        manager.refreshTiles(row, 5, 0.5, 0.5, (tile, img) -> { });
+        LoadRequest first = retriever.takeRequest(Duration.ofSeconds(1));
+        assertThat(first.coordinate()).isEqualTo(new TileCoordinate(5, 0, 0));
+
+        manager.refreshTiles(row, 5, 7.5, 0.5, (tile, img) -> { });
+        assertThat(manager.queuedLoadCount()).isEqualTo(7);
+        first.future().complete(getSampleImage());
+
+        LoadRequest next = retriever.takeRequest(Duration.ofSeconds(1));
+        assertThat(next.coordinate()).isEqualTo(new TileCoordinate(5, 7, 0));
+        next.future().complete(getSampleImage());
+        WaitForAsyncUtils.waitForFxEvents();
+    }
+
+    @Test
+    void loadsCurrentZoomBeforeStaleZoom() throws InterruptedException {
+        WaitForAsyncUtils.waitForFxEvents();
+
+        RecordingRetriever retriever = new RecordingRetriever();
+        TileManager manager = new TileManager(new InMemoryTileCache(64), retriever, 1);
+        List<TileCoordinate> staleTiles = List.of(
+                new TileCoordinate(3, 0, 0), new TileCoordinate(3, 1, 0), new TileCoordinate(3, 2, 0));
+        List<TileCoordinate> currentTiles = List.of(
+                new TileCoordinate(4, 6, 6), new TileCoordinate(4, 7, 7));
+
+        manager.refreshTiles(staleTiles, 3, 0.5, 0.5, (tile, img) -> { });
+        LoadRequest blocker = retriever.takeRequest(Duration.ofSeconds(1));
+        List<TileCoordinate> bothZooms = new ArrayList<>(staleTiles);
+        bothZooms.addAll(currentTiles);
+        manager.refreshTiles(bothZooms, 4, 0.5, 0.5, (tile, img) -> { });
+        blocker.future().complete(getSampleImage());
+
+        for (int i = 0; i < currentTiles.size(); i++) {
+            LoadRequest request = retriever.takeRequest(Duration.ofSeconds(1));
+            assertThat(request.coordinate().zoom()).isEqualTo(4);
+            request.future().complete(getSampleImage());
+        }
+        for (int i = 1; i < staleTiles.size(); i++) {
+            LoadRequest request = retriever.takeRequest(Duration.ofSeconds(1));
+            assertThat(request.coordinate().zoom()).isEqualTo(3);
+            request.future().complete(getSampleImage());
+        }
+        WaitForAsyncUtils.waitForFxEvents();
+    }
+
+    @Test
+    void limitsConcurrentRequests() throws InterruptedException {
+        WaitForAsyncUtils.waitForFxEvents();
+
+        RecordingRetriever retriever = new RecordingRetriever();
+        TileManager manager = new TileManager(new InMemoryTileCache(64), retriever, 2);
+        List<TileCoordinate> tiles = List.of(
+                new TileCoordinate(6, 0, 0), new TileCoordinate(6, 1, 0),
+                new TileCoordinate(6, 2, 0), new TileCoordinate(6, 3, 0));
+
+        manager.refreshTiles(tiles, (tile, img) -> { });
+
+        assertThat(retriever.requestCount()).isEqualTo(2);
+        assertThat(manager.queuedLoadCount()).isEqualTo(2);
+        retriever.takeRequest(Duration.ofSeconds(1)).future().complete(getSampleImage());
+        assertThat(retriever.requestCount()).isEqualTo(2);
+        assertThat(manager.queuedLoadCount()).isEqualTo(1);
+        WaitForAsyncUtils.waitForFxEvents();
+    }
+
+    @Test
+    void dropsQueuedLoadsNoLongerRequested() throws InterruptedException {
+        WaitForAsyncUtils.waitForFxEvents();
+
+        RecordingRetriever retriever = new RecordingRetriever();
+        TileManager manager = new TileManager(new InMemoryTileCache(64), retriever, 1);
+        TileCoordinate kept = new TileCoordinate(7, 10, 10);
+        List<TileCoordinate> oldView = List.of(
+                kept, new TileCoordinate(7, 11, 10), new TileCoordinate(7, 12, 10));
+
+        manager.refreshTiles(oldView, 7, 10.5, 10.5, (tile, img) -> { });
+        LoadRequest first = retriever.takeRequest(Duration.ofSeconds(1));
+        assertThat(first.coordinate()).isEqualTo(kept);
+        assertThat(manager.queuedLoadCount()).isEqualTo(2);
+
+        TileCoordinate fresh = new TileCoordinate(7, 40, 40);
+        manager.refreshTiles(List.of(kept, fresh), 7, 10.5, 10.5, (tile, img) -> { });
+        assertThat(manager.queuedLoadCount()).isEqualTo(1);
+        assertThat(first.future()).isNotCancelled();
+
+        first.future().complete(getSampleImage());
+        LoadRequest next = retriever.takeRequest(Duration.ofSeconds(1));
+        assertThat(next.coordinate()).isEqualTo(fresh);
+        next.future().complete(getSampleImage());
+        Thread.sleep(100);
+        assertThat(retriever.requestCount()).isZero();
+        WaitForAsyncUtils.waitForFxEvents();
+    }
+
+    @Test
+    void cancelsInFlightLoadsOutsideNewView() throws InterruptedException {
+        WaitForAsyncUtils.waitForFxEvents();
+
+        RecordingRetriever retriever = new RecordingRetriever();
+        TileManager manager = new TileManager(new InMemoryTileCache(64), retriever, 1);
+        TileCoordinate offScreen = new TileCoordinate(8, 1, 1);
+        TileCoordinate onScreen = new TileCoordinate(8, 200, 200);
+
+        manager.refreshTiles(List.of(offScreen), (tile, img) -> { });
+        LoadRequest stale = retriever.takeRequest(Duration.ofSeconds(1));
+
+        manager.refreshTiles(List.of(onScreen), (tile, img) -> { });
+
+        assertThat(stale.future()).isCancelled();
+        LoadRequest current = retriever.takeRequest(Duration.ofSeconds(1));
+        assertThat(current.coordinate()).isEqualTo(onScreen);
+        current.future().complete(getSampleImage());
+        WaitForAsyncUtils.waitForFxEvents();
+        assertThat(manager.cachedTile(offScreen)).isNull();
+    }
+
+    @Test
+    void prefetchWaitsForVisibleTilesAndStaysWithinBudget() throws InterruptedException {
+        WaitForAsyncUtils.waitForFxEvents();
+
+        RecordingRetriever retriever = new RecordingRetriever();
+        TileManager manager = new TileManager(new InMemoryTileCache(64), retriever, 4);
+        manager.setPrefetchBudget(1);
+        MapState state = new MapState();
+        state.setCenterLat(0.0);
+        state.setCenterLon(0.0);
+        state.setZoom(3.0);
+        state.setViewportSize(256.0, 256.0);
+        List<TileCoordinate> visible = state.visibleTiles();
+
+        manager.refreshTiles(state, (tile, img) -> { });
+
+        List<LoadRequest> visibleRequests = new ArrayList<>();
+        for (int i = 0; i < visible.size(); i++) {
+            visibleRequests.add(retriever.takeRequest(Duration.ofSeconds(1)));
+        }
+        assertThat(visibleRequests).extracting(LoadRequest::coordinate)
+                .containsExactlyInAnyOrderElementsOf(visible);
+        assertThat(manager.queuedLoadCount()).isEqualTo(12);
+
+        visibleRequests.forEach(request -> request.future().complete(getSampleImage()));
+        LoadRequest prefetch = retriever.takeRequest(Duration.ofSeconds(1));
+        assertThat(visible).doesNotContain(prefetch.coordinate());
+        Thread.sleep(100);
+        assertThat(retriever.requestCount()).isZero();
+
+        prefetch.future().complete(getSampleImage());
+        LoadRequest nextPrefetch = retriever.takeRequest(Duration.ofSeconds(1));
+        assertThat(manager.queuedLoadCount()).isEqualTo(10);
+        nextPrefetch.future().complete(getSampleImage());
+        WaitForAsyncUtils.waitForFxEvents();
+    }
+
+    @Test
+    void zoomPrefetchWaitsUntilVisibleTilesAreLoaded() throws InterruptedException {
+        WaitForAsyncUtils.waitForFxEvents();
+
+        RecordingRetriever retriever = new RecordingRetriever();
+        TileManager manager = new TileManager(new InMemoryTileCache(64), retriever, 4);
+        manager.setPrefetchMargin(0);
+        manager.setPrefetchBudget(2);
+        manager.setZoomPrefetchEnabled(true);
+        MapState state = new MapState();
+        state.setCenterLat(0.0);
+        state.setCenterLon(0.0);
+        state.setZoom(3.0);
+        state.setViewportSize(256.0, 256.0);
+
+        manager.refreshTiles(state, (tile, img) -> { });
+
+        List<LoadRequest> visibleRequests = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            visibleRequests.add(retriever.takeRequest(Duration.ofSeconds(1)));
+        }
+        assertThat(visibleRequests).allSatisfy(request ->
+                assertThat(request.coordinate().zoom()).isEqualTo(3));
+        assertThat(manager.queuedLoadCount()).isEqualTo(20);
+
+        for (int i = 0; i < 3; i++) {
+            visibleRequests.get(i).future().complete(getSampleImage());
+        }
+        Thread.sleep(100);
+        assertThat(retriever.requestCount()).isZero();
+
+        visibleRequests.get(3).future().complete(getSampleImage());
+        LoadRequest first = retriever.takeRequest(Duration.ofSeconds(1));
+        LoadRequest second = retriever.takeRequest(Duration.ofSeconds(1));
+        assertThat(first.coordinate().zoom()).isNotEqualTo(3);
+        assertThat(second.coordinate().zoom()).isNotEqualTo(3);
+        assertThat(retriever.requestCount()).isZero();
+        first.future().complete(getSampleImage());
+        second.future().complete(getSampleImage());
+        WaitForAsyncUtils.waitForFxEvents();
+    }
+
+    @Test
+    void raisingMaxConcurrentLoadsDispatchesQueuedTiles() throws InterruptedException {
+        WaitForAsyncUtils.waitForFxEvents();
+        RecordingRetriever retriever = new RecordingRetriever();
+        TileManager manager = new TileManager(new InMemoryTileCache(10), retriever, 1);
+
+        manager.refreshTiles(List.of(new TileCoordinate(2, 0, 0), new TileCoordinate(2, 1, 0)),
+                (tile, img) -> { });
+        retriever.takeRequest(Duration.ofSeconds(1));
+        assertThat(manager.queuedLoadCount()).isEqualTo(1);
+
+        manager.setMaxConcurrentLoads(2);
+
+        retriever.takeRequest(Duration.ofSeconds(1));
+        assertThat(manager.queuedLoadCount()).isZero();
+        assertThat(manager.getMaxConcurrentLoads()).isEqualTo(2);
+    }
+
+    @Test
+    void readsSlowCacheTierAsBackgroundStageBeforeRetriever() throws InterruptedException {
+        WaitForAsyncUtils.waitForFxEvents();
+        Image image = getSampleImage();
+        SlowTierCache cache = new SlowTierCache();
+        RecordingRetriever retriever = new RecordingRetriever();
+        TileManager manager = new TileManager(cache, retriever, 4);
+        TileCoordinate onDisk = new TileCoordinate(3, 1, 1);
+        TileCoordinate missing = new TileCoordinate(3, 2, 1);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        manager.refreshTiles(List.of(onDisk, missing), (tile, img) -> {
+            assertThat(tile).isEqualTo(onDisk);
+            assertThat(img).isSameAs(image);
+            latch.countDown();
+        });
+
+        assertThat(manager.cachedTile(onDisk)).isNull();
+        cache.takeLookup(onDisk).complete(image);
+        cache.takeLookup(missing).complete(null);
+
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        LoadRequest request = retriever.takeRequest(Duration.ofSeconds(1));
+        assertThat(request.coordinate()).isEqualTo(missing);
+        assertThat(retriever.requestCount()).isZero();
+        assertThat(cache.puts).isEmpty();
+    }
+
+    @Test
+    void expiredCachedTileIsDeliveredThenReplacedByBackgroundRevalidation() throws Exception {
+        WaitForAsyncUtils.waitForFxEvents();
+        Image stale = getSampleImage();
+        Image fresh = new WritableImage(256, 256);
+        SlowTierCache cache = new SlowTierCache();
+        TileCoordinate coordinate = new TileCoordinate(4, 2, 2);
+        TileMetadata expired = new TileMetadata("\"v1\"", null, Instant.EPOCH);
+        cache.metadata.put(coordinate, expired);
+        RevalidatingRetriever retriever = new RevalidatingRetriever();
+        TileManager manager = new TileManager(cache, retriever, 4);
+        BlockingQueue<Image> delivered = new LinkedBlockingDeque<>();
+
+        manager.refreshTiles(List.of(coordinate), (tile, img) -> delivered.add(img));
+        cache.takeLookup(coordinate).complete(stale);
+
+        assertThat(delivered.poll(1, TimeUnit.SECONDS)).isSameAs(stale);
+        Revalidate request = retriever.revalidations.poll(1, TimeUnit.SECONDS);
+        assertThat(request).isNotNull();
+        assertThat(request.cached()).isEqualTo(expired);
+        TileMetadata current = new TileMetadata("\"v2\"", null, null);
+        request.future().complete(Revalidation.modified(new EncodedTile(fresh, new byte[] {1}, current)));
+
+        assertThat(delivered.poll(1, TimeUnit.SECONDS)).isSameAs(fresh);
+        assertThat(cache.metadata.get(coordinate)).isEqualTo(current);
+    }
+
+    @Test
+    void withoutStaleWhileRevalidateNotModifiedTileIsDeliveredAfterCheck() throws Exception {
+        WaitForAsyncUtils.waitForFxEvents();
+        Image cached = getSampleImage();
+        SlowTierCache cache = new SlowTierCache();
+        TileCoordinate coordinate = new TileCoordinate(4, 3, 3);
+        cache.metadata.put(coordinate, new TileMetadata("\"v1\"", null, Instant.EPOCH));
+        RevalidatingRetriever retriever = new RevalidatingRetriever();
+        TileManager manager = new TileManager(cache, retriever, 4);
+        manager.setStaleWhileRevalidateEnabled(false);
+        BlockingQueue<Image> delivered = new LinkedBlockingDeque<>();
+
+        manager.refreshTiles(List.of(coordinate), (tile, img) -> delivered.add(img));
+        cache.takeLookup(coordinate).complete(cached);
+
+        Revalidate request = retriever.revalidations.poll(1, TimeUnit.SECONDS);
+        assertThat(request).isNotNull();
+        WaitForAsyncUtils.waitForFxEvents();
+        assertThat(delivered).isEmpty();
+        TileMetadata refreshed = new TileMetadata("\"v1\"", null, Instant.now().plusSeconds(60));
+        request.future().complete(Revalidation.notModified(refreshed));
+
+        assertThat(delivered.poll(1, TimeUnit.SECONDS)).isSameAs(cached);
+        assertThat(cache.metadata.get(coordinate)).isEqualTo(refreshed);
+        assertThat(cache.puts).isEmpty();
+    }
+
+    /** Cache whose only tier is slow: peek misses and lookups complete on demand. */
+    @Test
+    void failedTileIsNotRequestedAgainUntilRetryAfterPasses() throws InterruptedException {
+        RecordingRetriever retriever = new RecordingRetriever();
+        TileManager manager = new TileManager(new InMemoryTileCache(10), retriever);
+        List<TileCoordinate> tiles = List.of(new TileCoordinate(3, 1, 1));
+
+        manager.refreshTiles(tiles, (tile, img) -> { });
+        retriever.takeRequest(Duration.ofSeconds(1)).future().completeExceptionally(
+                new TileRetrievalException("busy", 503, Duration.ofMillis(300)));
+        manager.refreshTiles(tiles, (tile, img) -> { });
+
+        assertThat(manager.failedTileCount()).isEqualTo(1);
+        assertThat(retriever.requestCount()).isZero();
+
+        Thread.sleep(400);
+        manager.refreshTiles(tiles, (tile, img) -> { });
+        retriever.takeRequest(Duration.ofSeconds(1)).future().complete(getSampleImage());
+
+        assertThat(manager.failedTileCount()).isZero();
+    }
+
+    @Test
+    void missingTilesAreHeldBackUntilSourceChanges() throws InterruptedException {
+        RecordingRetriever retriever = new RecordingRetriever();
+        TileManager manager = new TileManager(new InMemoryTileCache(10), retriever);
+        List<TileCoordinate> tiles = List.of(new TileCoordinate(3, 2, 2));
+
+        manager.refreshTiles(tiles, (tile, img) -> { });
+        retriever.takeRequest(Duration.ofSeconds(1)).future().completeExceptionally(
+                new TileRetrievalException("missing", 404, null));
+        manager.refreshTiles(tiles, (tile, img) -> { });
+        assertThat(retriever.requestCount()).isZero();
+
+        manager.resetForTileSourceChange();
+        manager.refreshTiles(tiles, (tile, img) -> { });
+
+        assertThat(retriever.takeRequest(Duration.ofSeconds(1)).coordinate()).isEqualTo(tiles.get(0));
+    }
+
+    @Test
+    void cancelledLoadsAreNotRecordedAsFailures() throws InterruptedException {
+        RecordingRetriever retriever = new RecordingRetriever();
+        TileManager manager = new TileManager(new InMemoryTileCache(10), retriever);
+
+        manager.refreshTiles(List.of(new TileCoordinate(3, 4, 4)), (tile, img) -> { });
+        LoadRequest request = retriever.takeRequest(Duration.ofSeconds(1));
+        manager.refreshTiles(List.of(new TileCoordinate(3, 5, 5)), (tile, img) -> { });
+
+        assertThat(request.future()).isCancelled();
+        assertThat(manager.failedTileCount()).isZero();
+    }
+
+    @Test
+    void deliversTilesLoadedWithinOneFrameInOneBatch() throws Exception {
+        WaitForAsyncUtils.waitForFxEvents();
+        RecordingRetriever retriever = new RecordingRetriever();
+        TileManager manager = new TileManager(new InMemoryTileCache(64), retriever, 64);
+        List<TileCoordinate> tiles = new ArrayList<>();
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 5; y++) {
+                tiles.add(new TileCoordinate(4, x, y));
+            }
+        }
+        List<Integer> stillQueued = new ArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(tiles.size());
+        manager.refreshTiles(tiles, (tile, img) -> {
+            stillQueued.add(manager.pendingDeliveryCount());
+            delivered.countDown();
+        });
+        List<LoadRequest> requests = new ArrayList<>();
+        for (int i = 0; i < tiles.size(); i++) {
+            requests.add(retriever.takeRequest(Duration.ofSeconds(1)));
+        }
+
+        // Hold the FX thread so every completion lands before the first delivery runs
+        CountDownLatch fxBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            fxBlocked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(fxBlocked.await(1, TimeUnit.SECONDS)).isTrue();
+        requests.forEach(request -> request.future().complete(getSampleImage()));
+        assertThat(manager.pendingDeliveryCount()).isEqualTo(tiles.size());
+        release.countDown();
+
+        assertThat(delivered.await(2, TimeUnit.SECONDS)).isTrue();
+        // One drain hands over the whole queue
+        assertThat(stillQueued.get(0)).isEqualTo(tiles.size() - 1);
+        assertThat(manager.pendingDeliveryCount()).isZero();
+    }
+
+    private static final class SlowTierCache implements TileCache {
+        private final Map<TileCoordinate, CompletableFuture<Image>> lookups = new ConcurrentHashMap<>();
+        private final Map<TileCoordinate, TileMetadata> metadata = new ConcurrentHashMap<>();
+        private final List<TileCoordinate> puts = new ArrayList<>();
+
+        @Override
+        public Image get(int zoom, long x, long y) {
+            throw new AssertionError("blocking lookup on the calling thread");
+        }
+
+        @Override
+        public Image peek(int zoom, long x, long y) {
+            return null;
+        }
+
+        @Override
+        public CompletableFuture<Image> getAsync(int zoom, long x, long y) {
+            return lookups.computeIfAbsent(new TileCoordinate(zoom, x, y), key -> new CompletableFuture<>());
+        }
+
+        @Override
+        public void put(int zoom, long x, long y, Image image) {
+            puts.add(new TileCoordinate(zoom, x, y));
+        }
+
+        @Override
+        public void putEncoded(int zoom, long x, long y, EncodedTile tile) {
+            put(zoom, x, y, tile.image());
+            metadata.put(new TileCoordinate(zoom, x, y), tile.metadata());
+        }
+
+        @Override
+        public TileMetadata metadata(int zoom, long x, long y) {
+            return metadata.get(new TileCoordinate(zoom, x, y));
+        }
+
+        @Override
+        public void updateMetadata(int zoom, long x, long y, TileMetadata updated) {
+            metadata.put(new TileCoordinate(zoom, x, y), updated);
+        }
+
+        @Override
+        public void clear() {
+        }
+
+        CompletableFuture<Image> takeLookup(TileCoordinate coordinate) {
+            return getAsync(coordinate.zoom(), coordinate.x(), coordinate.y());
+        }
+    }
+
     private static final class RecordingRetriever implements TileRetriever {
         private final BlockingQueue<LoadRequest> requests = new LinkedBlockingDeque<>();
 
@@ -201,4 +696,28 @@ class TileManagerTest {
 
     private record LoadRequest(TileCoordinate coordinate, CompletableFuture<Image> future) {
     }
+
+    private static final class RevalidatingRetriever implements EncodedTileRetriever {
+        private final BlockingQueue<Revalidate> revalidations = new LinkedBlockingDeque<>();
+
+        @Override
+        public CompletableFuture<Image> loadTile(int zoom, long x, long y) {
+            return new CompletableFuture<>();
+        }
+
+        @Override
+        public CompletableFuture<EncodedTile> loadEncodedTile(int zoom, long x, long y) {
+            return new CompletableFuture<>();
+        }
+
+        @Override
+        public CompletableFuture<Revalidation> revalidateTile(int zoom, long x, long y, TileMetadata cached) {
+            var future = new CompletableFuture<Revalidation>();
+            revalidations.add(new Revalidate(cached, future));
+            return future;
+        }
+    }
+
+    private record Revalidate(TileMetadata cached, CompletableFuture<Revalidation> future) {
+    }
 }
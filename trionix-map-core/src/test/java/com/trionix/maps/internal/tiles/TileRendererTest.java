@@ -0,0 +1,131 @@
+package com.trionix.maps.internal.tiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.trionix.maps.InMemoryTileCache;
+import com.trionix.maps.internal.MapState;
+import com.trionix.maps.internal.projection.Projection;
+import com.trionix.maps.internal.projection.WebMercatorProjection;
+import com.trionix.maps.testing.RecordingTileRetriever;
+import java.util.List;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+import org.testfx.framework.junit5.Start;
+import org.testfx.util.WaitForAsyncUtils;
+
+@ExtendWith(ApplicationExtension.class)
+class TileRendererTest {
+
+    private static final double SIZE = Projection.TILE_SIZE;
+
+    @Start
+    private void start(Stage stage) {
+        // Initialize JavaFX toolkit
+    }
+
+    @Test
+    void drawsScaledAncestorQuadrantForMissingTile() throws Exception {
+        InMemoryTileCache cache = new InMemoryTileCache(16);
+        cache.put(1, 0, 0, quadrants(Color.RED, Color.LIME, Color.BLUE, Color.YELLOW));
+
+        // Tile 2/1/0 is the top-right quadrant of its parent 1/0/0
+        WritableImage frame = renderSingleTile(cache, new TileCoordinate(2, 1, 0));
+
+        assertColor(frame, 16, 16, Color.LIME);
+        assertColor(frame, 240, 240, Color.LIME);
+    }
+
+    @Test
+    void usesGrandparentWhenParentIsMissing() throws Exception {
+        InMemoryTileCache cache = new InMemoryTileCache(16);
+        cache.put(0, 0, 0, quadrants(Color.RED, Color.LIME, Color.BLUE, Color.YELLOW));
+
+        // Tile 2/0/3 lies in the bottom-left quadrant of tile 0/0/0
+        WritableImage frame = renderSingleTile(cache, new TileCoordinate(2, 0, 3));
+
+        assertColor(frame, 128, 128, Color.BLUE);
+    }
+
+    @Test
+    void drawsMosaicOfCachedChildren() throws Exception {
+        InMemoryTileCache cache = new InMemoryTileCache(16);
+        cache.put(2, 2, 0, solid(Color.RED));
+        cache.put(2, 3, 0, solid(Color.LIME));
+        cache.put(2, 2, 1, solid(Color.BLUE));
+        cache.put(2, 3, 1, solid(Color.YELLOW));
+        cache.put(0, 0, 0, solid(Color.BLACK)); // complete children win over ancestors
+
+        WritableImage frame = renderSingleTile(cache, new TileCoordinate(1, 1, 0));
+
+        assertColor(frame, 64, 64, Color.RED);
+        assertColor(frame, 192, 64, Color.LIME);
+        assertColor(frame, 64, 192, Color.BLUE);
+        assertColor(frame, 192, 192, Color.YELLOW);
+    }
+
+    @Test
+    void overlaysPartialChildrenOnPlaceholder() throws Exception {
+        InMemoryTileCache cache = new InMemoryTileCache(16);
+        cache.put(2, 1, 1, solid(Color.YELLOW));
+
+        WritableImage frame = renderSingleTile(cache, new TileCoordinate(1, 0, 0));
+
+        assertColor(frame, 192, 192, Color.YELLOW);
+        assertThat(frame.getPixelReader().getColor(64, 64)).isNotEqualTo(Color.YELLOW);
+    }
+
+    private static WritableImage renderSingleTile(InMemoryTileCache cache, TileCoordinate tile)
+            throws Exception {
+        TileRenderer renderer = new TileRenderer(new TileManager(cache, new RecordingTileRetriever()));
+        MapState state = new MapState();
+        state.setZoom(tile.zoom());
+        state.setViewportSize(SIZE, SIZE);
+        // Center the viewport on the tile so it fills the canvas exactly
+        Projection.LatLon center = WebMercatorProjection.INSTANCE.pixelToLatLon(
+                (tile.x() + 0.5) * SIZE, (tile.y() + 0.5) * SIZE, tile.zoom());
+        state.setCenterLat(center.latitude());
+        state.setCenterLon(center.longitude());
+
+        return WaitForAsyncUtils.asyncFx(() -> {
+            Canvas canvas = new Canvas(SIZE, SIZE);
+            renderer.render(canvas.getGraphicsContext2D(), WebMercatorProjection.INSTANCE, state,
+                    List.of(tile), SIZE, SIZE);
+            return canvas.snapshot(null, null);
+        }).get();
+    }
+
+    private static Image solid(Color color) {
+        return quadrants(color, color, color, color);
+    }
+
+    private static Image quadrants(Color topLeft, Color topRight, Color bottomLeft,
+            Color bottomRight) {
+        int size = (int) SIZE;
+        WritableImage image = new WritableImage(size, size);
+        PixelWriter writer = image.getPixelWriter();
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                boolean right = x >= size / 2;
+                boolean bottom = y >= size / 2;
+                Color color = bottom ? (right ? bottomRight : bottomLeft) : (right ? topRight : topLeft);
+                writer.setColor(x, y, color);
+            }
+        }
+        return image;
+    }
+
+    private static void assertColor(WritableImage frame, int x, int y, Color expected) {
+        Color actual = frame.getPixelReader().getColor(x, y);
+        assertThat(actual.getRed()).isCloseTo(expected.getRed(), within(0.02));
+        assertThat(actual.getGreen()).isCloseTo(expected.getGreen(), within(0.02));
+        assertThat(actual.getBlue()).isCloseTo(expected.getBlue(), within(0.02));
+    }
+}
@@ -0,0 +1,54 @@
+package com.trionix.maps.internal.tiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TileUrlTemplateTest {
+
+    @Test
+    void appendsDefaultPathToBaseUrl() {
+        TileUrlTemplate template = TileUrlTemplate.compile("https://tile.example.com/base/", List.of());
+
+        assertThat(template.expand(3, 4, 5, 0)).isEqualTo("https://tile.example.com/base/3/4/5.png");
+        assertThat(template.hostCount()).isEqualTo(1);
+    }
+
+    @Test
+    void expandsPlaceholdersInAnyOrder() {
+        TileUrlTemplate template = TileUrlTemplate.compile(
+                "https://{s}.tiles.example.com/v1/{z}/{y}/{x}@2x.jpg?key=abc", List.of("a", "b", "c"));
+
+        assertThat(template.expand(12, 2048, 1361, 2))
+                .isEqualTo("https://c.tiles.example.com/v1/12/1361/2048@2x.jpg?key=abc");
+        assertThat(template.hostCount()).isEqualTo(3);
+    }
+
+    @Test
+    void spreadsNeighboringTilesOverHosts() {
+        TileUrlTemplate template = TileUrlTemplate.compile("https://{s}/{z}/{x}/{y}.png", List.of("one", "two"));
+
+        assertThat(template.hostFor(0, 0)).isZero();
+        assertThat(template.hostFor(1, 0)).isEqualTo(1);
+        assertThat(template.hostFor(1, 1)).isZero();
+        assertThat(template.hostFor(-1, 0)).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsInconsistentTemplates() {
+        assertThatThrownBy(() -> TileUrlTemplate.compile("https://example.com/{z}/{x}.png", List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("urlTemplate must contain {z}, {x} and {y}");
+        assertThatThrownBy(() -> TileUrlTemplate.compile("https://{s}.example.com/{z}/{x}/{y}.png", List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("{s} placeholder requires subdomains");
+        assertThatThrownBy(() -> TileUrlTemplate.compile("https://example.com/{z}/{x}/{y}.png", List.of("a")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("subdomains require an {s} placeholder");
+        assertThatThrownBy(() -> TileUrlTemplate.compile("https://{s}.example.com/{z}/{x}/{y}.png", List.of(" ")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("subdomains must not be blank");
+    }
+}
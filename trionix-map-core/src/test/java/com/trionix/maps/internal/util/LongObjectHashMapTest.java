@@ -0,0 +1,82 @@
+package com.trionix.maps.internal.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LongObjectHashMapTest {
+
+    @Test
+    void putGetAndRemove() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+        assertThat(map.put(42L, "a")).isNull();
+        assertThat(map.put(42L, "b")).isEqualTo("a");
+        assertThat(map.get(42L)).isEqualTo("b");
+        assertThat(map.containsKey(42L)).isTrue();
+        assertThat(map.size()).isEqualTo(1);
+
+        assertThat(map.remove(42L)).isEqualTo("b");
+        assertThat(map.get(42L)).isNull();
+        assertThat(map.isEmpty()).isTrue();
+    }
+
+    @Test
+    void conditionalOperationsRespectCurrentValue() {
+        LongObjectHashMap<Integer> map = new LongObjectHashMap<>();
+
+        assertThat(map.putIfAbsent(7L, 1)).isNull();
+        assertThat(map.putIfAbsent(7L, 2)).isEqualTo(1);
+        assertThat(map.remove(7L, 2)).isFalse();
+        assertThat(map.remove(7L, 1)).isTrue();
+        assertThat(map.containsKey(7L)).isFalse();
+    }
+
+    @Test
+    void matchesHashMapUnderRandomChurn() {
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+        Map<Long, Long> reference = new HashMap<>();
+        Random random = new Random(1234);
+
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(2_000) * 0x1_0000_0000L + random.nextInt(4);
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(reference.remove(key));
+            } else {
+                assertThat(map.put(key, (long) i)).isEqualTo(reference.put(key, (long) i));
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(reference.size());
+        reference.forEach((key, value) -> assertThat(map.get(key)).isEqualTo(value));
+        Map<Long, Long> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertThat(visited).isEqualTo(reference);
+    }
+
+    @Test
+    void clearRemovesAllEntries() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>(4);
+        for (long key = 0; key < 100; key++) {
+            map.put(key, "v" + key);
+        }
+
+        map.clear();
+
+        assertThat(map.size()).isZero();
+        assertThat(map.get(5L)).isNull();
+    }
+
+    @Test
+    void rejectsNullValues() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+        assertThatThrownBy(() -> map.put(1L, null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessageContaining("value");
+    }
+}
@@ -0,0 +1,139 @@
+package com.trionix.maps.samples;
+
+import com.trionix.maps.FileTileCache;
+import com.trionix.maps.GeoPoint;
+import com.trionix.maps.PackTileCache;
+import com.trionix.maps.SimpleOsmTileRetriever;
+import com.trionix.maps.TileCache;
+import com.trionix.maps.TileSeeder;
+import com.trionix.maps.TileSource;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javafx.application.Platform;
+
+/**
+ * Command-line tool that downloads a region into a disk cache for offline use.
+ *
+ * <pre>
+ * SeedRegion --url URL --user-agent AGENT --bbox south,west,north,east --zoom min-max
+ *            (--cache DIR | --pack FILE) [--rate REQUESTS_PER_SECOND] [--concurrency N]
+ *            [--checkpoint FILE]
+ * </pre>
+ *
+ * <p>{@code --url} is the base URL or {@code {z}/{x}/{y}} template of a tile server that permits
+ * bulk downloads, and {@code --user-agent} identifies the seeding application to it. The
+ * openstreetmap.org tile servers forbid bulk downloading and are refused.
+ *
+ * <p>Re-running the same command resumes an interrupted seed.
+ */
+public final class SeedRegion {
+
+    private static final String OSM_TILE_HOST = "tile.openstreetmap.org";
+    private static final Pattern URL_HOST = Pattern.compile("^[A-Za-z][A-Za-z0-9+.-]*://([^/:?#]+)");
+
+    private SeedRegion() {
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = parse(args);
+        if (!options.containsKey("--url") || !options.containsKey("--user-agent")
+                || !options.containsKey("--bbox") || !options.containsKey("--zoom")
+                || options.containsKey("--cache") == options.containsKey("--pack")) {
+            System.err.println("Usage: SeedRegion --url URL --user-agent AGENT --bbox south,west,north,east"
+                    + " --zoom min-max (--cache DIR | --pack FILE) [--rate N] [--concurrency N]"
+                    + " [--checkpoint FILE]");
+            System.exit(2);
+        }
+        if (isOpenStreetMapTileServer(options.get("--url"))) {
+            System.err.println("Bulk downloads from " + OSM_TILE_HOST + " are forbidden by its tile usage"
+                    + " policy; seed from your own or a commercial tile server");
+            System.exit(2);
+        }
+        String[] bbox = options.get("--bbox").split(",");
+        String[] zoom = options.get("--zoom").split("-");
+        if (bbox.length != 4 || zoom.length != 2) {
+            System.err.println("--bbox needs four numbers and --zoom a min-max range");
+            System.exit(2);
+        }
+
+        // Images are decoded by the JavaFX toolkit
+        Platform.startup(() -> {
+        });
+        try {
+            TileCache cache = options.containsKey("--pack")
+                    ? new PackTileCache(Path.of(options.get("--pack")), Long.MAX_VALUE)
+                    : new FileTileCache(Path.of(options.get("--cache")), Integer.MAX_VALUE);
+            TileSource source = TileSource.of(options.get("--url"), options.get("--user-agent"),
+                    Duration.ofSeconds(30), Duration.ofSeconds(30));
+            TileSeeder.Builder builder = TileSeeder.builder(new SimpleOsmTileRetriever(source), cache)
+                    .bounds(GeoPoint.of(Double.parseDouble(bbox[0]), Double.parseDouble(bbox[1])),
+                            GeoPoint.of(Double.parseDouble(bbox[2]), Double.parseDouble(bbox[3])))
+                    .zoomRange(Integer.parseInt(zoom[0].trim()), Integer.parseInt(zoom[1].trim()))
+                    .maxRequestsPerSecond(Double.parseDouble(options.getOrDefault("--rate", "2")))
+                    .maxConcurrentRequests(Integer.parseInt(options.getOrDefault("--concurrency", "2")))
+                    .progressListener(SeedRegion::report);
+            if (options.containsKey("--checkpoint")) {
+                builder.checkpoint(Path.of(options.get("--checkpoint")));
+            }
+            TileSeeder seeder = builder.build();
+            // On Ctrl-C, stop the seed and keep the JVM alive until the checkpoint and the cache
+            // have been written below
+            CountDownLatch finished = new CountDownLatch(1);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                seeder.cancel();
+                try {
+                    finished.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            System.out.printf("Seeding %d tiles%n", seeder.tileCount());
+
+            try {
+                TileSeeder.Progress result = seeder.run();
+                if (cache instanceof PackTileCache pack) {
+                    pack.flush();
+                } else if (cache instanceof FileTileCache files) {
+                    files.flush();
+                }
+                System.out.printf("%nDone: %d downloaded, %d skipped, %d failed, %.1f MiB in %ds%n",
+                        result.downloaded(), result.skipped(), result.failed(),
+                        result.bytes() / (1024.0 * 1024.0), result.elapsed().toSeconds());
+            } finally {
+                finished.countDown();
+            }
+        } finally {
+            Platform.exit();
+        }
+    }
+
+    private static boolean isOpenStreetMapTileServer(String url) {
+        Matcher matcher = URL_HOST.matcher(url);
+        if (!matcher.find()) {
+            return false;
+        }
+        String host = matcher.group(1).toLowerCase(Locale.ROOT);
+        return host.equals(OSM_TILE_HOST) || host.endsWith("." + OSM_TILE_HOST);
+    }
+
+    private static void report(TileSeeder.Progress progress) {
+        if (progress.completed() % 50 == 0 || progress.isDone()) {
+            System.out.printf("\r%d/%d tiles, %.1f tiles/s, %.1f KiB/s", progress.completed(),
+                    progress.total(), progress.tilesPerSecond(), progress.bytesPerSecond() / 1024.0);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i], args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,153 @@
+package com.trionix.maps.samples;
+
+import com.trionix.maps.TileCache;
+import com.trionix.maps.TileCacheBuilder;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javax.imageio.ImageIO;
+
+/**
+ * Measures what {@link TileCacheBuilder#convertToRenderFormat(boolean)} costs and saves on the
+ * current graphics pipeline.
+ *
+ * <pre>
+ * TileDecodeBenchmark [--tiles N] [--rounds N]
+ * </pre>
+ *
+ * <p>Each round decodes a batch of distinct opaque 256x256 PNG tiles and stores them in a memory
+ * cache on the calling thread ("decode"), then draws all of them once onto a canvas and snapshots
+ * it on the JavaFX thread ("first draw"), which includes uploading every tile as a texture. Rounds
+ * alternate between a plain and a converting cache; the median and 90th percentile of each are
+ * printed. Select the pipeline to measure with {@code -Dprism.order=d3d|es2|sw}.
+ */
+public final class TileDecodeBenchmark {
+
+    private static final int TILE_SIZE = 256;
+    private static final int WARMUP_ROUNDS = 3;
+
+    private TileDecodeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int tiles = 64;
+        int rounds = 20;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--tiles" -> tiles = Integer.parseInt(args[i + 1]);
+                case "--rounds" -> rounds = Integer.parseInt(args[i + 1]);
+                default -> {
+                    System.err.println("Usage: TileDecodeBenchmark [--tiles N] [--rounds N]");
+                    System.exit(2);
+                }
+            }
+        }
+
+        Platform.startup(() -> {
+        });
+        try {
+            List<byte[]> encoded = new ArrayList<>(tiles);
+            for (int i = 0; i < tiles; i++) {
+                encoded.add(opaquePng(i));
+            }
+            int columns = (int) Math.ceil(Math.sqrt(tiles));
+            Canvas canvas = onFxThread(() -> new Canvas(columns * TILE_SIZE, columns * TILE_SIZE));
+
+            long[][] decodeNanos = new long[2][rounds];
+            long[][] drawNanos = new long[2][rounds];
+            for (int round = -WARMUP_ROUNDS; round < rounds; round++) {
+                for (int mode = 0; mode < 2; mode++) {
+                    TileCache cache = TileCacheBuilder.create()
+                            .memory(tiles)
+                            .convertToRenderFormat(mode == 1)
+                            .build();
+                    long start = System.nanoTime();
+                    for (int i = 0; i < tiles; i++) {
+                        cache.put(0, i, 0, new Image(new ByteArrayInputStream(encoded.get(i))));
+                    }
+                    long decoded = System.nanoTime() - start;
+                    int tileCount = tiles;
+                    long drawn = onFxThread(() -> firstDraw(canvas, cache, tileCount, columns));
+                    if (round >= 0) {
+                        decodeNanos[mode][round] = decoded;
+                        drawNanos[mode][round] = drawn;
+                    }
+                }
+            }
+
+            System.out.printf("%d tiles, %d rounds, prism.order=%s%n", tiles, rounds,
+                    System.getProperty("prism.order", "default"));
+            System.out.printf("%-10s %24s %24s%n", "", "decode median/p90 ms", "first draw median/p90 ms");
+            String[] names = {"plain", "converted"};
+            for (int mode = 0; mode < 2; mode++) {
+                System.out.printf("%-10s %12.1f / %9.1f %12.1f / %9.1f%n", names[mode],
+                        percentile(decodeNanos[mode], 50), percentile(decodeNanos[mode], 90),
+                        percentile(drawNanos[mode], 50), percentile(drawNanos[mode], 90));
+            }
+        } finally {
+            Platform.exit();
+        }
+    }
+
+    private static long firstDraw(Canvas canvas, TileCache cache, int tiles, int columns) {
+        GraphicsContext graphics = canvas.getGraphicsContext2D();
+        long start = System.nanoTime();
+        graphics.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        for (int i = 0; i < tiles; i++) {
+            graphics.drawImage(cache.peek(0, i, 0), (i % columns) * TILE_SIZE, (i / columns) * TILE_SIZE);
+        }
+        canvas.snapshot(null, null);
+        return System.nanoTime() - start;
+    }
+
+    private static <T> T onFxThread(Supplier<T> task) throws Exception {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                result.complete(task.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result.get();
+    }
+
+    private static double percentile(long[] nanos, int percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /** Encodes a distinct, incompressible-looking opaque tile. */
+    private static byte[] opaquePng(int seed) {
+        BufferedImage image = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+        int state = 0x9E3779B9 * (seed + 1);
+        for (int y = 0; y < TILE_SIZE; y++) {
+            for (int x = 0; x < TILE_SIZE; x++) {
+                state ^= state << 13;
+                state ^= state >>> 17;
+                state ^= state << 5;
+                image.setRGB(x, y, ((x + seed) << 16 | y << 8 | (state & 0x3F)) & 0xFFFFFF);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -92,12 +92,10 @@ public final class PolylineLayer extends MapLayer {
             return null;
         }
         int zoomLevel = mapView.getDiscreteZoomLevel();
-        Projection.PixelCoordinate centerPixels = projection.latLonToPixel(
-                mapView.getCenterLat(), mapView.getCenterLon(), zoomLevel);
         return new LayoutContext(
                 zoomLevel,
-                centerPixels.x(),
-                centerPixels.y(),
+                projection.longitudeToPixelX(mapView.getCenterLon(), zoomLevel),
+                projection.latitudeToPixelY(mapView.getCenterLat(), zoomLevel),
                 mapView.getWidth() / 2.0,
                 mapView.getHeight() / 2.0,
                 projection);
@@ -151,25 +149,28 @@ public final class PolylineLayer extends MapLayer {
 
         for (int i = 0; i < points.size(); i++) {
             GeoPoint gp = points.get(i);
-            double[] screenPos = toScreenPosition(gp, ctx);
+            double screenX = toScreenX(gp, ctx);
+            double screenY = toScreenY(gp, ctx);
 
-            visual.lineNode.getPoints().addAll(screenPos[0], screenPos[1]);
+            visual.lineNode.getPoints().addAll(screenX, screenY);
 
             if (markersNeeded && i < visual.markerNodes.size()) {
-                positionMarker(visual.markerNodes.get(i), screenPos, polyline);
+                positionMarker(visual.markerNodes.get(i), screenX, screenY, polyline);
             }
         }
     }
 
-    private double[] toScreenPosition(GeoPoint gp, LayoutContext ctx) {
-        Projection.PixelCoordinate pixel = ctx.projection().latLonToPixel(
-                gp.latitude(), gp.longitude(), ctx.zoomLevel());
-        double screenX = pixel.x() - ctx.centerX() + ctx.halfWidth();
-        double screenY = pixel.y() - ctx.centerY() + ctx.halfHeight();
-        return new double[] { screenX, screenY };
+    private double toScreenX(GeoPoint gp, LayoutContext ctx) {
+        return ctx.projection().longitudeToPixelX(gp.longitude(), ctx.zoomLevel())
+                - ctx.centerX() + ctx.halfWidth();
     }
 
-    private void positionMarker(Node markerNode, double[] screenPos,
+    private double toScreenY(GeoPoint gp, LayoutContext ctx) {
+        return ctx.projection().latitudeToPixelY(gp.latitude(), ctx.zoomLevel())
+                - ctx.centerY() + ctx.halfHeight();
+    }
+
+    private void positionMarker(Node markerNode, double screenX, double screenY,
             com.trionix.maps.layer.Polyline polyline) {
         boolean showHandle = polyline.isMarkersVisible() || polyline.isEditable();
         markerNode.setVisible(showHandle);
@@ -178,7 +179,7 @@ public final class PolylineLayer extends MapLayer {
         if (markerNode.isVisible()) {
             double w = markerNode.prefWidth(-1);
             double h = markerNode.prefHeight(-1);
-            markerNode.resizeRelocate(screenPos[0] - w / 2.0, screenPos[1] - h / 2.0, w, h);
+            markerNode.resizeRelocate(screenX - w / 2.0, screenY - h / 2.0, w, h);
         }
     }
 